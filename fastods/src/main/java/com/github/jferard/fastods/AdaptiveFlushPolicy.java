@@ -0,0 +1,140 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+
+/**
+ * An adaptive flush policy. The policy measures the rendered length of the flushed rows and
+ * flushes when the buffered rows should have reached a target length, whatever the number of
+ * columns. It also flushes when the heap usage crosses a threshold.
+ * <p>
+ * The heap usage is checked every {@link #HEAP_CHECK_INTERVAL} calls, because reading the
+ * usage is not free.
+ *
+ * @author Julien Férard
+ */
+public final class AdaptiveFlushPolicy implements FlushPolicy {
+    /**
+     * The number of rows of the first chunk, before any measure.
+     */
+    static final int FIRST_CHUNK_ROW_COUNT = 256;
+
+    /**
+     * The heap usage is checked once every HEAP_CHECK_INTERVAL calls.
+     */
+    static final int HEAP_CHECK_INTERVAL = 256;
+
+    /**
+     * @param targetLength the target length of a chunk, in chars (a chunk of 1 MB is a good
+     *                     start)
+     * @param maxHeapUsage the ratio of the max heap above which the rows are flushed, in ]0, 1]
+     * @return the policy
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static AdaptiveFlushPolicy create(final long targetLength,
+                                             final double maxHeapUsage) {
+        if (targetLength <= 0) {
+            throw new IllegalArgumentException("The target length must be > 0: " + targetLength);
+        }
+        if (maxHeapUsage <= 0 || maxHeapUsage > 1) {
+            throw new IllegalArgumentException(
+                    "The max heap usage must be in ]0, 1]: " + maxHeapUsage);
+        }
+        return new AdaptiveFlushPolicy(ManagementFactory.getMemoryMXBean(), targetLength,
+                maxHeapUsage);
+    }
+
+    private final MemoryMXBean memoryBean;
+    private final long targetLength;
+    private final double maxHeapUsage;
+    private double lengthPerRow;
+    private int callCount;
+
+    /**
+     * @param memoryBean   the bean to read the heap usage
+     * @param targetLength the target length of a chunk
+     * @param maxHeapUsage the ratio of the max heap above which the rows are flushed
+     */
+    AdaptiveFlushPolicy(final MemoryMXBean memoryBean, final long targetLength,
+                        final double maxHeapUsage) {
+        this.memoryBean = memoryBean;
+        this.targetLength = targetLength;
+        this.maxHeapUsage = maxHeapUsage;
+        this.lengthPerRow = 0;
+        this.callCount = 0;
+    }
+
+    @Override
+    public boolean shouldFlush(final int bufferedRowCount) {
+        if (bufferedRowCount <= 0) {
+            return false;
+        }
+        if (this.lengthPerRow == 0) {
+            if (bufferedRowCount >= FIRST_CHUNK_ROW_COUNT) {
+                return true;
+            }
+        } else if (bufferedRowCount * this.lengthPerRow >= this.targetLength) {
+            return true;
+        }
+
+        this.callCount++;
+        if (this.callCount < HEAP_CHECK_INTERVAL) {
+            return false;
+        }
+        this.callCount = 0;
+        return this.getHeapUsage() >= this.maxHeapUsage;
+    }
+
+    private double getHeapUsage() {
+        final MemoryUsage usage = this.memoryBean.getHeapMemoryUsage();
+        long max = usage.getMax();
+        if (max <= 0) { // undefined
+            max = usage.getCommitted();
+        }
+        return (double) usage.getUsed() / max;
+    }
+
+    @Override
+    public void rowsFlushed(final int rowCount, final long renderedLength) {
+        if (rowCount <= 0) {
+            return;
+        }
+        final double measuredLengthPerRow = (double) renderedLength / rowCount;
+        if (this.lengthPerRow == 0) {
+            this.lengthPerRow = measuredLengthPerRow;
+        } else { // a moving average: the rows of a table may change
+            this.lengthPerRow = (this.lengthPerRow + measuredLengthPerRow) / 2;
+        }
+    }
+
+    /**
+     * @return the measured length of a row, 0 before the first flush
+     */
+    double getLengthPerRow() {
+        return this.lengthPerRow;
+    }
+}
@@ -28,10 +28,12 @@ import com.github.jferard.fastods.odselement.ScriptEventListener;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.StoredEntry;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -97,6 +99,17 @@ public final class AnonymousOdsDocument implements OdsDocument {
         this.commonOdsDocument.addExtraFile(fullPath, mediaType, sequence);
     }
 
+    /**
+     * Add a stored (uncompressed) entry to the document. The entry is computed once and may be
+     * shared by a lot of documents.
+     *
+     * @param mediaType the MIME type of the file
+     * @param entry     the entry
+     */
+    public void addStoredEntry(final String mediaType, final StoredEntry entry) {
+        this.commonOdsDocument.addStoredEntry(mediaType, entry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.commonOdsDocument.addExtraDir(fullPath);
@@ -218,4 +231,16 @@ public final class AnonymousOdsDocument implements OdsDocument {
         this.odsElements.writeExtras(writer);
         this.logger.log(Level.FINE, "file saved");
     }
+
+    /**
+     * Saves a flat XML document (.fods). Do not close the writer.
+     *
+     * @param writer where to write
+     * @throws IOException if the document can't be saved
+     */
+    void saveFlat(final Writer writer) throws IOException {
+        this.odsElements.writeFlat(this.xmlUtil, writer);
+        writer.flush();
+        this.logger.log(Level.FINE, "flat file saved");
+    }
 }
@@ -27,11 +27,16 @@ import com.github.jferard.fastods.util.ZipUTF8Writer;
 import com.github.jferard.fastods.util.ZipUTF8WriterBuilder;
 import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +50,7 @@ import java.util.logging.Logger;
  * @author Martin Schulz
  */
 public class AnonymousOdsFileWriter {
+    private static final int FLAT_BUFFER_SIZE = 64 * 1024;
     private final AnonymousOdsDocument document;
     private final Logger logger;
 
@@ -92,6 +98,45 @@ public class AnonymousOdsFileWriter {
         this.document.save(writer);
     }
 
+    /**
+     * Writes the document to a stream, as a flat XML document (.fods): no zip, no compression.
+     * WARNING: The user shall close the stream.
+     *
+     * @param out The OutputStream that should be used.
+     * @throws IOException The file can't be saved.
+     */
+    public void saveFlat(final OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, ZipUTF8Writer.UTF_8), FLAT_BUFFER_SIZE);
+        this.document.saveFlat(writer);
+    }
+
+    /**
+     * Writes the document to a channel, as a flat XML document (.fods).
+     * WARNING: The user shall close the channel.
+     *
+     * @param channel The channel that should be used.
+     * @throws IOException The file can't be saved.
+     */
+    public void saveFlat(final WritableByteChannel channel) throws IOException {
+        this.saveFlat(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Save the new file as a flat XML document (.fods).
+     *
+     * @param file the destination file
+     * @throws IOException If an I/O error occurs
+     */
+    public void saveFlatAs(final File file) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            this.saveFlat(out);
+        } finally {
+            out.close();
+        }
+    }
+
     /**
      * Save the new file.
      *
@@ -0,0 +1,166 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The string dictionaries of the columns of a table. A column of categorical data (country,
+ * status, currency code...) has few distinct values, but every cell usually holds a fresh
+ * String. If the column has a dictionary, the string cells share the String of the dictionary
+ * entry, and the value is escaped once per entry.
+ * <p>
+ * A dictionary has a max cardinality: the values that are not in a full dictionary are stored
+ * as plain strings.
+ *
+ * @author Julien Férard
+ */
+class ColumnDictionaries {
+    private Map<String, Entry>[] entriesByColumn;
+    private int[] maxCardinalityByColumn;
+
+    /**
+     * Create the dictionaries. No column has a dictionary.
+     */
+    ColumnDictionaries() {
+        this.entriesByColumn = ColumnDictionaries.newMaps(0);
+        this.maxCardinalityByColumn = new int[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Entry>[] newMaps(final int length) {
+        return (Map<String, Entry>[]) new Map<?, ?>[length];
+    }
+
+    /**
+     * Create a dictionary for a column.
+     *
+     * @param columnIndex    the column
+     * @param maxCardinality the max number of entries of the dictionary
+     * @throws IllegalArgumentException if maxCardinality <= 0
+     */
+    public void setDictionary(final int columnIndex, final int maxCardinality) {
+        if (maxCardinality <= 0) {
+            throw new IllegalArgumentException(
+                    "The max cardinality of a dictionary must be > 0: " + maxCardinality);
+        }
+        this.ensureColumnCapacity(columnIndex);
+        if (this.entriesByColumn[columnIndex] == null) {
+            this.entriesByColumn[columnIndex] = new HashMap<String, Entry>();
+        }
+        this.maxCardinalityByColumn[columnIndex] = maxCardinality;
+    }
+
+    /**
+     * @param columnIndex the column
+     * @return true if the column has a dictionary
+     */
+    public boolean hasDictionary(final int columnIndex) {
+        return columnIndex < this.entriesByColumn.length &&
+                this.entriesByColumn[columnIndex] != null;
+    }
+
+    /**
+     * @param columnIndex the column
+     * @param value       the value of a string cell
+     * @param util        an util to escape the value
+     * @return the String of the dictionary entry, or value itself if there is no dictionary
+     * or the dictionary is full
+     */
+    public String intern(final int columnIndex, final String value, final XMLUtil util) {
+        if (value == null || !this.hasDictionary(columnIndex)) {
+            return value;
+        }
+        final Map<String, Entry> entries = this.entriesByColumn[columnIndex];
+        final Entry entry = entries.get(value);
+        if (entry != null) {
+            return entry.value;
+        }
+        if (entries.size() >= this.maxCardinalityByColumn[columnIndex]) {
+            return value;
+        }
+        entries.put(value, new Entry(value, util.escapeXMLAttribute(value)));
+        return value;
+    }
+
+    /**
+     * @param columnIndex the column
+     * @param value       the value of a string cell
+     * @return the escaped value if the value is in the dictionary of the column, null otherwise
+     */
+    public String getEscapedValue(final int columnIndex, final String value) {
+        if (!this.hasDictionary(columnIndex)) {
+            return null;
+        }
+        final Entry entry = this.entriesByColumn[columnIndex].get(value);
+        if (entry == null) {
+            return null;
+        }
+        return entry.escapedValue;
+    }
+
+    /**
+     * @param columnIndex the column
+     * @return the number of entries of the dictionary, 0 if there is no dictionary
+     */
+    public int getCardinality(final int columnIndex) {
+        if (!this.hasDictionary(columnIndex)) {
+            return 0;
+        }
+        return this.entriesByColumn[columnIndex].size();
+    }
+
+    private void ensureColumnCapacity(final int columnIndex) {
+        final int length = this.entriesByColumn.length;
+        if (columnIndex < length) {
+            return;
+        }
+        int newLength = length * 2;
+        if (newLength <= columnIndex) {
+            newLength = columnIndex + 1;
+        }
+        final Map<String, Entry>[] entries = ColumnDictionaries.newMaps(newLength);
+        System.arraycopy(this.entriesByColumn, 0, entries, 0, length);
+        this.entriesByColumn = entries;
+        final int[] maxCardinalities = new int[newLength];
+        System.arraycopy(this.maxCardinalityByColumn, 0, maxCardinalities, 0, length);
+        this.maxCardinalityByColumn = maxCardinalities;
+    }
+
+    /**
+     * An entry of a dictionary: the shared String and its escaped value.
+     */
+    private static final class Entry {
+        private final String value;
+        private final String escapedValue;
+
+        Entry(final String value, final String escapedValue) {
+            this.value = value;
+            this.escapedValue = escapedValue;
+        }
+    }
+}
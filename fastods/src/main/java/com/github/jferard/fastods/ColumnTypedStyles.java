@@ -0,0 +1,133 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+/**
+ * The type profile of the columns of a table: for each column, the effective cell styles of
+ * the typed cells (a float, a date, ...). A typed cell of a column has, most of the time, the
+ * same current style and the same data style as the cell above: the effective style is resolved
+ * once by the styles container, then found here without a map lookup.
+ * <p>
+ * The styles are compared by identity.
+ *
+ * @author Julien Férard
+ */
+class ColumnTypedStyles {
+    /**
+     * The max number of (style, data style) pairs per column.
+     */
+    static final int MAX_ENTRIES_PER_COLUMN = 8;
+
+    private TableCellStyle[][] curStylesByColumn;
+    private DataStyle[][] dataStylesByColumn;
+    private TableCellStyle[][] effectiveStylesByColumn;
+
+    /**
+     * @param columnCapacity the expected number of columns
+     */
+    ColumnTypedStyles(final int columnCapacity) {
+        this.curStylesByColumn = new TableCellStyle[columnCapacity][];
+        this.dataStylesByColumn = new DataStyle[columnCapacity][];
+        this.effectiveStylesByColumn = new TableCellStyle[columnCapacity][];
+    }
+
+    /**
+     * @param columnIndex the column
+     * @param curStyle    the current style of the cell
+     * @param dataStyle   the data style of the type
+     * @return the effective style, or null if it was not resolved yet
+     */
+    public TableCellStyle get(final int columnIndex, final TableCellStyle curStyle,
+                              final DataStyle dataStyle) {
+        if (columnIndex >= this.curStylesByColumn.length) {
+            return null;
+        }
+        final TableCellStyle[] curStyles = this.curStylesByColumn[columnIndex];
+        if (curStyles == null) {
+            return null;
+        }
+        final DataStyle[] dataStyles = this.dataStylesByColumn[columnIndex];
+        for (int i = 0; i < MAX_ENTRIES_PER_COLUMN; i++) {
+            final TableCellStyle entryCurStyle = curStyles[i];
+            if (entryCurStyle == null) {
+                return null;
+            }
+            if (entryCurStyle == curStyle && dataStyles[i] == dataStyle) {
+                return this.effectiveStylesByColumn[columnIndex][i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store the effective style. If the column has too many pairs, the last one is replaced.
+     *
+     * @param columnIndex    the column
+     * @param curStyle       the current style of the cell
+     * @param dataStyle      the data style of the type
+     * @param effectiveStyle the effective style
+     */
+    public void put(final int columnIndex, final TableCellStyle curStyle,
+                    final DataStyle dataStyle, final TableCellStyle effectiveStyle) {
+        this.ensureColumnCapacity(columnIndex);
+        TableCellStyle[] curStyles = this.curStylesByColumn[columnIndex];
+        if (curStyles == null) {
+            curStyles = new TableCellStyle[MAX_ENTRIES_PER_COLUMN];
+            this.curStylesByColumn[columnIndex] = curStyles;
+            this.dataStylesByColumn[columnIndex] = new DataStyle[MAX_ENTRIES_PER_COLUMN];
+            this.effectiveStylesByColumn[columnIndex] =
+                    new TableCellStyle[MAX_ENTRIES_PER_COLUMN];
+        }
+        int i = 0;
+        while (i < MAX_ENTRIES_PER_COLUMN - 1 && curStyles[i] != null) {
+            i++;
+        }
+        curStyles[i] = curStyle;
+        this.dataStylesByColumn[columnIndex][i] = dataStyle;
+        this.effectiveStylesByColumn[columnIndex][i] = effectiveStyle;
+    }
+
+    private void ensureColumnCapacity(final int columnIndex) {
+        final int length = this.curStylesByColumn.length;
+        if (columnIndex < length) {
+            return;
+        }
+        int newLength = length * 2;
+        if (newLength <= columnIndex) {
+            newLength = columnIndex + 1;
+        }
+        final TableCellStyle[][] curStyles = new TableCellStyle[newLength][];
+        System.arraycopy(this.curStylesByColumn, 0, curStyles, 0, length);
+        this.curStylesByColumn = curStyles;
+        final DataStyle[][] dataStyles = new DataStyle[newLength][];
+        System.arraycopy(this.dataStylesByColumn, 0, dataStyles, 0, length);
+        this.dataStylesByColumn = dataStyles;
+        final TableCellStyle[][] effectiveStyles = new TableCellStyle[newLength][];
+        System.arraycopy(this.effectiveStylesByColumn, 0, effectiveStyles, 0, length);
+        this.effectiveStylesByColumn = effectiveStyles;
+    }
+}
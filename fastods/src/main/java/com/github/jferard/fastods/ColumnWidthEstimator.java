@@ -0,0 +1,331 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.attribute.SimpleLength;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.style.TableColumnStyle;
+import com.github.jferard.fastods.style.TextProperties;
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An estimator of the width of the columns, from the first rows of a table. The estimator
+ * keeps the widest content of each column, in points, and, before the preamble of the table is
+ * written, gives a width to the columns that have the default style. The width of a text is
+ * estimated from the number of chars, the font name, the font size and the font weight of the
+ * cell style: the glyphs are not measured. The chars of a text (see
+ * {@link TableCell#setText(Text)}) are counted on its longest line.
+ * <p>
+ * The widths are rounded up to the next of a few steps, from 1 cm to 12 cm, and the column
+ * styles are shared. Only the styles given to the columns are registered. In a named writer,
+ * the automatic styles are written when the first table is added: the styles of every step
+ * must be registered before (see {@link NamedOdsDocument#addAutoColumnWidthStyles()}).
+ *
+ * @author Julien Férard
+ */
+final class ColumnWidthEstimator {
+    private static final double DEFAULT_FONT_SIZE_PT = 10.0;
+    private static final double PROPORTIONAL_CHAR_WIDTH_EM = 0.55;
+    private static final double MONOSPACE_CHAR_WIDTH_EM = 0.6;
+    private static final double NARROW_CHAR_WIDTH_EM = 0.45;
+    private static final double BOLD_FACTOR = 1.1;
+    private static final double PADDING_PT = 6.0;
+    private static final double PT_PER_CM = 72.0 / 2.54;
+    private static final double HALF_CM_PT = PT_PER_CM / 2;
+    private static final int[] HALF_CMS_STEPS = {2, 3, 4, 5, 6, 8, 10, 12, 16, 20, 24};
+    private static final int DATE_CHAR_COUNT = 10;
+    private static final int TIME_CHAR_COUNT = 8;
+    private static final int SYMBOL_CHAR_COUNT = 2;
+
+    /**
+     * @param sampleRowCount the number of rows to observe
+     * @return a new estimator
+     */
+    static ColumnWidthEstimator create(final int sampleRowCount) {
+        if (sampleRowCount <= 0) {
+            throw new IllegalArgumentException("The sample row count must be > 0: " +
+                    sampleRowCount);
+        }
+        return new ColumnWidthEstimator(sampleRowCount);
+    }
+
+    /**
+     * @param halfCms the width, in half centimeters
+     * @return the shared column style
+     */
+    static TableColumnStyle getColumnStyle(final int halfCms) {
+        return TableColumnStyle.builder("co-auto-" + halfCms)
+                .columnWidth(SimpleLength.cm(halfCms / 2.0)).build();
+    }
+
+    /**
+     * Register every style that the estimator may give to a column
+     *
+     * @param stylesContainer the container
+     */
+    static void addColumnStyles(final StylesContainer stylesContainer) {
+        for (final int halfCms : HALF_CMS_STEPS) {
+            getColumnStyle(halfCms).addToContentStyles(stylesContainer);
+        }
+    }
+
+    /**
+     * @param fontSize the font size, e.g. "10pt", "0.5cm" or "120%"
+     * @return the size in points
+     */
+    static double parseFontSizePt(final String fontSize) {
+        if (fontSize == null) {
+            return DEFAULT_FONT_SIZE_PT;
+        }
+        int i = 0;
+        while (i < fontSize.length() &&
+                (Character.isDigit(fontSize.charAt(i)) || fontSize.charAt(i) == '.')) {
+            i++;
+        }
+        final double value;
+        try {
+            value = Double.parseDouble(fontSize.substring(0, i));
+        } catch (final NumberFormatException e) {
+            return DEFAULT_FONT_SIZE_PT;
+        }
+        final String unit = fontSize.substring(i).trim();
+        if (unit.equals("pt")) {
+            return value;
+        } else if (unit.equals("%")) {
+            return DEFAULT_FONT_SIZE_PT * value / 100;
+        } else if (unit.equals("cm")) {
+            return value * PT_PER_CM;
+        } else if (unit.equals("mm")) {
+            return value * PT_PER_CM / 10;
+        } else if (unit.equals("in")) {
+            return value * 72;
+        } else if (unit.equals("pc")) {
+            return value * 12;
+        } else if (unit.equals("em")) {
+            return value * DEFAULT_FONT_SIZE_PT;
+        } else {
+            return DEFAULT_FONT_SIZE_PT;
+        }
+    }
+
+    /**
+     * @param textProperties the text properties of a style
+     * @return the mean width of a char, in points
+     */
+    static double getCharWidthPt(final TextProperties textProperties) {
+        final String fontName = textProperties.getFontName();
+        double em = PROPORTIONAL_CHAR_WIDTH_EM;
+        if (fontName != null) {
+            final String lowerName = fontName.toLowerCase(Locale.US);
+            if (lowerName.contains("mono") || lowerName.contains("courier") ||
+                    lowerName.contains("consolas")) {
+                em = MONOSPACE_CHAR_WIDTH_EM;
+            } else if (lowerName.contains("narrow") || lowerName.contains("condensed")) {
+                em = NARROW_CHAR_WIDTH_EM;
+            }
+        }
+        double width = em * parseFontSizePt(textProperties.getFontSize());
+        final String fontWeight = textProperties.getFontWeight();
+        if (fontWeight != null && (fontWeight.equals("bold") ||
+                fontWeight.length() == 3 && fontWeight.compareTo("600") >= 0)) {
+            width *= BOLD_FACTOR;
+        }
+        return width;
+    }
+
+    private final int sampleRowCount;
+    private final Map<TableCellStyle, Double> charWidthByStyle;
+    private double[] widthsPt;
+    private boolean applied;
+
+    /**
+     * @param sampleRowCount the number of rows to observe
+     */
+    ColumnWidthEstimator(final int sampleRowCount) {
+        this.sampleRowCount = sampleRowCount;
+        this.charWidthByStyle = new IdentityHashMap<TableCellStyle, Double>();
+        this.widthsPt = new double[0];
+        this.applied = false;
+    }
+
+    /**
+     * @return the number of rows to observe
+     */
+    int getSampleRowCount() {
+        return this.sampleRowCount;
+    }
+
+    /**
+     * @return true if the widths were already given to the columns
+     */
+    boolean isApplied() {
+        return this.applied;
+    }
+
+    /**
+     * Observe the cells of a row
+     *
+     * @param util an util to render the texts
+     * @param row  the row
+     * @throws IOException if a text can't be rendered
+     */
+    void observeRow(final XMLUtil util, final TableRowImpl row) throws IOException {
+        int c = row.nextCellIndex(0);
+        while (c != -1) {
+            final TableCellImpl cell = row.getCell(c);
+            if (cell != null && !cell.isCovered()) {
+                this.observeCell(util, c, cell);
+            }
+            c = row.nextCellIndex(c + 1);
+        }
+    }
+
+    private void observeCell(final XMLUtil util, final int col, final TableCellImpl cell)
+            throws IOException {
+        final Text text = cell.getText();
+        final int charCount;
+        if (text != null && cell.getType() == CellType.STRING) { // setText or a link: no value
+            final StringBuilder sb = new StringBuilder();
+            text.appendXMLContent(util, sb);
+            charCount = getTextCharCount(sb);
+        } else {
+            charCount = getCharCount(cell.getType(), cell.getValue());
+        }
+        if (charCount == 0) {
+            return;
+        }
+        final TableCellStyle style = cell.getEffectiveStyle();
+        Double charWidth = this.charWidthByStyle.get(style);
+        if (charWidth == null) {
+            charWidth = getCharWidthPt(style.getTextProperties());
+            this.charWidthByStyle.put(style, charWidth);
+        }
+        this.observe(col, charCount * charWidth + PADDING_PT);
+    }
+
+    private static int getCharCount(final CellType type, final String value) {
+        if (type == null || value == null) {
+            return 0;
+        }
+        switch (type) {
+            case DATE:
+                return DATE_CHAR_COUNT;
+            case TIME:
+                return TIME_CHAR_COUNT;
+            case CURRENCY:
+            case PERCENTAGE:
+                return value.length() + SYMBOL_CHAR_COUNT;
+            default:
+                return value.length();
+        }
+    }
+
+    /**
+     * @param xmlContent the XML content of a text
+     * @return the number of chars of the longest line, outside of the tags. An entity is
+     * one char.
+     */
+    static int getTextCharCount(final CharSequence xmlContent) {
+        final String xml = xmlContent.toString();
+        int maxCount = 0;
+        int count = 0;
+        int i = 0;
+        while (i < xml.length()) {
+            final char c = xml.charAt(i);
+            if (c == '<') {
+                if (xml.startsWith("</text:p>", i) || xml.startsWith("<text:line-break", i)) {
+                    maxCount = Math.max(maxCount, count);
+                    count = 0;
+                }
+                final int end = xml.indexOf('>', i);
+                i = end == -1 ? xml.length() : end + 1;
+            } else {
+                if (c == '&') {
+                    final int end = xml.indexOf(';', i);
+                    i = end == -1 ? xml.length() : end + 1;
+                } else {
+                    i++;
+                }
+                count++;
+            }
+        }
+        return Math.max(maxCount, count);
+    }
+
+    /**
+     * @param col     the column index
+     * @param widthPt the width of a content, in points
+     */
+    void observe(final int col, final double widthPt) {
+        if (col >= this.widthsPt.length) {
+            this.widthsPt = Arrays.copyOf(this.widthsPt, Math.max(col + 1,
+                    2 * this.widthsPt.length));
+        }
+        if (widthPt > this.widthsPt[col]) {
+            this.widthsPt[col] = widthPt;
+        }
+    }
+
+    /**
+     * @param col the column index
+     * @return the estimated width in half centimeters, rounded up to the next step, or 0 if the
+     * column is empty
+     */
+    int getHalfCms(final int col) {
+        if (col >= this.widthsPt.length || this.widthsPt[col] == 0) {
+            return 0;
+        }
+        final int halfCms = (int) Math.ceil(this.widthsPt[col] / HALF_CM_PT);
+        for (final int step : HALF_CMS_STEPS) {
+            if (halfCms <= step) {
+                return step;
+            }
+        }
+        return HALF_CMS_STEPS[HALF_CMS_STEPS.length - 1];
+    }
+
+    /**
+     * Give a width to the observed columns that have the default style.
+     *
+     * @param builder the table builder
+     */
+    void apply(final TableBuilder builder) {
+        for (int col = 0; col < this.widthsPt.length; col++) {
+            final int halfCms = this.getHalfCms(col);
+            if (halfCms > 0 && builder.getColumnStyles().get(col) ==
+                    TableColumnStyle.DEFAULT_TABLE_COLUMN_STYLE) {
+                builder.setColumnStyle(col, getColumnStyle(halfCms));
+            }
+        }
+        this.applied = true;
+    }
+}
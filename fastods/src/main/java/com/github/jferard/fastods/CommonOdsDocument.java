@@ -33,6 +33,7 @@ import com.github.jferard.fastods.style.TableStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.StoredEntry;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -203,6 +204,17 @@ class CommonOdsDocument implements OdsDocument {
         this.odsElements.addExtraFile(fullPath, mediaType, sequence);
     }
 
+    /**
+     * Add a stored (uncompressed) entry to the document. The entry is computed once and may be
+     * shared by a lot of documents.
+     *
+     * @param mediaType the MIME type of the file
+     * @param entry     the entry
+     */
+    public void addStoredEntry(final String mediaType, final StoredEntry entry) {
+        this.odsElements.addStoredEntry(mediaType, entry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.odsElements.addExtraDir(fullPath);
@@ -0,0 +1,186 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The regions of a table that are covered by merged or spanned cells. A merge adds one or two
+ * regions here, and the rows ask this index for their covered columns when they are written.
+ * The regions of the rows that were flushed or spilled are removed.
+ * <p>
+ * The regions are stored by first row: the regions that contain a row r have a first row in
+ * [r - maxRowCount + 1, r].
+ *
+ * @author Julien Férard
+ */
+class CoveredRegions {
+    private static final int[] NO_COLUMN = {};
+
+    private final NavigableMap<Integer, List<int[]>> regionsByFirstRow;
+    private int maxRowCount;
+
+    /**
+     * Create an empty index
+     */
+    CoveredRegions() {
+        this.regionsByFirstRow = new TreeMap<Integer, List<int[]>>();
+        this.maxRowCount = 0;
+    }
+
+    /**
+     * Add a covered region.
+     *
+     * @param firstRow the first row of the region
+     * @param firstCol the first column of the region
+     * @param rowCount the number of rows
+     * @param colCount the number of columns
+     */
+    void add(final int firstRow, final int firstCol, final int rowCount, final int colCount) {
+        if (rowCount <= 0 || colCount <= 0) {
+            return;
+        }
+        List<int[]> regions = this.regionsByFirstRow.get(firstRow);
+        if (regions == null) {
+            regions = new ArrayList<int[]>();
+            this.regionsByFirstRow.put(firstRow, regions);
+        }
+        regions.add(new int[]{firstRow + rowCount, firstCol, firstCol + colCount});
+        if (rowCount > this.maxRowCount) {
+            this.maxRowCount = rowCount;
+        }
+    }
+
+    /**
+     * Remove the regions that end before a row, e.g. when the rows were written.
+     *
+     * @param rowIndex the first row that may still be written
+     */
+    void removeBefore(final int rowIndex) {
+        final Iterator<List<int[]>> listIterator =
+                this.regionsByFirstRow.headMap(rowIndex, false).values().iterator();
+        while (listIterator.hasNext()) {
+            final List<int[]> regions = listIterator.next();
+            final Iterator<int[]> regionIterator = regions.iterator();
+            while (regionIterator.hasNext()) {
+                if (regionIterator.next()[0] <= rowIndex) {
+                    regionIterator.remove();
+                }
+            }
+            if (regions.isEmpty()) {
+                listIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of regions
+     */
+    int size() {
+        int size = 0;
+        for (final List<int[]> regions : this.regionsByFirstRow.values()) {
+            size += regions.size();
+        }
+        return size;
+    }
+
+    /**
+     * @param rowIndex the row
+     * @param colIndex the column
+     * @return true if the cell is in a covered region
+     */
+    boolean isCovered(final int rowIndex, final int colIndex) {
+        if (this.regionsByFirstRow.isEmpty()) {
+            return false;
+        }
+        for (final List<int[]> regions : this.candidates(rowIndex)) {
+            for (final int[] region : regions) {
+                if (rowIndex < region[0] && region[1] <= colIndex && colIndex < region[2]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param rowIndex the row
+     * @return the covered columns of the row, as sorted and disjoint [start, end) pairs:
+     * {start1, end1, start2, end2, ...}
+     */
+    int[] getCoveredColumns(final int rowIndex) {
+        if (this.regionsByFirstRow.isEmpty()) {
+            return NO_COLUMN;
+        }
+        final List<int[]> intervals = new ArrayList<int[]>();
+        for (final List<int[]> regions : this.candidates(rowIndex)) {
+            for (final int[] region : regions) {
+                if (rowIndex < region[0]) {
+                    intervals.add(new int[]{region[1], region[2]});
+                }
+            }
+        }
+        if (intervals.isEmpty()) {
+            return NO_COLUMN;
+        }
+        return this.merge(intervals);
+    }
+
+    private Iterable<List<int[]>> candidates(final int rowIndex) {
+        return this.regionsByFirstRow
+                .subMap(rowIndex - this.maxRowCount + 1, true, rowIndex, true).values();
+    }
+
+    private int[] merge(final List<int[]> intervals) {
+        final int size = intervals.size();
+        final long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            final int[] interval = intervals.get(i);
+            sorted[i] = ((long) interval[0] << 32) | interval[1];
+        }
+        Arrays.sort(sorted);
+
+        final int[] columns = new int[2 * size];
+        int j = 0;
+        for (final long interval : sorted) {
+            final int start = (int) (interval >>> 32);
+            final int end = (int) interval;
+            if (j > 0 && start <= columns[j - 1]) {
+                if (end > columns[j - 1]) {
+                    columns[j - 1] = end;
+                }
+            } else {
+                columns[j] = start;
+                columns[j + 1] = end;
+                j += 2;
+            }
+        }
+        return j == columns.length ? columns : Arrays.copyOf(columns, j);
+    }
+}
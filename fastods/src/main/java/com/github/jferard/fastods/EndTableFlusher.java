@@ -50,9 +50,7 @@ public class EndTableFlusher implements OdsAsyncFlusher {
 
     @Override
     public void flushInto(final XMLUtil xmlUtil, final ZipUTF8Writer writer) throws IOException {
-        for (final TableRowImpl row : this.rows) {
-            TableRowImpl.appendXMLToTable(row, xmlUtil, writer);
-        }
+        PreprocessedRowsFlusher.appendRows(xmlUtil, writer, this.rows);
         // free rows
         Collections.fill(this.rows, null);
         this.appender.appendPostamble(writer);
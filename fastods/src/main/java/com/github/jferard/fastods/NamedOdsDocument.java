@@ -37,6 +37,7 @@ import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.StoredEntry;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
@@ -70,6 +71,7 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
     private final OdsElements odsElements;
     private final XMLUtil xmlUtil;
     private final CommonOdsDocument commonOdsDocument;
+    private boolean autoColumnWidthStyles;
 
     /**
      * /**
@@ -86,6 +88,7 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.odsElements = odsElements;
         this.xmlUtil = xmlUtil;
         this.commonOdsDocument = commonOdsDocument;
+        this.autoColumnWidthStyles = false;
     }
 
     @Override
@@ -269,6 +272,30 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.odsElements.debugStyles();
     }
 
+    /**
+     * Register the column styles that {@link Table#setAutoColumnWidths(int)} may give to the
+     * columns. Use only if a table estimates the width of its columns: the automatic styles
+     * are written when the first table is added, before the widths are known. This adds eleven
+     * column styles, from 1 cm to 12 cm, to the content, whether they are used or not.
+     *
+     * @throws IllegalStateException if a table was already added
+     */
+    public void addAutoColumnWidthStyles() {
+        if (this.tableCount() > 0) {
+            throw new IllegalStateException(
+                    "The automatic styles were written with the first table");
+        }
+        ColumnWidthEstimator.addColumnStyles(this);
+        this.autoColumnWidthStyles = true;
+    }
+
+    /**
+     * @return true if the column styles of the auto column widths were registered
+     */
+    boolean hasAutoColumnWidthStyles() {
+        return this.autoColumnWidthStyles;
+    }
+
     /**
      * Enable styles freeze
      */
@@ -291,6 +318,17 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.commonOdsDocument.addExtraFile(fullPath, mediaType, sequence);
     }
 
+    /**
+     * Add a stored (uncompressed) entry to the document. The entry is computed once and may be
+     * shared by a lot of documents.
+     *
+     * @param mediaType the MIME type of the file
+     * @param entry     the entry
+     */
+    public void addStoredEntry(final String mediaType, final StoredEntry entry) {
+        this.commonOdsDocument.addStoredEntry(mediaType, entry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.commonOdsDocument.addExtraDir(fullPath);
@@ -29,6 +29,7 @@ import com.github.jferard.fastods.odselement.OdsElements;
 import com.github.jferard.fastods.util.FileExists;
 import com.github.jferard.fastods.util.FileOpen;
 import com.github.jferard.fastods.util.FileOpenResult;
+import com.github.jferard.fastods.util.MemoryBudget;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.ref.TableNameUtil;
 import com.github.jferard.fastods.util.WriteUtil;
@@ -76,8 +77,11 @@ public class OdsFactory {
     private final PositionUtil positionUtil;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
+    private final DataStyles defaultFormat;
+    private final boolean defaultLibreOfficeMode;
     private DataStyles format;
     private boolean libreOfficeMode;
+    private long memoryBudget;
 
     /**
      * Create a new OdsFactory
@@ -95,8 +99,22 @@ public class OdsFactory {
         this.positionUtil = positionUtil;
         this.writeUtil = writeUtil;
         this.xmlUtil = xmlUtil;
+        this.defaultFormat = format;
         this.format = format;
+        this.defaultLibreOfficeMode = libreOfficeMode;
         this.libreOfficeMode = libreOfficeMode;
+        this.memoryBudget = 0;
+    }
+
+    /**
+     * Restore the default options and clear the caches of the utils, to reuse this factory for
+     * new documents. The buffers and the int cache are kept.
+     */
+    void reset() {
+        this.xmlUtil.reset();
+        this.format = this.defaultFormat;
+        this.libreOfficeMode = this.defaultLibreOfficeMode;
+        this.memoryBudget = 0;
     }
 
     /**
@@ -122,15 +140,40 @@ public class OdsFactory {
         return this;
     }
 
+    /**
+     * Set a memory budget for the rows of the documents created by the anonymous writers. When
+     * the estimated size of the rows exceeds the budget, the oldest rows of the current table
+     * are written to compressed temporary files and dropped. They are streamed back when the
+     * document is saved.
+     *
+     * The last rows of the table stay in memory, but a spilled row can't be modified any more:
+     * the table will throw an IOException, and a row or a cell of a spilled row that is still
+     * held (e.g. to back-fill totals) will throw an IllegalStateException. A document with
+     * spilled rows can be saved only once.
+     *
+     * @param maxBytes the budget, in bytes
+     * @return this for fluent style
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public OdsFactory memoryBudget(final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive: " + maxBytes);
+        }
+        this.memoryBudget = maxBytes;
+        return this;
+    }
+
     /**
      * Create a new, empty document for an anonymous writer. Use addTable to add tables.
      *
      * @return a new document
      */
     private AnonymousOdsDocument createAnonymousDocument() {
+        final MemoryBudget budget =
+                this.memoryBudget > 0 ? MemoryBudget.create(this.memoryBudget) : null;
         final OdsElements odsElements = OdsElements
                 .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
-                        this.libreOfficeMode);
+                        this.libreOfficeMode, budget);
         return AnonymousOdsDocument.create(this.logger, this.xmlUtil, odsElements);
     }
 
@@ -206,6 +249,22 @@ public class OdsFactory {
         return writerAdapter;
     }
 
+    /**
+     * Create an appender to add rows to the tables of an existing ODS file. The rows are
+     * appended without rebuilding the whole document.
+     *
+     * @param source the existing file
+     * @return the appender
+     */
+    public OdsFileAppender createAppender(final File source) {
+        final OdsElements odsElements = OdsElements
+                .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
+                        this.libreOfficeMode);
+        final AnonymousOdsDocument document = AnonymousOdsDocument
+                .create(this.logger, this.xmlUtil, odsElements);
+        return new OdsFileAppender(this.logger, this.xmlUtil, odsElements, document, source);
+    }
+
     /**
      * @param file the file.
      * @return the result of the operation
@@ -0,0 +1,133 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of factories, for the applications that create a lot of small documents,
+ * possibly from several threads. A factory is not thread safe, and owns some utils that are
+ * expensive to build: the XML escaper and its buffer, the int cache, the data styles. The pool
+ * lends a factory to one thread at a time and reuses it for the next documents.
+ *
+ * Usage:
+ * <pre>
+ * final OdsFactory factory = pool.acquire();
+ * try {
+ *     final AnonymousOdsFileWriter writer = factory.createWriter();
+ *     ...
+ *     writer.save(out);
+ * } finally {
+ *     pool.release(factory);
+ * }
+ * </pre>
+ *
+ * @author Julien Férard
+ */
+public class OdsFactoryPool {
+    /**
+     * @param maxIdleCount the maximum number of idle factories kept in the pool
+     * @return a new pool of default factories
+     */
+    public static OdsFactoryPool create(final int maxIdleCount) {
+        return OdsFactoryPool
+                .create(Logger.getLogger(NamedOdsDocument.class.getName()), Locale.getDefault(),
+                        maxIdleCount);
+    }
+
+    /**
+     * @param logger       the logger of the factories
+     * @param locale       the locale of the factories
+     * @param maxIdleCount the maximum number of idle factories kept in the pool
+     * @return a new pool
+     * @throws IllegalArgumentException if maxIdleCount is negative
+     */
+    public static OdsFactoryPool create(final Logger logger, final Locale locale,
+                                        final int maxIdleCount) {
+        if (maxIdleCount < 0) {
+            throw new IllegalArgumentException("The pool size must be positive: " + maxIdleCount);
+        }
+        return new OdsFactoryPool(logger, locale, maxIdleCount);
+    }
+
+    private final Logger logger;
+    private final Locale locale;
+    private final int maxIdleCount;
+    private final Deque<OdsFactory> idleFactories;
+
+    /**
+     * @param logger       the logger of the factories
+     * @param locale       the locale of the factories
+     * @param maxIdleCount the maximum number of idle factories kept in the pool
+     */
+    OdsFactoryPool(final Logger logger, final Locale locale, final int maxIdleCount) {
+        this.logger = logger;
+        this.locale = locale;
+        this.maxIdleCount = maxIdleCount;
+        this.idleFactories = new ArrayDeque<OdsFactory>(maxIdleCount);
+    }
+
+    /**
+     * @return an idle factory, or a new factory if there is none. The factory has the default
+     * options.
+     */
+    public OdsFactory acquire() {
+        final OdsFactory factory;
+        synchronized (this.idleFactories) {
+            factory = this.idleFactories.pollFirst();
+        }
+        if (factory == null) {
+            return OdsFactory.create(this.logger, this.locale);
+        }
+        return factory;
+    }
+
+    /**
+     * Give a factory back to the pool. The factory is reset, and dropped if the pool is full.
+     * The documents created by the factory share its utils: release the factory only when
+     * they are saved, and use neither the factory nor those documents after this call.
+     *
+     * @param factory the factory
+     */
+    public void release(final OdsFactory factory) {
+        factory.reset();
+        synchronized (this.idleFactories) {
+            if (this.idleFactories.size() < this.maxIdleCount) {
+                this.idleFactories.addFirst(factory);
+            }
+        }
+    }
+
+    /**
+     * @return the number of idle factories
+     */
+    public int getIdleCount() {
+        synchronized (this.idleFactories) {
+            return this.idleFactories.size();
+        }
+    }
+}
@@ -0,0 +1,779 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.odselement.OdsElements;
+import com.github.jferard.fastods.style.ObjectStyleFamily;
+import com.github.jferard.fastods.util.XMLTagReader;
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * An appender adds rows to the tables of an existing ODS file, without rebuilding the document.
+ * The entries of the source file are copied as they are, except:
+ * <ul>
+ * <li>content.xml: it is copied in one pass, and the new rows are inserted before the end
+ * of each target table. The new automatic styles are inserted too;</li>
+ * <li>styles.xml: it is copied as it is, unless the new rows use styles that are not declared in
+ * the source file.</li>
+ * </ul>
+ * The new rows are written after the last row of the table that is not empty. The trailing empty
+ * rows that have no attribute but a repeat count, and the trailing empty rows that are repeated
+ * up to the last row of the sheet (e.g. the row that LibreOffice writes) are dropped. The other
+ * empty rows (e.g. a row with a style or a height) are kept. The elements that follow the rows
+ * (e.g. table:named-expressions) are kept after the new rows.
+ * <p>
+ * The styles that are declared in the source file with the same definition are not written
+ * again. A new style whose name is declared in the source file with another definition (e.g.
+ * "ro1" or "Default" in a LibreOffice file) is renamed in the new styles and in the new rows:
+ * if there is a renamed style, the new rows of a table are rendered in memory before they are
+ * written. The font face declarations are not updated.
+ *
+ * @author Julien Férard
+ */
+public class OdsFileAppender {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CONTENT_XML = "content.xml";
+    private static final String STYLES_XML = "styles.xml";
+    private static final String ROWS_REPEATED = "table:number-rows-repeated";
+    /**
+     * The number of rows of a LibreOffice sheet
+     */
+    private static final int MAX_ROW_COUNT = 1024 * 1024;
+    private static final Pattern ATTRIBUTE_PATTERN =
+            Pattern.compile("\\s([^\\s=/>]+)\\s*=\\s*(\"([^\"]*)\"|'([^']*)')");
+
+    private final Logger logger;
+    private final XMLUtil xmlUtil;
+    private final OdsElements odsElements;
+    private final AnonymousOdsDocument document;
+    private final File source;
+
+    /**
+     * Create a new appender. Use OdsFactory.createAppender
+     *
+     * @param logger      the logger
+     * @param xmlUtil     an util
+     * @param odsElements the elements of the document that holds the new rows
+     * @param document    the document that holds the new rows
+     * @param source      the existing file
+     */
+    OdsFileAppender(final Logger logger, final XMLUtil xmlUtil, final OdsElements odsElements,
+                    final AnonymousOdsDocument document, final File source) {
+        this.logger = logger;
+        this.xmlUtil = xmlUtil;
+        this.odsElements = odsElements;
+        this.document = document;
+        this.source = source;
+    }
+
+    /**
+     * @param name the name of a table of the source file
+     * @return a table that will hold the rows to append to the table of the source file. The
+     * first row of this table is the first new row.
+     * @throws IOException if the table can't be created
+     */
+    public Table getOrAddTable(final String name) throws IOException {
+        return this.document.getOrAddTable(name);
+    }
+
+    /**
+     * Replace the source file by a file that contains the new rows. The source file is moved to
+     * a backup file until the new file is in place, and restored on failure.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void save() throws IOException {
+        final File sourceFile = this.source.getAbsoluteFile();
+        final File parent = sourceFile.getParentFile();
+        final File temp = File.createTempFile("fastods", ".ods", parent);
+        try {
+            this.writeTo(temp);
+        } catch (final IOException e) {
+            temp.delete();
+            throw e;
+        }
+        final File backup = File.createTempFile("fastods", ".bak", parent);
+        if (!backup.delete() || !sourceFile.renameTo(backup)) {
+            temp.delete();
+            throw new IOException("Can't move " + sourceFile + " to " + backup);
+        }
+        if (!temp.renameTo(sourceFile)) {
+            final boolean restored = backup.renameTo(sourceFile);
+            temp.delete();
+            if (restored) {
+                throw new IOException("Can't replace " + sourceFile + " by " + temp);
+            } else {
+                throw new IOException(
+                        "Can't replace " + sourceFile + " by " + temp + ": the source is " +
+                                backup);
+            }
+        }
+        if (!backup.delete()) {
+            this.logger.log(Level.WARNING, "Can't delete the backup " + backup);
+        }
+    }
+
+    /**
+     * Write a copy of the source file that contains the new rows.
+     *
+     * @param destination the destination file
+     * @throws IOException if the file can't be written
+     */
+    public void saveAs(final File destination) throws IOException {
+        if (destination.getCanonicalFile().equals(this.source.getCanonicalFile())) {
+            this.save();
+        } else {
+            this.writeTo(destination);
+        }
+    }
+
+    private void writeTo(final File destination) throws IOException {
+        final OutputStream out = new FileOutputStream(destination);
+        try {
+            this.save(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write a copy of the source file that contains the new rows.
+     * WARNING: The user shall close the stream.
+     *
+     * @param out the destination
+     * @throws IOException if the source can't be read, if a table is missing in the source,
+     *                     or if the destination can't be written
+     */
+    public void save(final OutputStream out) throws IOException {
+        final ZipFile zipFile = new ZipFile(this.source);
+        try {
+            final Map<String, String> newNameByName = this.resolveDeclaredStyles(zipFile);
+            final String contentAutomaticStyles = this.renameStyles(
+                    this.getContentAutomaticStyles(), newNameByName);
+            final String commonStyles = this.renameStyles(this.getStylesCommonStyles(),
+                    newNameByName);
+            final String automaticStyles = this.renameStyles(this.getStylesAutomaticStyles(),
+                    newNameByName);
+            final ZipOutputStream zipStream = new ZipOutputStream(out);
+            final Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(zipStream, ZipUTF8Writer.UTF_8), BUFFER_SIZE);
+            final Map<String, Table> tableByRawName = new HashMap<String, Table>();
+            for (final Table table : this.odsElements.getTables()) {
+                tableByRawName.put(this.xmlUtil.escapeXMLAttribute(table.getName()), table);
+            }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (CONTENT_XML.equals(name)) {
+                    zipStream.putNextEntry(new ZipEntry(name));
+                    this.copyContent(this.getReader(zipFile, entry), writer, tableByRawName,
+                            contentAutomaticStyles, newNameByName);
+                    writer.flush();
+                    zipStream.closeEntry();
+                } else if (STYLES_XML.equals(name) &&
+                        (commonStyles.length() > 0 || automaticStyles.length() > 0)) {
+                    zipStream.putNextEntry(new ZipEntry(name));
+                    this.copyStyles(this.getReader(zipFile, entry), writer, commonStyles,
+                            automaticStyles);
+                    writer.flush();
+                    zipStream.closeEntry();
+                } else {
+                    this.logger.log(Level.FINER, "Copying entry " + name);
+                    this.copyEntry(zipFile, entry, zipStream, buffer);
+                }
+            }
+            if (!tableByRawName.isEmpty()) {
+                throw new IOException(
+                        "Missing tables in " + this.source + ": " + tableByRawName.keySet());
+            }
+            zipStream.finish();
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private XMLTagReader getReader(final ZipFile zipFile, final ZipEntry entry)
+            throws IOException {
+        final InputStream in = zipFile.getInputStream(entry);
+        return new XMLTagReader(new InputStreamReader(in, ZipUTF8Writer.UTF_8));
+    }
+
+    private void copyEntry(final ZipFile zipFile, final ZipEntry entry,
+                           final ZipOutputStream zipStream, final byte[] buffer)
+            throws IOException {
+        final ZipEntry newEntry = new ZipEntry(entry.getName());
+        newEntry.setTime(entry.getTime());
+        if (entry.getMethod() == ZipEntry.STORED) { // e.g. mimetype
+            newEntry.setMethod(ZipEntry.STORED);
+            newEntry.setSize(entry.getSize());
+            newEntry.setCompressedSize(entry.getCompressedSize());
+            newEntry.setCrc(entry.getCrc());
+        }
+        zipStream.putNextEntry(newEntry);
+        final InputStream in = zipFile.getInputStream(entry);
+        try {
+            int count = in.read(buffer);
+            while (count != -1) {
+                zipStream.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+        } finally {
+            in.close();
+        }
+        zipStream.closeEntry();
+    }
+
+    /**
+     * Remove from the new styles the styles that are declared in styles.xml or in the automatic
+     * styles of content.xml with the same definition, and find a new name for the new styles
+     * whose name is declared with another definition.
+     *
+     * @return the new names of the new styles that must be renamed
+     */
+    private Map<String, String> resolveDeclaredStyles(final ZipFile zipFile)
+            throws IOException {
+        final Map<String, String> declaredObjectStyles = new HashMap<String, String>();
+        final Map<String, String> declaredDataStyles = new HashMap<String, String>();
+        final ZipEntry stylesEntry = zipFile.getEntry(STYLES_XML);
+        if (stylesEntry != null) {
+            this.collectStyleDefinitions(this.getReader(zipFile, stylesEntry),
+                    declaredObjectStyles, declaredDataStyles);
+        }
+        final ZipEntry contentEntry = zipFile.getEntry(CONTENT_XML);
+        if (contentEntry == null) {
+            throw new IOException("No content.xml in " + this.source);
+        }
+        this.collectStyleDefinitions(this.getReader(zipFile, contentEntry), declaredObjectStyles,
+                declaredDataStyles);
+
+        final Map<String, String> newObjectStyles = new HashMap<String, String>();
+        final Map<String, String> newDataStyles = new HashMap<String, String>();
+        for (final String styles : new String[]{this.getContentAutomaticStyles(),
+                this.getStylesCommonStyles(), this.getStylesAutomaticStyles()}) {
+            this.collectStyleDefinitions(new XMLTagReader(new StringReader(styles)),
+                    newObjectStyles, newDataStyles);
+        }
+
+        final Set<String> usedNames = new HashSet<String>();
+        final Set<String> conflictingNames = new HashSet<String>();
+        this.findConflicts(declaredObjectStyles, newObjectStyles, usedNames, conflictingNames);
+        this.findConflicts(declaredDataStyles, newDataStyles, usedNames, conflictingNames);
+
+        final Map<String, String> newNameByName = new HashMap<String, String>();
+        for (final String name : conflictingNames) {
+            int i = 1;
+            String newName = name + "-" + i;
+            while (usedNames.contains(newName)) {
+                i++;
+                newName = name + "-" + i;
+            }
+            usedNames.add(newName);
+            newNameByName.put(name, newName);
+            this.logger.log(Level.FINE, "Renaming the style " + name + " to " + newName +
+                    ": the source file declares another style with that name");
+        }
+        final List<String> objectStyleKeys = new ArrayList<String>();
+        for (final String key : newObjectStyles.keySet()) {
+            if (declaredObjectStyles.containsKey(key) &&
+                    !conflictingNames.contains(this.getName(key))) {
+                objectStyleKeys.add(key);
+            }
+        }
+        final List<String> dataStyleNames = new ArrayList<String>();
+        for (final String name : newDataStyles.keySet()) {
+            if (declaredDataStyles.containsKey(name) && !conflictingNames.contains(name)) {
+                dataStyleNames.add(name);
+            }
+        }
+        this.odsElements.removeStyles(objectStyleKeys, dataStyleNames);
+        return newNameByName;
+    }
+
+    /**
+     * Collect the used names, and the names of the new styles that are declared with another
+     * definition. A name is shared by the styles of every family: if one of the styles that have
+     * that name is in conflict, all of them are renamed.
+     */
+    private void findConflicts(final Map<String, String> declaredStyles,
+                               final Map<String, String> newStyles, final Set<String> usedNames,
+                               final Set<String> conflictingNames) {
+        for (final String key : declaredStyles.keySet()) {
+            usedNames.add(this.getName(key));
+        }
+        for (final Map.Entry<String, String> entry : newStyles.entrySet()) {
+            final String key = entry.getKey();
+            usedNames.add(this.getName(key));
+            final String declaredDefinition = declaredStyles.get(key);
+            if (declaredDefinition != null && !declaredDefinition.equals(entry.getValue())) {
+                conflictingNames.add(this.getName(key));
+            }
+        }
+    }
+
+    private String getName(final String key) {
+        return key.substring(key.indexOf('@') + 1);
+    }
+
+    /**
+     * Collect the normalized definitions of the styles that are declared before the body.
+     *
+     * @param objectStyles the definition by "family@name" key
+     * @param dataStyles   the definition by name
+     */
+    private void collectStyleDefinitions(final XMLTagReader reader,
+                                         final Map<String, String> objectStyles,
+                                         final Map<String, String> dataStyles)
+            throws IOException {
+        while (reader.copyToNextTag(null)) {
+            if (reader.isStartTag("office:body")) {
+                return;
+            }
+            final CharSequence tag = reader.getTag();
+            final String name = XMLTagReader.getRawAttribute(tag, "style:name");
+            if (name == null || tag.charAt(1) == '/') {
+                continue;
+            }
+            if (reader.isStartTag("style:style")) {
+                final String family = XMLTagReader.getRawAttribute(tag, "style:family");
+                for (final ObjectStyleFamily f : ObjectStyleFamily.values()) {
+                    if (f.getName().equals(family)) {
+                        objectStyles.put(f + "@" + this.unescape(name),
+                                this.getDefinition(reader));
+                    }
+                }
+            } else if (tag.toString().startsWith("<number:")) {
+                dataStyles.put(this.unescape(name), this.getDefinition(reader));
+            }
+        }
+    }
+
+    /**
+     * @return the current element, with the attributes of each tag sorted and without the blank
+     * texts, to compare two definitions of a style.
+     */
+    private String getDefinition(final XMLTagReader reader) throws IOException {
+        final StringWriter element = new StringWriter();
+        this.copyElement(reader, element);
+        final XMLTagReader elementReader = new XMLTagReader(new StringReader(element.toString()));
+        final StringWriter text = new StringWriter();
+        final StringBuilder definition = new StringBuilder();
+        while (elementReader.copyToNextTag(text)) {
+            if (!this.isBlank(text.getBuffer(), 0)) {
+                definition.append(text.getBuffer());
+            }
+            text.getBuffer().setLength(0);
+            final CharSequence tag = elementReader.getTag();
+            int nameEnd = 1;
+            while (nameEnd < tag.length() && !Character.isWhitespace(tag.charAt(nameEnd)) &&
+                    tag.charAt(nameEnd) != '/' && tag.charAt(nameEnd) != '>') {
+                nameEnd++;
+            }
+            if (tag.charAt(1) == '/') {
+                definition.append("</").append(tag, 2, tag.length());
+                continue;
+            }
+            final List<String> attributes = new ArrayList<String>();
+            final Matcher matcher = ATTRIBUTE_PATTERN.matcher(tag);
+            while (matcher.find()) {
+                attributes.add(matcher.group(1) + "=" + this.unescape(this.getValue(matcher)));
+            }
+            Collections.sort(attributes);
+            definition.append(tag, 0, nameEnd).append(attributes).append('>');
+            if (elementReader.isEmptyElementTag()) {
+                definition.append("</").append(tag, 1, nameEnd).append('>');
+            }
+        }
+        return definition.toString();
+    }
+
+    private String getValue(final Matcher matcher) {
+        final String value = matcher.group(3);
+        if (value == null) {
+            return matcher.group(4);
+        }
+        return value;
+    }
+
+    /**
+     * Rename the styles in the tags of a XML fragment. The attributes "style:name" and
+     * "...style-name" are renamed.
+     */
+    private String renameStyles(final String xml, final Map<String, String> newNameByName)
+            throws IOException {
+        if (newNameByName.isEmpty()) {
+            return xml;
+        }
+        final XMLTagReader reader = new XMLTagReader(new StringReader(xml));
+        final StringWriter writer = new StringWriter();
+        while (reader.copyToNextTag(writer)) {
+            final CharSequence tag = reader.getTag();
+            final Matcher matcher = ATTRIBUTE_PATTERN.matcher(tag);
+            int last = 0;
+            while (matcher.find()) {
+                final String attrName = matcher.group(1);
+                if (attrName.equals("style:name") || attrName.endsWith("style-name")) {
+                    final String newName = newNameByName.get(
+                            this.unescape(this.getValue(matcher)));
+                    if (newName != null) {
+                        writer.append(tag, last, matcher.start(2)).append('"')
+                                .append(this.xmlUtil.escapeXMLAttribute(newName)).append('"');
+                        last = matcher.end(2);
+                    }
+                }
+            }
+            writer.append(tag, last, tag.length());
+        }
+        return writer.toString();
+    }
+
+    private String unescape(final String s) {
+        if (s.indexOf('&') == -1) {
+            return s;
+        }
+        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private String getContentAutomaticStyles() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        this.odsElements.writeContentAutomaticStyles(this.xmlUtil, sb);
+        return sb.toString();
+    }
+
+    private String getStylesCommonStyles() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        this.odsElements.writeStylesCommonStyles(this.xmlUtil, sb);
+        return sb.toString();
+    }
+
+    private String getStylesAutomaticStyles() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        this.odsElements.writeStylesAutomaticStyles(this.xmlUtil, sb);
+        return sb.toString();
+    }
+
+    private void copyContent(final XMLTagReader reader, final Writer writer,
+                             final Map<String, Table> tableByRawName,
+                             final String automaticStyles,
+                             final Map<String, String> newNameByName) throws IOException {
+        boolean automaticStylesWritten = false;
+        while (reader.copyToNextTag(writer)) {
+            if (!automaticStylesWritten) {
+                if (reader.isEndTag("office:automatic-styles")) {
+                    writer.write(automaticStyles);
+                    automaticStylesWritten = true;
+                } else if (reader.isStartTag("office:automatic-styles") &&
+                        reader.isEmptyElementTag()) {
+                    this.writeElement(writer, "office:automatic-styles", automaticStyles);
+                    automaticStylesWritten = true;
+                    continue;
+                } else if (reader.isStartTag("office:body")) {
+                    this.writeElement(writer, "office:automatic-styles", automaticStyles);
+                    automaticStylesWritten = true;
+                }
+            } else if (reader.isStartTag("table:table")) {
+                final CharSequence tag = reader.getTag();
+                final Table target = tableByRawName
+                        .remove(XMLTagReader.getRawAttribute(tag, "table:name"));
+                if (target != null) {
+                    this.logger.log(Level.FINER, "Appending rows to table " + target.getName());
+                    if (reader.isEmptyElementTag()) {
+                        writer.append(tag, 0, tag.length() - 2).append('>');
+                        this.appendRows(target, writer, newNameByName);
+                        writer.write("</table:table>");
+                    } else {
+                        writer.append(tag);
+                        this.copyTargetTable(reader, writer, target, newNameByName);
+                    }
+                    continue;
+                }
+            }
+            writer.append(reader.getTag());
+        }
+    }
+
+    /**
+     * Copy the children and the end tag of a table, and insert the new rows after the last row
+     * that is not empty. The start tag of the table was written.
+     */
+    private void copyTargetTable(final XMLTagReader reader, final Writer writer,
+                                 final Table target, final Map<String, String> newNameByName)
+            throws IOException {
+        final StringWriter emptyRows = new StringWriter();
+        int rowCount = 0;
+        boolean rowsSeen = false;
+        boolean inserted = false;
+        while (reader.copyToNextTag(emptyRows.getBuffer().length() > 0 ? emptyRows : writer)) {
+            if (reader.isEndTag("table:table")) {
+                if (!inserted) {
+                    this.appendRows(target, writer, newNameByName);
+                }
+                writer.append(reader.getTag());
+                return;
+            }
+            if (!inserted) {
+                if (reader.isStartTag("table:table-row")) {
+                    rowsSeen = true;
+                    final boolean droppable = this.isDroppableRowTag(reader.getTag(), rowCount);
+                    final StringWriter row = new StringWriter();
+                    rowCount += this.getRowsRepeated(reader.getTag());
+                    if (this.copyRow(reader, row) && droppable) {
+                        emptyRows.append(row.getBuffer());
+                    } else {
+                        writer.append(emptyRows.getBuffer()).append(row.getBuffer());
+                        emptyRows.getBuffer().setLength(0);
+                    }
+                    continue;
+                } else if (this.isRowGroup(reader)) {
+                    rowsSeen = true;
+                    writer.append(emptyRows.getBuffer());
+                    emptyRows.getBuffer().setLength(0);
+                    rowCount += this.copyElement(reader, writer);
+                    continue;
+                } else if (rowsSeen || reader.isStartTag("table:named-expressions")) {
+                    // the trailing empty rows are dropped
+                    this.appendRows(target, writer, newNameByName);
+                    inserted = true;
+                }
+            }
+            this.copyElement(reader, writer);
+        }
+        throw new IOException("Unexpected end of content.xml in table " + target.getName());
+    }
+
+    /**
+     * @param tag      the start tag of a row
+     * @param rowCount the number of rows before this row
+     * @return true if the row may be dropped when it is empty: it has no attribute but the
+     * repeat count, or it is repeated up to the last row of the sheet.
+     */
+    private boolean isDroppableRowTag(final CharSequence tag, final int rowCount) {
+        if (rowCount + this.getRowsRepeated(tag) >= MAX_ROW_COUNT) {
+            return true;
+        }
+        final Matcher matcher = ATTRIBUTE_PATTERN.matcher(tag);
+        while (matcher.find()) {
+            if (!matcher.group(1).equals(ROWS_REPEATED)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getRowsRepeated(final CharSequence tag) {
+        final String rowsRepeated = XMLTagReader.getRawAttribute(tag, ROWS_REPEATED);
+        if (rowsRepeated == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(rowsRepeated);
+        } catch (final NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private void appendRows(final Table target, final Writer writer,
+                            final Map<String, String> newNameByName) throws IOException {
+        if (newNameByName.isEmpty()) {
+            target.appendRowsToContentEntry(this.xmlUtil, writer);
+        } else {
+            final StringBuilder rows = new StringBuilder();
+            target.appendRowsToContentEntry(this.xmlUtil, rows);
+            writer.write(this.renameStyles(rows.toString(), newNameByName));
+        }
+    }
+
+    private boolean isRowGroup(final XMLTagReader reader) {
+        return reader.isStartTag("table:table-row-group") ||
+                reader.isStartTag("table:table-header-rows") ||
+                reader.isStartTag("table:table-rows");
+    }
+
+    /**
+     * Copy the current element, with its children. The current tag is a start tag.
+     *
+     * @return the number of table rows in the element
+     */
+    private int copyElement(final XMLTagReader reader, final Writer writer) throws IOException {
+        final CharSequence tag = reader.getTag();
+        writer.append(tag);
+        if (tag.charAt(1) == '/' || tag.charAt(1) == '?' || tag.charAt(1) == '!' ||
+                reader.isEmptyElementTag()) {
+            return 0;
+        }
+        int rowCount = 0;
+        int depth = 1;
+        while (reader.copyToNextTag(writer)) {
+            final CharSequence childTag = reader.getTag();
+            writer.append(childTag);
+            final char c = childTag.charAt(1);
+            if (c == '/') {
+                depth--;
+                if (depth == 0) {
+                    return rowCount;
+                }
+            } else if (c != '?' && c != '!') {
+                if (reader.isStartTag("table:table-row")) {
+                    rowCount += this.getRowsRepeated(childTag);
+                }
+                if (!reader.isEmptyElementTag()) {
+                    depth++;
+                }
+            }
+        }
+        throw new IOException("Unexpected end of content.xml");
+    }
+
+    /**
+     * Copy the current row. The current tag is the start tag of the row.
+     *
+     * @return true if the row is empty: it has no text and no valued cell.
+     */
+    private boolean copyRow(final XMLTagReader reader, final StringWriter row)
+            throws IOException {
+        row.append(reader.getTag());
+        if (reader.isEmptyElementTag()) {
+            return true;
+        }
+        boolean empty = true;
+        int depth = 1;
+        while (true) {
+            final int start = row.getBuffer().length();
+            if (!reader.copyToNextTag(row)) {
+                throw new IOException("Unexpected end of content.xml");
+            }
+            if (empty && !this.isBlank(row.getBuffer(), start)) {
+                empty = false;
+            }
+            final CharSequence tag = reader.getTag();
+            row.append(tag);
+            if (reader.isEndTag("table:table-row")) {
+                depth--;
+                if (depth == 0) {
+                    return empty;
+                }
+            } else if (reader.isStartTag("table:table-row") && !reader.isEmptyElementTag()) {
+                depth++;
+            }
+            if (empty && !this.isEmptyCellTag(reader)) {
+                empty = false;
+            }
+        }
+    }
+
+    private boolean isBlank(final CharSequence text, final int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isEmptyCellTag(final XMLTagReader reader) {
+        if (reader.isEndTag("table:table-cell") || reader.isEndTag("table:covered-table-cell") ||
+                reader.isEndTag("table:table-row")) {
+            return true;
+        }
+        return (reader.isStartTag("table:table-cell") ||
+                reader.isStartTag("table:covered-table-cell")) &&
+                XMLTagReader.getRawAttribute(reader.getTag(), "office:value-type") == null;
+    }
+
+    private void copyStyles(final XMLTagReader reader, final Writer writer,
+                            final String newCommonStyles, final String newAutomaticStyles)
+            throws IOException {
+        String commonStyles = newCommonStyles;
+        String automaticStyles = newAutomaticStyles;
+        while (reader.copyToNextTag(writer)) {
+            if (commonStyles != null) {
+                if (reader.isEndTag("office:styles")) {
+                    writer.write(commonStyles);
+                    commonStyles = null;
+                } else if (reader.isStartTag("office:styles") && reader.isEmptyElementTag()) {
+                    this.writeElement(writer, "office:styles", commonStyles);
+                    commonStyles = null;
+                    continue;
+                } else if (reader.isStartTag("office:automatic-styles") ||
+                        reader.isStartTag("office:master-styles") ||
+                        reader.isEndTag("office:document-styles")) {
+                    this.writeElement(writer, "office:styles", commonStyles);
+                    commonStyles = null;
+                }
+            }
+            if (automaticStyles != null) {
+                if (reader.isEndTag("office:automatic-styles")) {
+                    writer.write(automaticStyles);
+                    automaticStyles = null;
+                } else if (reader.isStartTag("office:automatic-styles") &&
+                        reader.isEmptyElementTag()) {
+                    this.writeElement(writer, "office:automatic-styles", automaticStyles);
+                    automaticStyles = null;
+                    continue;
+                } else if (reader.isStartTag("office:master-styles") ||
+                        reader.isEndTag("office:document-styles")) {
+                    this.writeElement(writer, "office:automatic-styles", automaticStyles);
+                    automaticStyles = null;
+                }
+            }
+            writer.append(reader.getTag());
+        }
+    }
+
+    private void writeElement(final Writer writer, final String name, final String content)
+            throws IOException {
+        writer.append('<').append(name).append('>').append(content).append("</").append(name)
+                .append('>');
+    }
+}
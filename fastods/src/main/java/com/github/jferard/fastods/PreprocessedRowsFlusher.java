@@ -54,15 +54,37 @@ class PreprocessedRowsFlusher implements OdsAsyncFlusher {
             throws IOException {
         // create a char sequence
         final StringBuilder sb = new StringBuilder(STRING_BUILDER_SIZE);
-        for (final TableRowImpl row : tableRows) {
-            TableRowImpl.appendXMLToTable(row, xmlUtil, sb);
-        }
+        PreprocessedRowsFlusher.appendRows(xmlUtil, sb, tableRows);
         // free rows
         Collections.fill(tableRows, null);
 
         return new PreprocessedRowsFlusher(sb);
     }
 
+    /**
+     * Append rows. The gaps of a sparse table (rows that were never created) are written as
+     * repeated empty rows.
+     *
+     * @param xmlUtil    an util
+     * @param appendable the destination
+     * @param tableRows  the rows, null for a gap
+     * @throws IOException if an I/O error occurs
+     */
+    static void appendRows(final XMLUtil xmlUtil, final Appendable appendable,
+                           final List<TableRowImpl> tableRows) throws IOException {
+        int emptyRowCount = 0;
+        for (final TableRowImpl row : tableRows) {
+            if (row == null) {
+                emptyRowCount++;
+            } else {
+                TableAppender.appendRepeatedRows(xmlUtil, appendable, emptyRowCount);
+                emptyRowCount = 0;
+                row.appendXMLToTable(xmlUtil, appendable);
+            }
+        }
+        TableAppender.appendRepeatedRows(xmlUtil, appendable, emptyRowCount);
+    }
+
     private final CharSequence cs;
 
     /**
@@ -73,6 +95,13 @@ class PreprocessedRowsFlusher implements OdsAsyncFlusher {
         this.cs = cs;
     }
 
+    /**
+     * @return the number of chars of the rendered rows
+     */
+    public int getRenderedLength() {
+        return this.cs.length();
+    }
+
     @Override
     public void flushInto(final XMLUtil xmlUtil, final ZipUTF8Writer writer) throws IOException {
         writer.append(this.cs);
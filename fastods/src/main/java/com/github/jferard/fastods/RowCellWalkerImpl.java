@@ -24,6 +24,7 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.attribute.Length;
 
@@ -156,6 +157,16 @@ public class RowCellWalkerImpl implements RowCellWalker {
 
     }
 
+    /**
+     * Sets a formula template in the current cell: see {@link TableRowImpl#setFormula(int,
+     * FormulaTemplate)}.
+     *
+     * @param template the template
+     */
+    public void setFormula(final FormulaTemplate template) {
+        this.row.setFormula(this.c, template);
+    }
+
     @Override
     public boolean hasValue() {
         return this.row.getOrCreateCell(this.c).hasValue();
@@ -0,0 +1,119 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * A contiguous chunk of rows of a table, rendered to its own buffer by a worker thread. The
+ * empty rows at the start and at the end of the chunk are not written but counted, because they
+ * may be merged with the empty rows of the previous or the next chunk.
+ * <p>
+ * The rows are independent once their styles are registered, but the XMLUtil is not thread
+ * safe: each chunk uses its own.
+ *
+ * @author Julien Férard
+ */
+class RowChunk implements Callable<RowChunk> {
+    private final TableBuilder builder;
+    private final int fromRowIndex;
+    private final int toRowIndex;
+    private final StringBuilder xml;
+    private int leadingEmptyRows;
+    private int trailingEmptyRows;
+
+    /**
+     * @param builder      the builder
+     * @param fromRowIndex the first row of the chunk
+     * @param toRowIndex   the row after the chunk
+     */
+    RowChunk(final TableBuilder builder, final int fromRowIndex, final int toRowIndex) {
+        this.builder = builder;
+        this.fromRowIndex = fromRowIndex;
+        this.toRowIndex = toRowIndex;
+        this.xml = new StringBuilder();
+    }
+
+    @Override
+    public RowChunk call() throws IOException {
+        final XMLUtil util = XMLUtil.create();
+        boolean firstRow = true;
+        int emptyRows = 0;
+        int r = this.fromRowIndex;
+        while (r < this.toRowIndex) {
+            final int nextRowIndex = this.builder.nextTableRowIndex(r); // skip the gap at once
+            if (nextRowIndex >= this.toRowIndex) {
+                emptyRows += this.toRowIndex - r;
+                break;
+            }
+            emptyRows += nextRowIndex - r;
+            if (firstRow) {
+                this.leadingEmptyRows = emptyRows;
+                firstRow = false;
+            } else {
+                TableAppender.appendRepeatedRows(util, this.xml, emptyRows);
+            }
+            this.builder.getTableRow(nextRowIndex).appendXMLToTable(util, this.xml);
+            emptyRows = 0;
+            r = nextRowIndex + 1;
+        }
+        if (firstRow) {
+            this.leadingEmptyRows = emptyRows;
+        } else {
+            this.trailingEmptyRows = emptyRows;
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the chunk has no row
+     */
+    boolean isEmpty() {
+        return this.xml.length() == 0;
+    }
+
+    /**
+     * @return the number of empty rows before the first row
+     */
+    int getLeadingEmptyRows() {
+        return this.leadingEmptyRows;
+    }
+
+    /**
+     * @return the number of empty rows after the last row
+     */
+    int getTrailingEmptyRows() {
+        return this.trailingEmptyRows;
+    }
+
+    /**
+     * @return the XML of the rows, from the first row to the last row
+     */
+    CharSequence getXML() {
+        return this.xml;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The rows of a table that were spilled to temporary files. Each spill creates a compressed
+ * segment that contains the XML of consecutive rows. On save, the segments are streamed back in
+ * order and deleted. If a spill or the save fails, the segments are deleted too. The segments
+ * of a document that is never saved are left in the temporary directory.
+ *
+ * @author Julien Férard
+ */
+class RowSpill {
+    private static final int BUFFER_SIZE = 32 * 1024;
+    private final File directory;
+    private final List<File> segments;
+    private boolean written;
+
+    /**
+     * Create a new spill in the default temporary directory
+     */
+    RowSpill() {
+        this(null);
+    }
+
+    /**
+     * Create a new spill
+     *
+     * @param directory the directory of the segments, null for the default temporary directory
+     */
+    RowSpill(final File directory) {
+        this.directory = directory;
+        this.segments = new ArrayList<File>();
+        this.written = false;
+    }
+
+    /**
+     * Open a new segment. The caller shall close the writer.
+     *
+     * @return a writer to the new segment
+     * @throws IOException if the segment can't be created
+     */
+    public Writer openSegment() throws IOException {
+        if (this.written) {
+            throw new IOException("The spilled rows were already written");
+        }
+        final File segment = File.createTempFile("fastods-rows", ".xml.gz", this.directory);
+        this.segments.add(segment);
+        try {
+            final OutputStream out = new GZIPOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(segment), BUFFER_SIZE),
+                    BUFFER_SIZE);
+            return new OutputStreamWriter(out, ZipUTF8Writer.UTF_8);
+        } catch (final IOException e) {
+            this.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Append the content of the segments, in order, and delete them. The segments are written
+     * only once.
+     *
+     * @param appendable the destination
+     * @throws IOException if the segments were already written or can't be read
+     */
+    public void appendTo(final Appendable appendable) throws IOException {
+        if (this.written) {
+            throw new IOException(
+                    "The spilled rows were already written: a document with spilled rows can " +
+                            "be saved only once");
+        }
+        this.written = true;
+        final char[] buffer = new char[BUFFER_SIZE];
+        try {
+            for (final File segment : this.segments) {
+                final Reader reader = new InputStreamReader(
+                        new GZIPInputStream(new FileInputStream(segment), BUFFER_SIZE),
+                        ZipUTF8Writer.UTF_8);
+                try {
+                    int count = reader.read(buffer);
+                    while (count != -1) {
+                        appendable.append(CharBuffer.wrap(buffer, 0, count));
+                        count = reader.read(buffer);
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+        } finally {
+            this.delete();
+        }
+    }
+
+    /**
+     * Delete the segments. The spilled rows are lost: the spill can't be written any more.
+     */
+    public void delete() {
+        this.written = true;
+        for (final File segment : this.segments) {
+            segment.delete();
+        }
+        this.segments.clear();
+    }
+}
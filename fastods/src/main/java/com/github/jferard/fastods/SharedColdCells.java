@@ -0,0 +1,125 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The shared cold cells: many cells have the same cold part (covered cells, spans, currency).
+ * Those cells share an immutable cold cell, that is copied on the first modification (see
+ * {@link TableColdCell#copy(com.github.jferard.fastods.util.XMLUtil)}).
+ *
+ * @author Julien Férard
+ */
+final class SharedColdCells {
+    /**
+     * The max number of cached currencies. Above, a new cold cell is created for every cell.
+     */
+    static final int MAX_CURRENCIES = 128;
+
+    /**
+     * The max span that is cached.
+     */
+    static final int MAX_SPAN = 32;
+
+    private static final TableColdCell COVERED = SharedColdCells.createCovered();
+    private static final TableColdCell[] COLUMNS_SPANNED = new TableColdCell[MAX_SPAN + 1];
+    private static final TableColdCell[] ROWS_SPANNED = new TableColdCell[MAX_SPAN + 1];
+    private static final ConcurrentMap<String, TableColdCell> CURRENCY_BY_NAME =
+            new ConcurrentHashMap<String, TableColdCell>();
+
+    static {
+        for (int n = 2; n <= MAX_SPAN; n++) {
+            final TableColdCell columnsSpanned = new TableColdCell(null, true);
+            columnsSpanned.setColumnsSpanned(n);
+            COLUMNS_SPANNED[n] = columnsSpanned;
+            final TableColdCell rowsSpanned = new TableColdCell(null, true);
+            rowsSpanned.setRowsSpanned(n);
+            ROWS_SPANNED[n] = rowsSpanned;
+        }
+    }
+
+    private static TableColdCell createCovered() {
+        final TableColdCell coldCell = new TableColdCell(null, true);
+        coldCell.setCovered();
+        return coldCell;
+    }
+
+    /**
+     * @return the shared cold cell of a covered cell
+     */
+    static TableColdCell covered() {
+        return COVERED;
+    }
+
+    /**
+     * @param n the number of columns spanned, > 1
+     * @return the shared cold cell, or null if n is too big
+     */
+    static TableColdCell columnsSpanned(final int n) {
+        if (n > MAX_SPAN) {
+            return null;
+        }
+        return COLUMNS_SPANNED[n];
+    }
+
+    /**
+     * @param n the number of rows spanned, > 1
+     * @return the shared cold cell, or null if n is too big
+     */
+    static TableColdCell rowsSpanned(final int n) {
+        if (n > MAX_SPAN) {
+            return null;
+        }
+        return ROWS_SPANNED[n];
+    }
+
+    /**
+     * @param currency the currency
+     * @return the shared cold cell, or null if there are too many currencies
+     */
+    static TableColdCell currency(final String currency) {
+        if (currency == null) {
+            return null;
+        }
+        final TableColdCell coldCell = CURRENCY_BY_NAME.get(currency);
+        if (coldCell != null) {
+            return coldCell;
+        }
+        if (CURRENCY_BY_NAME.size() >= MAX_CURRENCIES) {
+            return null;
+        }
+        final TableColdCell newColdCell = new TableColdCell(null, true);
+        newColdCell.setCurrency(currency);
+        final TableColdCell previous = CURRENCY_BY_NAME.putIfAbsent(currency, newColdCell);
+        if (previous == null) {
+            return newColdCell;
+        }
+        return previous;
+    }
+
+    private SharedColdCells() {
+    }
+}
@@ -32,6 +32,7 @@ import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
 import com.github.jferard.fastods.util.AutoFilter;
+import com.github.jferard.fastods.util.MemoryBudget;
 import com.github.jferard.fastods.util.NamedObject;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.util.WriteUtil;
@@ -39,6 +40,7 @@ import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -67,10 +69,35 @@ public class Table implements NamedObject {
                                final int rowCapacity, final int columnCapacity,
                                final StylesContainer stylesContainer, final DataStyles format,
                                final boolean libreOfficeMode) {
+        return Table.create(contentElement, positionUtil, writeUtil, xmlUtil, name, rowCapacity,
+                columnCapacity, stylesContainer, format, libreOfficeMode, null);
+    }
+
+    /**
+     * Create a new Table with a name and a row/column capacity
+     *
+     * @param contentElement  the content.xml representation
+     * @param positionUtil    an util
+     * @param writeUtil       an util
+     * @param xmlUtil         an util
+     * @param name            the name of the tables
+     * @param rowCapacity     the row capacity
+     * @param columnCapacity  the column capacity
+     * @param stylesContainer the container for styles
+     * @param format          the data styles
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param memoryBudget    the memory budget of the document, or null
+     * @return the table
+     */
+    public static Table create(final ContentElement contentElement, final PositionUtil positionUtil,
+                               final WriteUtil writeUtil, final XMLUtil xmlUtil, final String name,
+                               final int rowCapacity, final int columnCapacity,
+                               final StylesContainer stylesContainer, final DataStyles format,
+                               final boolean libreOfficeMode, final MemoryBudget memoryBudget) {
         positionUtil.checkTableName(name);
         final TableBuilder builder = TableBuilder
                 .create(positionUtil, writeUtil, xmlUtil, stylesContainer, format, libreOfficeMode,
-                        name, rowCapacity, columnCapacity);
+                        name, rowCapacity, columnCapacity, memoryBudget);
         return new Table(name, contentElement, builder, new TableAppender(builder));
     }
 
@@ -78,6 +105,9 @@ public class Table implements NamedObject {
     private final TableBuilder builder;
     private final TableAppender appender;
     private final String name;
+    private TableSegmentCache segmentCache;
+    private Object segmentVersion;
+    private TableSegmentCache.Segment cachedSegment;
 
 
     /**
@@ -93,6 +123,9 @@ public class Table implements NamedObject {
         this.contentElement = contentElement;
         this.builder = builder;
         this.appender = tableAppender;
+        this.segmentCache = null;
+        this.segmentVersion = null;
+        this.cachedSegment = null;
     }
 
     /**
@@ -101,6 +134,10 @@ public class Table implements NamedObject {
      * @param observer the observer
      */
     public void addObserver(final NamedOdsFileWriter observer) {
+        if (this.segmentCache != null) {
+            throw new IllegalStateException(
+                    "A table with a segment cache can't be flushed to a named writer");
+        }
         this.builder.addObserver(observer);
     }
 
@@ -113,7 +150,84 @@ public class Table implements NamedObject {
      */
     public void appendXMLToContentEntry(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        this.appender.appendXMLToContentEntry(util, appendable);
+        if (this.cachedSegment != null) {
+            // the styles of this segment are already registered
+            appendable.append(this.cachedSegment.getXML());
+            return;
+        }
+
+        this.builder.estimateColumnWidths();
+        if (this.segmentCache == null) {
+            this.appender.appendXMLToContentEntry(util, appendable);
+            return;
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        this.appender.appendXMLToContentEntry(util, sb);
+        final String xml = sb.toString();
+        this.cachedSegment = this.segmentCache.putSegment(this.name, this.segmentVersion, xml,
+                this.builder.getRecordedStyles());
+        appendable.append(xml);
+    }
+
+    /**
+     * Delete the temporary files of the rows that were spilled to respect the memory budget.
+     * Called when the document can't be written: the spilled rows are lost.
+     */
+    public void deleteSpilledRows() {
+        this.appender.deleteSpilledRows();
+    }
+
+    /**
+     * Use a cache for the XML of this table. If the cache already contains the XML of this
+     * version of the table, the styles of the cached XML are registered now, and this XML is
+     * written with the document, even if the cache drops it meanwhile: the table won't be
+     * rendered and the rows don't need to be set again.
+     * Else, the styles that the table registers from now are recorded and stored in the cache
+     * with its XML. The caller must change the version whenever the rows, the columns or the
+     * styles of the table change.
+     * <p>
+     * Set the cache before the styles of the table. The cache is not available for the tables
+     * of a named writer, that are flushed as they are filled.
+     *
+     * @param cache   the cache, or null to stop using a cache
+     * @param version the content version of the table, e.g. a counter or a hash of the data
+     * @throws IllegalArgumentException if the version is null
+     * @throws IllegalStateException    if the table is flushed to a named writer, or if the
+     *                                  table has already registered styles
+     */
+    public void setSegmentCache(final TableSegmentCache cache, final Object version) {
+        TableSegmentCache.Segment segment = null;
+        if (cache != null) {
+            if (version == null) {
+                throw new IllegalArgumentException("A cached table needs a content version");
+            }
+            if (this.builder.hasObserver()) {
+                throw new IllegalStateException(
+                        "A table flushed to a named writer can't use a segment cache");
+            }
+            this.builder.startRecordingStyles();
+            segment = cache.getSegment(this.name, version);
+            if (segment != null) {
+                this.builder.registerStyles(segment.getStyles());
+            }
+        }
+        this.segmentCache = cache;
+        this.segmentVersion = version;
+        this.cachedSegment = segment;
+    }
+
+    /**
+     * Add the rows to content.xml, without the enclosing table:table element. Used to append
+     * rows to a table of an existing document.
+     *
+     * @param util       an util
+     * @param appendable the output
+     * @throws IOException if the XML could not be written
+     */
+    public void appendRowsToContentEntry(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        this.appender.appendRows(util, appendable);
     }
 
     /**
@@ -245,6 +359,14 @@ public class Table implements NamedObject {
         return new TableCellWalker(this);
     }
 
+    /**
+     * @return a read-only cursor over the existing rows and cells. The cursor never creates a
+     * row or a cell.
+     */
+    public TableCursor getCursor() {
+        return new TableCursor(this.builder);
+    }
+
     /**
      * Set a span over cells
      *
@@ -316,6 +438,60 @@ public class Table implements NamedObject {
         this.builder.setStyle(style);
     }
 
+    /**
+     * Set the policy that decides when the rows of this table are flushed by a named writer.
+     * The default policy flushes every 8192 rows; an {@link AdaptiveFlushPolicy} flushes chunks
+     * of a target length, or when the heap usage is high.
+     *
+     * @param flushPolicy the policy
+     */
+    public void setFlushPolicy(final FlushPolicy flushPolicy) {
+        this.builder.setFlushPolicy(flushPolicy);
+    }
+
+    /**
+     * Give a width to the columns that have the default style, from the content of the first
+     * rows. The width is estimated from the length of the values and the fonts of the cell
+     * styles, just before the preamble of the table is written: the table is not kept in
+     * memory and there is no second pass. In a named writer, the first rows are kept until
+     * the preamble is flushed, and the column styles must be registered before the first table
+     * is added (see {@link NamedOdsDocument#addAutoColumnWidthStyles()}).
+     *
+     * @param sampleRowCount the number of rows to observe, > 0
+     * @throws IllegalStateException if the table is flushed to a named writer whose document
+     *                               did not register the column styles before the first table
+     */
+    public void setAutoColumnWidths(final int sampleRowCount) {
+        this.builder.setAutoColumnWidths(sampleRowCount);
+    }
+
+    /**
+     * Store the string values of a column in a dictionary: the string cells of the column share
+     * the String of the dictionary entry, and each entry is escaped once. Use it for the columns
+     * of categorical data (country, status, currency code...), set before the values.
+     *
+     * @param col            the column
+     * @param maxCardinality the max number of distinct values in the dictionary. The other
+     *                       values are stored as plain strings.
+     * @throws IllegalArgumentException if maxCardinality <= 0
+     */
+    public void setColumnDictionary(final int col, final int maxCardinality) {
+        this.builder.setColumnDictionary(col, maxCardinality);
+    }
+
+    /**
+     * Render the rows of this table in parallel when the table is written. The rows are split in
+     * chunks of contiguous rows; each chunk is rendered by the executor to its own buffer, and
+     * the chunks are written in order. The executor is not shut down by the table.
+     * <p>
+     * The rows must not be modified while the table is written.
+     *
+     * @param executor the executor, or null to render the rows in the current thread
+     */
+    public void setRenderingExecutor(final ExecutorService executor) {
+        this.builder.setRenderingExecutor(executor);
+    }
+
     /**
      * Set a span over rows
      *
@@ -350,4 +526,4 @@ public class Table implements NamedObject {
     public void addAutoFilter(final int r1, final int c1, final int r2, final int c2) {
         this.contentElement.addAutoFilter(AutoFilter.builder(this, r1, c1, r2, c2).build());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -27,7 +27,14 @@ import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -42,9 +49,20 @@ import java.util.Iterator;
  */
 class TableAppender {
     private static final int MAX_COLUMN_COUNT = 1024;
+    /**
+     * The number of rows of a chunk rendered by a worker thread.
+     */
+    static final int ROWS_PER_CHUNK = 16 * TableBuilder.ROWS_SEGMENT_SIZE;
+    /**
+     * The max number of chunks submitted and not yet written: the memory used by the buffers is
+     * bounded.
+     */
+    static final int MAX_PENDING_CHUNKS = 16;
     private final TableBuilder builder;
     private boolean preambleWritten;
     private int nullFieldCounter;
+    private RowSpill rowSpill;
+    private int spilledRowIndex;
 
     /**
      * Create a new appender
@@ -54,6 +72,7 @@ class TableAppender {
     TableAppender(final TableBuilder builder) {
         this.preambleWritten = false;
         this.builder = builder;
+        this.spilledRowIndex = 0;
     }
 
     /**
@@ -181,42 +200,186 @@ class TableAppender {
         TableColumnStyle.DEFAULT_TABLE_COLUMN_STYLE.appendXMLToTable(xmlUtil, appendable, endCount);
     }
 
-    private void appendRows(final XMLUtil util, final Appendable appendable) throws IOException {
+    /**
+     * Append the rows, without the preamble and the postamble.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRows(final XMLUtil util, final Appendable appendable) throws IOException {
         this.appendRows(util, appendable, 0);
     }
 
     private void appendRows(final XMLUtil util, final Appendable appendable,
                             final int firstRowIndex) throws IOException {
-        if (firstRowIndex == 0) {
+        int r = firstRowIndex;
+        if (r == 0) {
             this.nullFieldCounter = 0;
+            if (this.rowSpill != null) {
+                this.rowSpill.appendTo(appendable);
+                r = this.spilledRowIndex;
+            }
         }
 
         final int size = this.builder.getTableRowsUsedSize();
-        for (int r = firstRowIndex; r < size; r++) {
-            final TableRowImpl tr = this.builder.getTableRow(r);
-            if (tr == null) {
-                this.nullFieldCounter++;
-            } else {
-                this.appendRepeatedRows(util, appendable);
-                tr.appendXMLToTable(util, appendable);
+        this.appendRowRange(util, appendable, r, size);
+    }
+
+    /**
+     * Append the rows of a range. The empty rows at the end of the range are not written, but
+     * counted in this.nullFieldCounter.
+     */
+    private void appendRowRange(final XMLUtil util, final Appendable appendable,
+                                final int fromRowIndex, final int toRowIndex)
+            throws IOException {
+        if (toRowIndex - fromRowIndex > ROWS_PER_CHUNK) {
+            final ExecutorService executor = this.builder.getRenderingExecutor();
+            if (executor != null) {
+                this.appendRowRangeInParallel(executor, util, appendable, fromRowIndex,
+                        toRowIndex);
+                return;
+            }
+        }
+
+        int r = fromRowIndex;
+        while (r < toRowIndex) {
+            final int nextRowIndex = this.builder.nextTableRowIndex(r); // skip the gap at once
+            if (nextRowIndex >= toRowIndex) {
+                this.nullFieldCounter += toRowIndex - r;
+                break;
+            }
+            this.nullFieldCounter += nextRowIndex - r;
+            final TableRowImpl tr = this.builder.getTableRow(nextRowIndex);
+            this.appendRepeatedRows(util, appendable);
+            tr.appendXMLToTable(util, appendable);
+            this.nullFieldCounter = 0;
+            r = nextRowIndex + 1;
+        }
+    }
+
+    /**
+     * Render the chunks of a range with the executor and append them in order. The empty rows
+     * at the end of the range are not written, but counted in this.nullFieldCounter.
+     */
+    private void appendRowRangeInParallel(final ExecutorService executor, final XMLUtil util,
+                                          final Appendable appendable, final int fromRowIndex,
+                                          final int toRowIndex) throws IOException {
+        final Queue<Future<RowChunk>> pendingChunks = new ArrayDeque<Future<RowChunk>>();
+        int r = fromRowIndex;
+        try {
+            while (r < toRowIndex || !pendingChunks.isEmpty()) {
+                while (r < toRowIndex && pendingChunks.size() < MAX_PENDING_CHUNKS) {
+                    final int end = Math.min(r + ROWS_PER_CHUNK, toRowIndex);
+                    pendingChunks.add(executor.submit(new RowChunk(this.builder, r, end)));
+                    r = end;
+                }
+                this.appendChunk(util, appendable, this.getChunk(pendingChunks.remove()));
+            }
+        } finally {
+            for (final Future<RowChunk> pendingChunk : pendingChunks) {
+                pendingChunk.cancel(true);
+            }
+        }
+    }
+
+    private RowChunk getChunk(final Future<RowChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering the rows");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Can't render the rows", cause);
+        }
+    }
+
+    private void appendChunk(final XMLUtil util, final Appendable appendable,
+                             final RowChunk chunk) throws IOException {
+        this.nullFieldCounter += chunk.getLeadingEmptyRows();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        this.appendRepeatedRows(util, appendable);
+        appendable.append(chunk.getXML());
+        this.nullFieldCounter = chunk.getTrailingEmptyRows();
+    }
+
+    /**
+     * Write the rows before an index to a new segment of the spill. The builder may then drop
+     * those rows: they will be streamed back from the spill when the table is written.
+     *
+     * @param util       an util
+     * @param toRowIndex the first row that is not spilled. There must be a row after this
+     *                   index, since the empty rows before toRowIndex are written.
+     * @throws IOException if the rows can't be spilled
+     */
+    public void spillRowsBefore(final XMLUtil util, final int toRowIndex) throws IOException {
+        if (toRowIndex <= this.spilledRowIndex) {
+            return;
+        }
+        if (this.rowSpill == null) {
+            this.rowSpill = new RowSpill();
+        }
+        final Writer writer = this.rowSpill.openSegment();
+        try {
+            try {
                 this.nullFieldCounter = 0;
+                this.appendRowRange(util, writer, this.spilledRowIndex, toRowIndex);
+                this.appendRepeatedRows(util, writer);
+            } finally {
+                writer.close();
             }
+        } catch (final IOException e) {
+            this.rowSpill.delete();
+            throw e;
+        }
+        this.spilledRowIndex = toRowIndex;
+    }
+
+    /**
+     * Delete the temporary files of the spilled rows, e.g. when the document can't be written.
+     */
+    public void deleteSpilledRows() {
+        if (this.rowSpill != null) {
+            this.rowSpill.delete();
         }
     }
 
     private void appendRepeatedRows(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        if (this.nullFieldCounter <= 0) {
+        TableAppender.appendRepeatedRows(util, appendable, this.nullFieldCounter);
+        this.nullFieldCounter = 0;
+    }
+
+    /**
+     * Append a run of empty rows
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @param count      the number of empty rows
+     * @throws IOException if an I/O error occurs
+     */
+    static void appendRepeatedRows(final XMLUtil util, final Appendable appendable,
+                                   final int count) throws IOException {
+        if (count <= 0) {
             return;
         }
 
         appendable.append("<table:table-row");
-        if (this.nullFieldCounter > 1) {
-            util.appendAttribute(appendable, "table:number-rows-repeated", this.nullFieldCounter);
+        if (count > 1) {
+            util.appendAttribute(appendable, "table:number-rows-repeated", count);
         }
         util.appendAttribute(appendable, "table:style-name", "ro1");
         appendable.append("><table:table-cell/></table:table-row>");
-        this.nullFieldCounter = 0;
     }
 
     /**
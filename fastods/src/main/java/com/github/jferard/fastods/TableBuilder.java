@@ -35,13 +35,17 @@ import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
+import com.github.jferard.fastods.util.ChunkedFullList;
 import com.github.jferard.fastods.util.FastFullList;
+import com.github.jferard.fastods.util.MemoryBudget;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -55,6 +59,22 @@ class TableBuilder {
      */
     private static final int BUFFER_SIZE = 8 * 1024;
 
+    /**
+     * The rows are stored in segments of 256 rows: a sparse table allocates a segment only
+     * where there are rows.
+     */
+    static final int ROWS_SEGMENT_SIZE = 256;
+
+    /**
+     * A rough estimate of the heap size of a row without its cells, in bytes
+     */
+    private static final int ROW_ESTIMATED_SIZE = 128;
+
+    /**
+     * A rough estimate of the heap size of a cell, in bytes
+     */
+    private static final int CELL_ESTIMATED_SIZE = 96;
+
     /**
      * Check if a col index is valid, otherwise throws an exception
      *
@@ -100,6 +120,30 @@ class TableBuilder {
                                       final DataStyles format, final boolean libreOfficeMode,
                                       final String name, final int rowCapacity,
                                       final int columnCapacity) {
+        return TableBuilder.create(positionUtil, writeUtil, xmlUtil, stylesContainer, format,
+                libreOfficeMode, name, rowCapacity, columnCapacity, null);
+    }
+
+    /**
+     * Create a new table builder
+     *
+     * @param positionUtil    an util
+     * @param writeUtil       an util
+     * @param xmlUtil         an util
+     * @param stylesContainer the container
+     * @param format          the available data styles
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param name            the name of the table
+     * @param rowCapacity     the row capacity of the table
+     * @param columnCapacity  the column capacity of the table
+     * @param memoryBudget    the memory budget of the document, or null
+     * @return the builder
+     */
+    public static TableBuilder create(final PositionUtil positionUtil, final WriteUtil writeUtil,
+                                      final XMLUtil xmlUtil, final StylesContainer stylesContainer,
+                                      final DataStyles format, final boolean libreOfficeMode,
+                                      final String name, final int rowCapacity,
+                                      final int columnCapacity, final MemoryBudget memoryBudget) {
         final ConfigItemMapEntrySet configEntry = ConfigItemMapEntrySet.createSet(name);
         configEntry.add(ConfigItem
                 .create(ConfigElement.HORIZONTAL_SPLIT_MODE, OdsElements.SC_SPLIT_NORMAL));
@@ -119,27 +163,37 @@ class TableBuilder {
         configEntry.add(ConfigItem.create(ConfigElement.POSITION_BOTTOM, "0"));
 
         return new TableBuilder(positionUtil, writeUtil, xmlUtil, stylesContainer, format,
-                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry, BUFFER_SIZE);
+                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry, BUFFER_SIZE,
+                memoryBudget);
     }
 
-    private final int bufferSize;
     private final int columnCapacity;
     private final FastFullList<TableColumnStyle> columnStyles;
+    private final TableRowContext rowContext;
     private final ConfigItemMapEntrySet configEntry;
     private final DataStyles format;
     private final PositionUtil positionUtil;
     private final StylesContainer stylesContainer;
-    private final FastFullList<TableRowImpl> tableRows;
+    private final TableStylesRecorder stylesRecorder;
+    private final ChunkedFullList<TableRowImpl> tableRows;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final boolean libreOfficeMode;
+    private final MemoryBudget memoryBudget;
     private boolean tablePreambleWritten;
     private NamedOdsFileWriter observer;
     private int curRowIndex;
     private int lastFlushedRowIndex;
     private int lastRowIndex;
+    private int accountedRowIndex;
+    private long accountedBytes;
+    private int spilledRowIndex;
+    private MemoryBudget.Holder budgetHolder;
     private String name;
     private TableStyle style;
+    private ExecutorService renderingExecutor;
+    private FlushPolicy flushPolicy;
+    private ColumnWidthEstimator widthEstimator;
 
     /**
      * Create a new table builder
@@ -161,10 +215,36 @@ class TableBuilder {
                  final boolean libreOfficeMode, final String name, final int rowCapacity,
                  final int columnCapacity, final ConfigItemMapEntrySet configEntry,
                  final int bufferSize) {
+        this(positionUtil, writeUtil, xmlUtil, stylesContainer, format, libreOfficeMode, name,
+                rowCapacity, columnCapacity, configEntry, bufferSize, null);
+    }
+
+    /**
+     * Create a new table builder
+     *
+     * @param positionUtil    an util
+     * @param writeUtil       an util
+     * @param xmlUtil         an util
+     * @param stylesContainer the container
+     * @param format          the available data styles
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param name            the name of the table
+     * @param rowCapacity     the row capacity of the table
+     * @param columnCapacity  the column capacity of the table
+     * @param configEntry     the config
+     * @param bufferSize      the buffer size
+     * @param memoryBudget    the memory budget of the document, or null
+     */
+    TableBuilder(final PositionUtil positionUtil, final WriteUtil writeUtil, final XMLUtil xmlUtil,
+                 final StylesContainer stylesContainer, final DataStyles format,
+                 final boolean libreOfficeMode, final String name, final int rowCapacity,
+                 final int columnCapacity, final ConfigItemMapEntrySet configEntry,
+                 final int bufferSize, final MemoryBudget memoryBudget) {
         this.xmlUtil = xmlUtil;
         this.writeUtil = writeUtil;
         this.positionUtil = positionUtil;
-        this.stylesContainer = stylesContainer;
+        this.stylesRecorder = new TableStylesRecorder(stylesContainer);
+        this.stylesContainer = this.stylesRecorder;
         this.format = format;
         this.libreOfficeMode = libreOfficeMode;
         this.name = name;
@@ -174,12 +254,52 @@ class TableBuilder {
         this.columnStyles = FastFullList.<TableColumnStyle>builder()
                 .blankElement(TableColumnStyle.DEFAULT_TABLE_COLUMN_STYLE)
                 .capacity(this.columnCapacity).build();
-        this.tableRows = FastFullList.newListWithCapacity(rowCapacity);
+        this.rowContext = TableRowContext.create(this.columnCapacity);
+        this.tableRows = ChunkedFullList.<TableRowImpl>builder().capacity(rowCapacity)
+                .segmentSize(TableBuilder.ROWS_SEGMENT_SIZE).build();
         this.curRowIndex = -1;
         this.lastFlushedRowIndex = 0;
         this.lastRowIndex = -1;
-        this.bufferSize = bufferSize;
+        this.flushPolicy = new FixedRowsFlushPolicy(bufferSize);
+        this.widthEstimator = null;
         this.tablePreambleWritten = false;
+        this.memoryBudget = memoryBudget;
+        this.accountedRowIndex = 0;
+        this.accountedBytes = 0;
+        this.spilledRowIndex = 0;
+        this.budgetHolder = null;
+    }
+
+    /**
+     * @return true if the rows are flushed to a named writer
+     */
+    boolean hasObserver() {
+        return this.observer != null;
+    }
+
+    /**
+     * Start to record the styles registered by this table.
+     *
+     * @throws IllegalStateException if the table has already registered some styles
+     */
+    void startRecordingStyles() {
+        this.stylesRecorder.startRecording();
+    }
+
+    /**
+     * @return the styles registered by this table since the start of the recording
+     */
+    List<TableStylesRecorder.Registration> getRecordedStyles() {
+        return this.stylesRecorder.getRegistrations();
+    }
+
+    /**
+     * Register the styles recorded by a previous version of this table.
+     *
+     * @param registrations the styles
+     */
+    void registerStyles(final List<TableStylesRecorder.Registration> registrations) {
+        this.stylesRecorder.register(registrations);
     }
 
     /**
@@ -202,6 +322,7 @@ class TableBuilder {
             throw new IOException(
                     "Can't flush a table from an anonymous writer (there is no file)");
         }
+        this.estimateColumnWidths();
         this.observer.update(new BeginTableFlusher(appender));
         this.tablePreambleWritten = true;
     }
@@ -214,6 +335,7 @@ class TableBuilder {
      */
     public void asyncFlushEndTable(final TableAppender appender) throws IOException {
         if (!this.tablePreambleWritten) {
+            this.estimateColumnWidths();
             this.observer.update(new BeginTableFlusher(appender));
         }
         this.observer.update(new EndTableFlusher(appender,
@@ -277,13 +399,22 @@ class TableBuilder {
     private TableRowImpl getRowSecure(final Table table, final TableAppender appender,
                                       final int rowIndex, final boolean updateRowIndex)
             throws IOException {
+        if (rowIndex < this.spilledRowIndex) {
+            throw new IOException("Row " + rowIndex + " of table " + this.name +
+                    " was spilled to a temporary file to respect the memory budget: it can't " +
+                    "be modified any more");
+        }
         TableRowImpl tr = this.tableRows.get(rowIndex);
         if (tr == null) {
             tr = new TableRowImpl(this.writeUtil, this.xmlUtil, this.stylesContainer, this.format,
-                    this.libreOfficeMode, table, rowIndex, this.columnCapacity);
+                    this.libreOfficeMode, table, rowIndex, this.columnCapacity,
+                    this.rowContext);
             this.tableRows.set(rowIndex, tr);
             if (rowIndex > this.lastRowIndex) {
                 this.lastRowIndex = rowIndex;
+                if (this.memoryBudget != null && this.observer == null) {
+                    this.trySpillRows(appender, rowIndex);
+                }
             }
 
             if (this.observer != null) {
@@ -297,25 +428,110 @@ class TableBuilder {
     }
 
     /**
-     * async flush if rowIndex % this.bufferSize == 0. If 0, async flush the begin of the table
-     * else if rowIndex is a multiple of this.bufferSize, flush the preprocessed rows
+     * If the preamble was not written, async flush the begin of the table; else if the flush
+     * policy says so, flush the preprocessed rows before rowIndex and drop them.
      */
     private void asyncTryToFlush(final TableAppender appender, final int rowIndex)
             throws IOException {
         if (this.tablePreambleWritten) {
-            if (rowIndex > 0 && rowIndex % this.bufferSize == 0) {
-                final OdsAsyncFlusher preprocessedRowsFlusher = PreprocessedRowsFlusher
+            final int bufferedRowCount = rowIndex - this.lastFlushedRowIndex;
+            if (rowIndex > 0 && this.flushPolicy.shouldFlush(bufferedRowCount)) {
+                final PreprocessedRowsFlusher preprocessedRowsFlusher = PreprocessedRowsFlusher
                         .create(this.xmlUtil, new ArrayList<TableRowImpl>(
                                 this.tableRows.subList(this.lastFlushedRowIndex, rowIndex)));
                 this.observer.update(preprocessedRowsFlusher); // (0..1023), (1024..2047)
+                this.flushPolicy.rowsFlushed(bufferedRowCount,
+                        preprocessedRowsFlusher.getRenderedLength());
+                this.tableRows.clearBefore(rowIndex);
+                this.rowContext.getCoveredRegions().removeBefore(rowIndex);
                 this.lastFlushedRowIndex = rowIndex;
             }
-        } else {
+        } else if (this.widthEstimator == null ||
+                rowIndex >= this.widthEstimator.getSampleRowCount()) {
+            // the sampled rows are kept until the preamble is written
             this.asyncFlushBeginTable(appender);
             this.tablePreambleWritten = true;
         }
     }
 
+    /**
+     * Account the rows before the new last row (they are probably complete) and, if the memory
+     * budget is exceeded, ask the tables that hold the most memory to spill.
+     *
+     * @param appender     the appender that writes the rows to the spill
+     * @param lastRowIndex the index of the new last row
+     * @throws IOException if the rows can't be spilled
+     */
+    private void trySpillRows(final TableAppender appender, final int lastRowIndex)
+            throws IOException {
+        final long bytes = this.estimateRowsSize(this.accountedRowIndex, lastRowIndex);
+        this.accountedBytes += bytes;
+        this.accountedRowIndex = lastRowIndex;
+        this.memoryBudget.reserve(bytes);
+        if (this.budgetHolder == null) {
+            this.budgetHolder = new MemoryBudget.Holder() {
+                @Override
+                public long getHeldBytes() {
+                    return TableBuilder.this.accountedBytes;
+                }
+
+                @Override
+                public void spill(final boolean keepLastRows) throws IOException {
+                    TableBuilder.this.spillRows(appender, keepLastRows);
+                }
+            };
+            this.memoryBudget.register(this.budgetHolder);
+        }
+        this.memoryBudget.enforce(this.budgetHolder);
+    }
+
+    /**
+     * Spill the accounted rows to a temporary file. The spilled rows are dropped.
+     *
+     * @param appender     the appender that writes the rows to the spill
+     * @param keepLastRows true to keep the rows of the last two segments (the table is being
+     *                     filled), false to spill every row but the last one (another table is
+     *                     being filled).
+     * @throws IOException if the rows can't be spilled
+     */
+    private void spillRows(final TableAppender appender, final boolean keepLastRows)
+            throws IOException {
+        final int toRowIndex;
+        if (keepLastRows) {
+            toRowIndex = (this.accountedRowIndex / ROWS_SEGMENT_SIZE - 1) * ROWS_SEGMENT_SIZE;
+        } else {
+            toRowIndex = this.accountedRowIndex;
+        }
+        if (toRowIndex <= this.spilledRowIndex) {
+            return;
+        }
+        appender.spillRowsBefore(this.xmlUtil, toRowIndex);
+        int r = this.tableRows.nextNonBlankIndex(this.spilledRowIndex);
+        while (r < toRowIndex) {
+            this.tableRows.get(r).markSpilled();
+            r = this.tableRows.nextNonBlankIndex(r + 1);
+        }
+        this.tableRows.clearBefore(toRowIndex);
+        this.rowContext.getCoveredRegions().removeBefore(toRowIndex);
+        this.spilledRowIndex = toRowIndex;
+
+        // the remaining rows are accounted again
+        this.memoryBudget.release(this.accountedBytes);
+        this.accountedBytes = this.estimateRowsSize(toRowIndex, this.accountedRowIndex);
+        this.memoryBudget.reserve(this.accountedBytes);
+    }
+
+    private long estimateRowsSize(final int fromRowIndex, final int toRowIndex) {
+        long bytes = 0;
+        int r = this.tableRows.nextNonBlankIndex(fromRowIndex);
+        while (r < toRowIndex) {
+            bytes += ROW_ESTIMATED_SIZE +
+                    (long) CELL_ESTIMATED_SIZE * this.tableRows.get(r).getColumnCount();
+            r = this.tableRows.nextNonBlankIndex(r + 1);
+        }
+        return bytes;
+    }
+
     /**
      * Get the current Table Style
      *
@@ -360,10 +576,18 @@ class TableBuilder {
 
         firstCell.markColumnsSpanned(colCount);
         firstCell.markRowsSpanned(rowCount);
-        row.coverRightCells(colIndex, colCount);
-        for (int r = rowIndex + 1; r < rowIndex + rowCount; r++) {
-            final TableRowImpl otherRow = this.getRowSecure(table, appender, r, false);
-            otherRow.coverRightCells(colIndex - 1, colCount + 1);
+        this.rowContext.getCoveredRegions().add(rowIndex, colIndex + 1, 1, colCount - 1);
+        this.rowContext.getCoveredRegions().add(rowIndex + 1, colIndex, rowCount - 1, colCount);
+        this.ensureRows(table, appender, rowIndex + 1, rowIndex + rowCount);
+    }
+
+    /**
+     * The covered cells are not created, but the covered rows must exist to be written.
+     */
+    private void ensureRows(final Table table, final TableAppender appender, final int fromRow,
+                            final int toRow) throws IOException {
+        for (int r = fromRow; r < toRow; r++) {
+            this.getRowSecure(table, appender, r, false);
         }
     }
 
@@ -433,6 +657,83 @@ class TableBuilder {
         this.style = style;
     }
 
+    /**
+     * Store the string values of a column in a dictionary.
+     *
+     * @param col            the column
+     * @param maxCardinality the max number of distinct values in the dictionary. The other
+     *                       values are stored as plain strings.
+     * @throws IllegalArgumentException if maxCardinality <= 0
+     */
+    public void setColumnDictionary(final int col, final int maxCardinality) {
+        this.rowContext.getColumnDictionaries().setDictionary(col, maxCardinality);
+    }
+
+    /**
+     * Set the policy that decides when the rows are flushed by a named writer.
+     *
+     * @param flushPolicy the policy
+     */
+    public void setFlushPolicy(final FlushPolicy flushPolicy) {
+        this.flushPolicy = flushPolicy;
+    }
+
+    /**
+     * Estimate the width of the columns that have the default style from the first rows,
+     * before the preamble is written. In a named writer, the first rows are kept until the
+     * preamble is flushed.
+     *
+     * @param sampleRowCount the number of rows to observe, > 0
+     * @throws IllegalArgumentException if sampleRowCount <= 0
+     * @throws IllegalStateException    if the table is flushed to a named writer whose document
+     *                                  did not register the column styles before the first
+     *                                  table
+     */
+    public void setAutoColumnWidths(final int sampleRowCount) {
+        if (this.observer != null && !this.observer.document().hasAutoColumnWidthStyles()) {
+            throw new IllegalStateException("The column styles are not registered: call " +
+                    "NamedOdsDocument.addAutoColumnWidthStyles() before the first table");
+        }
+        this.widthEstimator = ColumnWidthEstimator.create(sampleRowCount);
+    }
+
+    /**
+     * If the auto column widths are set, observe the first rows and give a width to the
+     * columns that have the default style. Does nothing the second time.
+     *
+     * @throws IOException if a text can't be rendered
+     */
+    void estimateColumnWidths() throws IOException {
+        if (this.widthEstimator == null || this.widthEstimator.isApplied()) {
+            return;
+        }
+        final int rowCount = Math.min(this.tableRows.usedSize(),
+                this.widthEstimator.getSampleRowCount());
+        for (int r = 0; r < rowCount; r++) {
+            final TableRowImpl row = this.tableRows.get(r);
+            if (row != null) {
+                this.widthEstimator.observeRow(this.xmlUtil, row);
+            }
+        }
+        this.widthEstimator.apply(this);
+    }
+
+    /**
+     * @return the executor that renders the chunks of rows, or null
+     */
+    public ExecutorService getRenderingExecutor() {
+        return this.renderingExecutor;
+    }
+
+    /**
+     * Set the executor that renders the chunks of rows of this table in parallel.
+     *
+     * @param executor the executor, or null to render the rows in the current thread
+     */
+    public void setRenderingExecutor(final ExecutorService executor) {
+        this.renderingExecutor = executor;
+    }
+
     /**
      * Set a span over rows
      *
@@ -465,11 +766,8 @@ class TableBuilder {
     private void coverCellsBelow(final Table table, final TableAppender appender,
                                  final int rowIndex, final int colIndex, final int n)
             throws IOException {
-        for (int r = rowIndex + 1; r < rowIndex + n; r++) {
-            final TableRowImpl row = this.getRowSecure(table, appender, r, false);
-            final TableCell cell = row.getOrCreateCell(colIndex);
-            cell.setCovered();
-        }
+        this.rowContext.getCoveredRegions().add(rowIndex + 1, colIndex, n - 1, 1);
+        this.ensureRows(table, appender, rowIndex + 1, rowIndex + n);
     }
 
     /**
@@ -505,6 +803,17 @@ class TableBuilder {
         return this.tableRows.get(r);
     }
 
+    /**
+     * Return the index of the next row that was created. Use it to skip the gaps of a sparse
+     * table.
+     *
+     * @param r the first index to check
+     * @return the index of the first row at or after r, or the used size if there is none
+     */
+    public int nextTableRowIndex(final int r) {
+        return this.tableRows.nextNonBlankIndex(r);
+    }
+
     /**
      * Find the default cell style for a column
      *
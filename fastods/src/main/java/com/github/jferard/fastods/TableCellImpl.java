@@ -27,6 +27,7 @@ import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.attribute.Length;
 import com.github.jferard.fastods.util.WriteUtil;
@@ -76,6 +77,7 @@ public class TableCellImpl implements TableCell {
     private TableCellStyle style;
     private CellType type;
     private TableColdCell coldCell;
+    private FormulaTemplate formulaTemplate;
     private String value;
 
     /**
@@ -111,7 +113,19 @@ public class TableCellImpl implements TableCell {
      */
     public void appendXMLToTableRow(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final boolean covered = this.isCovered();
+        this.appendXMLToTableRow(util, appendable, this.isCovered());
+    }
+
+    /**
+     * Generate the XML for the table cell. The cell is not modified.
+     *
+     * @param util       an util.
+     * @param appendable the appendable to fill
+     * @param covered    true if the cell is covered, e.g. by a merged cell of the row
+     * @throws IOException if an error occurs
+     */
+    void appendXMLToTableRow(final XMLUtil util, final Appendable appendable,
+                             final boolean covered) throws IOException {
         if (covered) {
             appendable.append("<table:covered-table-cell");
         } else {
@@ -127,22 +141,49 @@ public class TableCellImpl implements TableCell {
 
         if (this.type != null) {
             util.appendAttribute(appendable, "office:value-type", this.type);
-            util.appendEAttribute(appendable, this.type.getValueType(), this.value);
+            this.appendValue(util, appendable);
             if (this.type == CellType.CURRENCY) {
                 final String currency = this.getCurrency();
                 util.appendEAttribute(appendable, "office:currency", currency);
             }
         }
 
+        if (this.formulaTemplate != null) {
+            appendable.append(" table:formula=\"");
+            this.formulaTemplate.appendEscapedValue(util, appendable,
+                    this.parentRow.rowIndex(), this.columnIndex);
+            appendable.append('"');
+        }
+
         if (this.hasColdCell()) {
-            this.coldCell.appendXMLToTable(util, appendable);
+            this.coldCell.appendXMLToTable(util, appendable, covered);
         } else {
             appendable.append("/>");
         }
     }
 
+    private void appendValue(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        if (this.type == CellType.STRING) {
+            final String escapedValue = this.parentRow.getColumnDictionaries()
+                    .getEscapedValue(this.columnIndex, this.value);
+            if (escapedValue != null) { // escaped once for the column
+                util.appendAttribute(appendable, this.type.getValueType(), escapedValue);
+                return;
+            }
+        }
+        util.appendEAttribute(appendable, this.type.getValueType(), this.value);
+    }
+
     @Override
     public boolean isCovered() {
+        return this.isColdCellCovered() || this.parentRow.isInCoveredRegion(this.columnIndex);
+    }
+
+    /**
+     * @return true if the cell was covered by its own cold cell, outside of any covered region.
+     */
+    boolean isColdCellCovered() {
         return this.hasColdCell() && this.coldCell.isCovered();
     }
 
@@ -152,6 +193,11 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setCovered() {
+        this.parentRow.checkNotSpilled();
+        if (this.coldCell == null) {
+            this.coldCell = SharedColdCells.covered();
+            return;
+        }
         this.ensureColdCell();
         this.coldCell.setCovered();
     }
@@ -163,12 +209,19 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void markColumnsSpanned(final int n) {
+        this.parentRow.checkNotSpilled();
         if (n < 0) {
             throw new IllegalArgumentException("Can't mark a negative number of columns");
         } else if (n <= 1) {
             return;
         }
 
+        if (this.coldCell == null) {
+            this.coldCell = SharedColdCells.columnsSpanned(n);
+            if (this.coldCell != null) {
+                return;
+            }
+        }
         this.ensureColdCell();
         this.coldCell.setColumnsSpanned(n);
     }
@@ -180,12 +233,19 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void markRowsSpanned(final int n) {
+        this.parentRow.checkNotSpilled();
         if (n < 0) {
             throw new IllegalArgumentException("Can't mark a negative number of rows");
         } else if (n <= 1) {
             return;
         }
 
+        if (this.coldCell == null) {
+            this.coldCell = SharedColdCells.rowsSpanned(n);
+            if (this.coldCell != null) {
+                return;
+            }
+        }
         this.ensureColdCell();
         this.coldCell.setRowsSpanned(n);
     }
@@ -197,6 +257,7 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setBooleanValue(final boolean value) {
+        this.parentRow.checkNotSpilled();
         this.value = value ? "true" : "false";
         this.type = CellType.BOOLEAN;
         this.setImplicitDataStyle(this.dataStyles.getBooleanDataStyle());
@@ -218,32 +279,45 @@ public class TableCellImpl implements TableCell {
     }
 
     private void setCurrencyValue(final String valueAsString, final String currency) {
+        this.parentRow.checkNotSpilled();
         this.value = valueAsString;
         this.type = CellType.CURRENCY;
         this.setImplicitDataStyle(this.dataStyles.getCurrencyDataStyle());
 
+        if (this.coldCell == null) {
+            this.coldCell = SharedColdCells.currency(currency);
+            if (this.coldCell != null) {
+                return;
+            }
+        }
         this.ensureColdCell();
         this.coldCell.setCurrency(currency); // escape here
     }
 
     @Override
     public void setCurrencyValue(final int value, final String currency) {
-        this.setCurrencyValue(Integer.toString(value), currency);
+        this.setCurrencyValue(this.writeUtil.toString(value), currency);
     }
 
     @Override
     public void setCurrencyValue(final Number value, final String currency) {
-        this.setCurrencyValue(value.toString(), currency);
+        this.setCurrencyValue(this.writeUtil.toString(value), currency);
     }
 
+    /**
+     * Ensure that this cell has its own cold cell: create it, or copy the shared cold cell.
+     */
     private void ensureColdCell() {
         if (this.coldCell == null) {
             this.coldCell = TableColdCell.create(this.xmlUtil);
+        } else if (this.coldCell.isShared()) {
+            this.coldCell = this.coldCell.copy(this.xmlUtil);
         }
     }
 
     @Override
     public void setDataStyle(final DataStyle dataStyle) {
+        this.parentRow.checkNotSpilled();
         if (dataStyle == null) {
             return;
         }
@@ -271,18 +345,55 @@ public class TableCellImpl implements TableCell {
         assert dataStyle != null;
 
         final TableCellStyle curStyle = this.getCurCellStyle();
+        final ColumnTypedStyles columnTypedStyles = this.parentRow.getColumnTypedStyles();
+        final TableCellStyle effectiveStyle =
+                columnTypedStyles.get(this.columnIndex, curStyle, dataStyle);
+        if (effectiveStyle != null) { // already resolved in this column
+            this.style = effectiveStyle;
+            return;
+        }
+
         final DataStyle curDataStyle = curStyle.getDataStyle();
         if (curDataStyle == null) { // no data style yet: create a custom child style
             this.stylesContainer.addDataStyle(dataStyle);
             this.style = this.stylesContainer.addChildCellStyle(curStyle, dataStyle);
         } else {
-            // TODO: Can't we add this on first style use, once for all?
             this.stylesContainer.addDataStyle(curDataStyle);
             this.style = this.stylesContainer
                     .addChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
         }
+        columnTypedStyles.put(this.columnIndex, curStyle, dataStyle, this.style);
+    }
+
+
+    /**
+     * @return the type of the value, or null
+     */
+    CellType getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the value, as written in the value attribute, or null
+     */
+    String getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return the text of the cell, or null
+     */
+    Text getText() {
+        return this.hasColdCell() ? this.coldCell.getText() : null;
     }
 
+    /**
+     * @return the current cell style, eventually found in parent (row, column, table).
+     * Never null
+     */
+    TableCellStyle getEffectiveStyle() {
+        return this.getCurCellStyle();
+    }
 
     /**
      * @return the current cell style, eventually found in parent (row, column, table).
@@ -303,12 +414,14 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setDateValue(final Date value) {
+        this.parentRow.checkNotSpilled();
         this.value = TableCellImpl.DATE_VALUE_FORMAT.format(value);
         this.type = CellType.DATE;
         this.setImplicitDataStyle(this.dataStyles.getDateDataStyle());
     }
 
     private void setFloatValue(final String valueAsString) {
+        this.parentRow.checkNotSpilled();
         this.value = valueAsString;
         this.type = CellType.FLOAT;
         this.setImplicitDataStyle(this.dataStyles.getFloatDataStyle());
@@ -326,15 +439,16 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setFloatValue(final Number value) {
-        this.setFloatValue(value.toString());
+        this.setFloatValue(this.writeUtil.toString(value));
     }
 
     @Override
     public void setPercentageValue(final int value) {
-        this.setPercentageValue(Integer.toString(value));
+        this.setPercentageValue(this.writeUtil.toString(value));
     }
 
     private void setPercentageValue(final String valueAsString) {
+        this.parentRow.checkNotSpilled();
         this.value = valueAsString;
         this.type = CellType.PERCENTAGE;
         this.setImplicitDataStyle(this.dataStyles.getPercentageDataStyle());
@@ -347,17 +461,20 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setPercentageValue(final Number value) {
-        this.setPercentageValue(value.toString());
+        this.setPercentageValue(this.writeUtil.toString(value));
     }
 
     @Override
     public void setStringValue(final String value) {
-        this.value = value;
+        this.parentRow.checkNotSpilled();
+        this.value = this.parentRow.getColumnDictionaries()
+                .intern(this.columnIndex, value, this.xmlUtil);
         this.type = CellType.STRING;
     }
 
     @Override
     public void setStyle(final TableCellStyle style) {
+        this.parentRow.checkNotSpilled();
         if (style == null) {
             return;
         }
@@ -380,8 +497,13 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setText(final Text text) {
-        this.ensureColdCell();
-        this.coldCell.setText(text);
+        this.parentRow.checkNotSpilled();
+        if (this.coldCell == null && text.isPrerendered()) {
+            this.coldCell = text.getSharedColdCell();
+        } else {
+            this.ensureColdCell();
+            this.coldCell.setText(text);
+        }
         this.value = "";
         this.type = CellType.STRING;
         text.addEmbeddedStylesFromCell(this.stylesContainer);
@@ -394,6 +516,7 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setTimeValue(final long timeInMillis) {
+        this.parentRow.checkNotSpilled();
         if (timeInMillis < 0) {
             this.value = this.xmlUtil
                     .formatNegTimeInterval(0, 0, 0, 0, 0, (double) -timeInMillis / 1000);
@@ -408,6 +531,7 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setTimeValue(final long years, final long months, final long days, final long hours,
                              final long minutes, final double seconds) {
+        this.parentRow.checkNotSpilled();
         this.value = this.xmlUtil.formatTimeInterval(years, months, days, hours, minutes, seconds);
         this.type = CellType.TIME;
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
@@ -416,6 +540,7 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setNegTimeValue(final long years, final long months, final long days,
                                 final long hours, final long minutes, final double seconds) {
+        this.parentRow.checkNotSpilled();
         this.value = this.xmlUtil
                 .formatNegTimeInterval(years, months, days, hours, minutes, seconds);
         this.type = CellType.TIME;
@@ -424,6 +549,7 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setTooltip(final String tooltip) {
+        this.parentRow.checkNotSpilled();
         this.ensureColdCell();
         this.coldCell.setTooltip(tooltip);
     }
@@ -431,24 +557,48 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setTooltip(final String tooltip, final Length width, final Length height,
                            final boolean visible) {
+        this.parentRow.checkNotSpilled();
         this.ensureColdCell();
         this.coldCell.setTooltip(tooltip, width, height, visible);
     }
 
     @Override
     public void setVoidValue() {
+        this.parentRow.checkNotSpilled();
         this.value = "";
         this.type = CellType.VOID;
     }
 
     @Override
     public void setFormula(final String formula) {
+        this.parentRow.checkNotSpilled();
+        this.formulaTemplate = null;
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
     }
 
+    /**
+     * Sets a formula template in an existing cell. The template is rendered for this cell when
+     * the row is written: see {@link FormulaTemplate}. Only the template is stored: the
+     * position of the cell is given when the row is written.
+     *
+     * @param template the template
+     * @throws IllegalArgumentException if a reference would be out of the table in this cell
+     */
+    public void setFormula(final FormulaTemplate template) {
+        this.parentRow.checkNotSpilled();
+        template.checkPosition(this.parentRow.rowIndex(), this.columnIndex);
+        if (this.hasColdCell()) {
+            this.ensureColdCell();
+            this.coldCell.setFormula(null);
+        }
+        this.formulaTemplate = template;
+    }
+
     @Override
     public void setMatrixFormula(final String formula) {
+        this.parentRow.checkNotSpilled();
+        this.formulaTemplate = null;
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
         this.coldCell.setMatrixRowsSpanned(1);
@@ -457,6 +607,8 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setMatrixFormula(final String formula, final int matrixRowsSpanned, final int matrixColumnsSpanned) {
+        this.parentRow.checkNotSpilled();
+        this.formulaTemplate = null;
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
         this.coldCell.setMatrixRowsSpanned(matrixRowsSpanned);
@@ -465,6 +617,6 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public boolean hasValue() {
-        return this.value != null || this.hasColdCell();
+        return this.value != null || this.hasColdCell() || this.formulaTemplate != null;
     }
 }
\ No newline at end of file
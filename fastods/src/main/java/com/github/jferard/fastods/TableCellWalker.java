@@ -25,6 +25,7 @@ package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableRowStyle;
@@ -172,6 +173,16 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
 
     }
 
+    /**
+     * Sets a formula template in the current cell: see {@link TableRowImpl#setFormula(int,
+     * FormulaTemplate)}.
+     *
+     * @param template the template
+     */
+    public void setFormula(final FormulaTemplate template) {
+        this.row.setFormula(this.c, template);
+    }
+
     @Override
     public boolean hasValue() {
         return this.cell.hasValue();
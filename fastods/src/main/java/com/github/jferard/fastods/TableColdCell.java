@@ -47,6 +47,7 @@ class TableColdCell {
         return new TableColdCell(xmlUtil);
     }
     private final XMLUtil xmlUtil;
+    private final boolean shared;
     private int columnsSpanned;
     private String currency;
     private int rowsSpanned;
@@ -63,7 +64,44 @@ class TableColdCell {
      * @param xmlUtil an util
      */
     TableColdCell(final XMLUtil xmlUtil) {
+        this(xmlUtil, false);
+    }
+
+    /**
+     * Create an new "cold cell"
+     *
+     * @param xmlUtil an util
+     * @param shared  true if this cold cell is a prototype shared by many cells. A shared cold
+     *                cell must not be modified: see {@link #copy(XMLUtil)}.
+     */
+    TableColdCell(final XMLUtil xmlUtil, final boolean shared) {
         this.xmlUtil = xmlUtil;
+        this.shared = shared;
+    }
+
+    /**
+     * @return true if this cold cell is shared by many cells and must not be modified.
+     */
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    /**
+     * @param util an util
+     * @return a modifiable copy of this cold cell
+     */
+    public TableColdCell copy(final XMLUtil util) {
+        final TableColdCell copy = new TableColdCell(util);
+        copy.columnsSpanned = this.columnsSpanned;
+        copy.currency = this.currency;
+        copy.rowsSpanned = this.rowsSpanned;
+        copy.text = this.text;
+        copy.tooltip = this.tooltip;
+        copy.tooltipParameter = this.tooltipParameter;
+        copy.formula = this.formula;
+        copy.matrixRowsSpanned = this.matrixRowsSpanned;
+        copy.matrixColumnsSpanned = this.matrixColumnsSpanned;
+        return copy;
     }
 
     /**
@@ -101,6 +139,13 @@ class TableColdCell {
         this.text = text;
     }
 
+    /**
+     * @return the text of the cell, or null
+     */
+    Text getText() {
+        return this.text;
+    }
+
     /**
      * Set a tooltip
      *
@@ -136,6 +181,17 @@ class TableColdCell {
      */
     public void appendXMLToTable(final XMLUtil util, final Appendable appendable)
             throws IOException {
+        this.appendXMLToTable(util, appendable, this.isCovered());
+    }
+
+    /**
+     * @param util       a util class to write XML data
+     * @param appendable the object to which data will be appended
+     * @param covered    true if the cell is covered, by this cold cell or by a merged cell
+     * @throws IOException if data can't be appended
+     */
+    public void appendXMLToTable(final XMLUtil util, final Appendable appendable,
+                                 final boolean covered) throws IOException {
 
         if (this.formula != null) {
             util.appendEAttribute(appendable, "table:formula", "of:=" + this.formula);
@@ -149,7 +205,7 @@ class TableColdCell {
             }
         }
 
-        if (!this.isCovered()) {
+        if (!covered) {
             if (this.columnsSpanned != 0) {
                 util.appendAttribute(appendable, "table:number-columns-spanned",
                         this.columnsSpanned);
@@ -174,7 +230,7 @@ class TableColdCell {
                 appendable.append("><text:p>").append(this.tooltip)
                         .append("</text:p></office:annotation>");
             }
-            if (this.isCovered()) {
+            if (covered) {
                 appendable.append("</table:covered-table-cell>");
             } else {
                 appendable.append("</table:table-cell>");
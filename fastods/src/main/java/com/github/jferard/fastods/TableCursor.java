@@ -0,0 +1,163 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+/**
+ * A read-only cursor over the rows and the cells of a table. Unlike a
+ * {@link TableCellWalker}, the cursor visits only the rows and the cells that exist: it never
+ * creates a row or a cell, never triggers a flush, and skips the gaps of a sparse table at
+ * once. Use it to inspect a table (validation, checksums, totals) without inflating it.
+ * <p>
+ * The rows that were already flushed or spilled to a temporary file are not visited.
+ * <p>
+ * Usage:
+ * <pre>
+ * final TableCursor cursor = table.getCursor();
+ * while (cursor.nextRow()) {
+ *     while (cursor.nextCell()) {
+ *         ... cursor.getType(), cursor.getValue() ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Julien Férard
+ */
+public final class TableCursor {
+    private final TableBuilder builder;
+    private int r;
+    private int c;
+    private TableRowImpl row;
+    private TableCellImpl cell;
+
+    /**
+     * @param builder the builder of the table
+     */
+    TableCursor(final TableBuilder builder) {
+        this.builder = builder;
+        this.r = -1;
+        this.c = -1;
+    }
+
+    /**
+     * Move to the next existing row. The cell cursor is reset.
+     *
+     * @return true if there is such a row, false at the end of the table.
+     */
+    public boolean nextRow() {
+        final int size = this.builder.getTableRowsUsedSize();
+        final int nextRowIndex = this.builder.nextTableRowIndex(this.r + 1);
+        this.cell = null;
+        this.c = -1;
+        if (nextRowIndex >= size) {
+            this.r = size;
+            this.row = null;
+            return false;
+        }
+        this.r = nextRowIndex;
+        this.row = this.builder.getTableRow(nextRowIndex);
+        return true;
+    }
+
+    /**
+     * Move to the next existing cell of the current row.
+     *
+     * @return true if there is such a cell, false at the end of the row.
+     */
+    public boolean nextCell() {
+        if (this.row == null) {
+            return false;
+        }
+        final int nextColIndex = this.row.nextCellIndex(this.c + 1);
+        if (nextColIndex == -1) {
+            this.c = this.row.getColumnCount();
+            this.cell = null;
+            return false;
+        }
+        this.c = nextColIndex;
+        this.cell = this.row.getCell(nextColIndex);
+        return true;
+    }
+
+    /**
+     * @return the index of the current row
+     */
+    public int rowIndex() {
+        return this.r;
+    }
+
+    /**
+     * @return the index of the current cell
+     */
+    public int colIndex() {
+        return this.c;
+    }
+
+    /**
+     * @return true if the current cell has a value
+     */
+    public boolean hasValue() {
+        return this.getCell().hasValue();
+    }
+
+    /**
+     * @return the type of the current cell, null if the cell has no value
+     */
+    public CellType getType() {
+        return this.getCell().getType();
+    }
+
+    /**
+     * @return the value of the current cell, as written in the file (e.g. "2.0" for a float,
+     * "2019-01-01T00:00:00.000" for a date), or null if the cell has no value. The value of a
+     * text cell is "".
+     */
+    public String getValue() {
+        return this.getCell().getValue();
+    }
+
+    /**
+     * @return the effective style of the current cell: the style of the cell, or the default
+     * style of the row or of the column. Never null.
+     */
+    public TableCellStyle getStyle() {
+        return this.getCell().getEffectiveStyle();
+    }
+
+    /**
+     * @return true if the current cell is covered by a merge or a span
+     */
+    public boolean isCovered() {
+        return this.getCell().isCovered();
+    }
+
+    private TableCellImpl getCell() {
+        if (this.cell == null) {
+            throw new IllegalStateException("No current cell: call nextCell() first");
+        }
+        return this.cell;
+    }
+}
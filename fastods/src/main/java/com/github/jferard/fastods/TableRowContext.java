@@ -0,0 +1,79 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+/**
+ * The state that the rows of a table share: the effective styles of the typed cells, the
+ * regions covered by merged cells and the string dictionaries of the columns.
+ *
+ * @author Julien Férard
+ */
+final class TableRowContext {
+    /**
+     * @param columnCapacity the max column
+     * @return a new context for the rows of a table
+     */
+    static TableRowContext create(final int columnCapacity) {
+        return new TableRowContext(new ColumnTypedStyles(columnCapacity), new CoveredRegions(),
+                new ColumnDictionaries());
+    }
+
+    private final ColumnTypedStyles columnTypedStyles;
+    private final CoveredRegions coveredRegions;
+    private final ColumnDictionaries columnDictionaries;
+
+    /**
+     * @param columnTypedStyles  the effective styles of the typed cells
+     * @param coveredRegions     the regions covered by merged cells
+     * @param columnDictionaries the string dictionaries of the columns
+     */
+    TableRowContext(final ColumnTypedStyles columnTypedStyles,
+                    final CoveredRegions coveredRegions,
+                    final ColumnDictionaries columnDictionaries) {
+        this.columnTypedStyles = columnTypedStyles;
+        this.coveredRegions = coveredRegions;
+        this.columnDictionaries = columnDictionaries;
+    }
+
+    /**
+     * @return the effective styles of the typed cells
+     */
+    ColumnTypedStyles getColumnTypedStyles() {
+        return this.columnTypedStyles;
+    }
+
+    /**
+     * @return the regions covered by merged cells
+     */
+    CoveredRegions getCoveredRegions() {
+        return this.coveredRegions;
+    }
+
+    /**
+     * @return the string dictionaries of the columns
+     */
+    ColumnDictionaries getColumnDictionaries() {
+        return this.columnDictionaries;
+    }
+}
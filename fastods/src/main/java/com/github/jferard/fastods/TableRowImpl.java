@@ -25,9 +25,10 @@ package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableRowStyle;
-import com.github.jferard.fastods.util.FastFullList;
+import com.github.jferard.fastods.util.ChunkedFullList;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
@@ -58,16 +59,26 @@ public class TableRowImpl implements TableRow {
     }
 
 
+    /**
+     * The cells are stored in segments of 64 cells: a row of a few cells does not need a big
+     * array.
+     */
+    private static final int CELLS_SEGMENT_SIZE = 64;
+
     private final Table parentTable;
     private final int rowIndex;
     private final StylesContainer stylesContainer;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
-    private final FastFullList<TableCellImpl> cells;
+    private final ChunkedFullList<TableCellImpl> cells;
     private final boolean libreOfficeMode;
+    private final ColumnTypedStyles columnTypedStyles;
+    private final CoveredRegions coveredRegions;
+    private final ColumnDictionaries columnDictionaries;
     private DataStyles dataStyles;
     private TableRowStyle rowStyle;
     private TableCellStyle defaultCellStyle;
+    private boolean spilled;
 
     /**
      * Create a new TableRow
@@ -80,11 +91,15 @@ public class TableRowImpl implements TableRow {
      * @param parentTable     the parent table
      * @param rowIndex        the index of this row
      * @param columnCapacity  the max column
+     * @param context         the state shared by the rows of the table
      */
     TableRowImpl(final WriteUtil writeUtil, final XMLUtil xmlUtil,
                  final StylesContainer stylesContainer, final DataStyles dataStyles,
                  final boolean libreOfficeMode, final Table parentTable, final int rowIndex,
-                 final int columnCapacity) {
+                 final int columnCapacity, final TableRowContext context) {
+        this.columnTypedStyles = context.getColumnTypedStyles();
+        this.coveredRegions = context.getCoveredRegions();
+        this.columnDictionaries = context.getColumnDictionaries();
         this.writeUtil = writeUtil;
         this.stylesContainer = stylesContainer;
         this.xmlUtil = xmlUtil;
@@ -93,7 +108,8 @@ public class TableRowImpl implements TableRow {
         this.parentTable = parentTable;
         this.rowIndex = rowIndex;
         this.rowStyle = TableRowStyle.DEFAULT_TABLE_ROW_STYLE;
-        this.cells = FastFullList.newListWithCapacity(columnCapacity);
+        this.cells = ChunkedFullList.<TableCellImpl>builder().capacity(columnCapacity)
+                .segmentSize(TableRowImpl.CELLS_SEGMENT_SIZE).build();
     }
 
     /**
@@ -107,22 +123,44 @@ public class TableRowImpl implements TableRow {
     public void appendXMLToTable(final XMLUtil util, final Appendable appendable)
             throws IOException {
         this.appendRowOpenTag(util, appendable);
-        int nullFieldCounter = 0;
-
+        final int[] coveredColumns = this.coveredRegions.getCoveredColumns(this.rowIndex);
         final int size = this.cells.usedSize();
-        for (int c = 0; c < size; c++) {
-            final TableCellImpl cell = this.cells.get(c);
-            if (this.hasNoValue(cell)) {
-                nullFieldCounter++;
-                continue;
+        int firstEmptyIndex = 0; // the index after the last written cell
+        int k = 0; // the index of the next covered interval
+        int c = this.cells.nextNonBlankIndex(0); // skip the gaps at once
+        while (c < size || k < coveredColumns.length) {
+            if (k < coveredColumns.length && (c >= size || coveredColumns[k] <= c)) {
+                // a covered interval: the cells with a value are written one by one
+                final int start = coveredColumns[k];
+                final int end = coveredColumns[k + 1];
+                this.appendRepeatedCell(util, appendable, start - firstEmptyIndex);
+                int firstCoveredIndex = start;
+                while (c < end && c < size) {
+                    final TableCellImpl cell = this.cells.get(c);
+                    if (!this.hasNoValue(cell)) {
+                        this.appendCoveredCells(util, appendable, firstCoveredIndex, c);
+                        cell.appendXMLToTableRow(util, appendable, true);
+                        firstCoveredIndex = c + 1;
+                    }
+                    c = this.cells.nextNonBlankIndex(c + 1);
+                }
+                this.appendCoveredCells(util, appendable, firstCoveredIndex, end);
+                firstEmptyIndex = end;
+                k += 2;
+            } else {
+                final TableCellImpl cell = this.cells.get(c);
+                if (!this.hasNoValue(cell)) {
+                    this.appendRepeatedCell(util, appendable, c - firstEmptyIndex);
+                    // outside of the covered regions: no need to look them up again
+                    cell.appendXMLToTableRow(util, appendable, cell.isColdCellCovered());
+                    firstEmptyIndex = c + 1;
+                }
+                c = this.cells.nextNonBlankIndex(c + 1);
             }
-            this.appendRepeatedCell(util, appendable, nullFieldCounter);
-            nullFieldCounter = 0;
-            cell.appendXMLToTableRow(util, appendable);
         }
 
-        if (nullFieldCounter > 0) {
-            this.appendRepeatedCell(util, appendable, nullFieldCounter);
+        if (size > firstEmptyIndex) {
+            this.appendRepeatedCell(util, appendable, size - firstEmptyIndex);
         }
 
         appendable.append("</table:table-row>");
@@ -154,6 +192,35 @@ public class TableRowImpl implements TableRow {
         appendable.append("/>");
     }
 
+    /**
+     * Append the covered cells in [from, to) as runs of repeated covered cells. In LO mode, a run
+     * stops when the default style of the column changes.
+     */
+    private void appendCoveredCells(final XMLUtil util, final Appendable appendable,
+                                    final int from, final int to) throws IOException {
+        int start = from;
+        while (start < to) {
+            int end = to;
+            String styleName = null;
+            if (this.libreOfficeMode) {
+                styleName = this.findDefaultCellStyle(start).getName();
+                end = start + 1;
+                while (end < to && styleName.equals(this.findDefaultCellStyle(end).getName())) {
+                    end++;
+                }
+            }
+            appendable.append("<table:covered-table-cell");
+            if (styleName != null) {
+                util.appendEAttribute(appendable, "table:style-name", styleName);
+            }
+            if (end - start >= 2) {
+                util.appendAttribute(appendable, "table:number-columns-repeated", end - start);
+            }
+            appendable.append("/>");
+            start = end;
+        }
+    }
+
     private boolean hasNoValue(final TableCell cell) {
         return cell == null || !cell.hasValue();
     }
@@ -176,6 +243,7 @@ public class TableRowImpl implements TableRow {
      */
     public void setCellMerge(final int colIndex, final int rowMerge, final int columnMerge)
             throws IOException {
+        this.checkNotSpilled();
         if (rowMerge < 0 || columnMerge < 0) {
             throw new IllegalArgumentException("row merge and col merge must be >= 0");
         } else if (rowMerge <= 1 && columnMerge <= 1) {
@@ -191,9 +259,8 @@ public class TableRowImpl implements TableRow {
      * @param n        the number of cells to cover
      */
     public void coverRightCells(final int colIndex, final int n) {
-        for (int c = colIndex + 1; c < colIndex + n; c++) {
-            this.getOrCreateCell(c).setCovered();
-        }
+        this.checkNotSpilled();
+        this.coveredRegions.add(this.rowIndex, colIndex + 1, 1, n - 1);
     }
 
     /**
@@ -204,6 +271,7 @@ public class TableRowImpl implements TableRow {
      * @throws IllegalArgumentException if n < 0
      */
     public void setColumnsSpanned(final int colIndex, final int n) {
+        this.checkNotSpilled();
         if (n < 0) {
             throw new IllegalArgumentException("Can't span negative number of columns");
         } else if (n <= 1) {
@@ -220,6 +288,7 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public void setRowFormat(final DataStyles format) {
+        this.checkNotSpilled();
         this.dataStyles = format;
     }
 
@@ -232,6 +301,7 @@ public class TableRowImpl implements TableRow {
      * @throws IllegalArgumentException if n < 0 of this cells is covered
      */
     public void setRowsSpanned(final int colIndex, final int n) throws IOException {
+        this.checkNotSpilled();
         if (n < 0) {
             throw new IllegalArgumentException("Can't span negative number of rows");
         } else if (n <= 1) {
@@ -254,8 +324,13 @@ public class TableRowImpl implements TableRow {
      * @return a cell
      */
     public TableCell getOrCreateCell(final int colIndex) {
+        return this.getOrCreateCellImpl(colIndex);
+    }
+
+    private TableCellImpl getOrCreateCellImpl(final int colIndex) {
         TableCellImpl cell = this.cells.get(colIndex);
         if (cell == null) {
+            this.checkNotSpilled();
             cell = new TableCellImpl(this.writeUtil, this.xmlUtil, this.stylesContainer,
                     this.dataStyles, this.libreOfficeMode, this, colIndex);
             this.cells.set(colIndex, cell);
@@ -263,8 +338,21 @@ public class TableRowImpl implements TableRow {
         return cell;
     }
 
+    /**
+     * Set a formula template in the cell at given index. The template is rendered for the cell
+     * when the row is written: see {@link FormulaTemplate}.
+     *
+     * @param colIndex the index of the cell in the row
+     * @param template the template
+     * @throws IllegalArgumentException if a reference would be out of the table in this cell
+     */
+    public void setFormula(final int colIndex, final FormulaTemplate template) {
+        this.getOrCreateCellImpl(colIndex).setFormula(template);
+    }
+
     @Override
     public void setRowStyle(final TableRowStyle rowStyle) {
+        this.checkNotSpilled();
         rowStyle.addToContentStyles(this.stylesContainer);
         this.rowStyle = rowStyle;
         this.defaultCellStyle = rowStyle.getDefaultCellStyle();
@@ -272,7 +360,12 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public int getColumnCount() {
-        return this.cells.usedSize();
+        final int size = this.cells.usedSize();
+        final int[] coveredColumns = this.coveredRegions.getCoveredColumns(this.rowIndex);
+        if (coveredColumns.length == 0) {
+            return size;
+        }
+        return Math.max(size, coveredColumns[coveredColumns.length - 1]);
     }
 
     /**
@@ -280,10 +373,21 @@ public class TableRowImpl implements TableRow {
      * @return true if the cell at the colIndex is covered by a span
      */
     public boolean isCovered(final int colIndex) {
+        if (this.isInCoveredRegion(colIndex)) {
+            return true;
+        }
         final TableCell cell = this.cells.get(colIndex);
         return cell != null && cell.isCovered();
     }
 
+    /**
+     * @param colIndex the index to look for
+     * @return true if the cell at the colIndex is in a region covered by a merge
+     */
+    boolean isInCoveredRegion(final int colIndex) {
+        return this.coveredRegions.isCovered(this.rowIndex, colIndex);
+    }
+
     /**
      * Find the default cell style for a column
      *
@@ -300,17 +404,70 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public void setDefaultCellStyle(final TableCellStyle ts) {
+        this.checkNotSpilled();
         this.stylesContainer.addContentFontFaceContainerStyle(ts);
         this.defaultCellStyle = ts;
     }
 
+    /**
+     * @return the effective styles of the typed cells
+     */
+    ColumnTypedStyles getColumnTypedStyles() {
+        return this.columnTypedStyles;
+    }
+
+    /**
+     * @param colIndex the first index to check
+     * @return the index of the first created cell at or after colIndex, or -1 if there is none
+     */
+    int nextCellIndex(final int colIndex) {
+        final int c = this.cells.nextNonBlankIndex(colIndex);
+        if (c >= this.cells.usedSize()) {
+            return -1;
+        }
+        return c;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return the cell, or null if it was not created. Never creates a cell.
+     */
+    TableCellImpl getCell(final int colIndex) {
+        return this.cells.get(colIndex);
+    }
+
+    /**
+     * @return the string dictionaries of the columns
+     */
+    ColumnDictionaries getColumnDictionaries() {
+        return this.columnDictionaries;
+    }
+
     @Override
     public int rowIndex() {
         return this.rowIndex;
     }
 
+    /**
+     * Mark this row as spilled: it was written to a temporary file and dropped from the table.
+     */
+    void markSpilled() {
+        this.spilled = true;
+    }
+
+    /**
+     * @throws IllegalStateException if the row was spilled: a modification would be lost.
+     */
+    void checkNotSpilled() {
+        if (this.spilled) {
+            throw new IllegalStateException(
+                    "The row " + this.rowIndex + " was spilled to a temporary file");
+        }
+    }
+
     @Override
     public void removeRowStyle() {
+        this.checkNotSpilled();
         this.rowStyle = null;
     }
 }
\ No newline at end of file
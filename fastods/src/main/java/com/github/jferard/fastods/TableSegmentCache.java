@@ -0,0 +1,160 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the rendered XML of the tables, to regenerate a document whose tables did not
+ * all change. The XML of a table is cached under the name of the table and a content version
+ * chosen by the caller (a counter, a timestamp, a hash of the data...): when a document is
+ * written, a table whose version did not change is not rendered again, the cached XML is
+ * appended to content.xml as is.
+ * <p>
+ * The cached XML references the styles of the table: the styles registered by the table are
+ * stored with the XML, and registered again in the documents that reuse it. Only the last
+ * version of each table is kept. A cache may be shared by several documents and several
+ * threads.
+ *
+ * @author Julien Férard
+ */
+public final class TableSegmentCache {
+    /**
+     * @return a new empty cache
+     */
+    public static TableSegmentCache create() {
+        return new TableSegmentCache();
+    }
+
+    private final Map<String, Segment> segmentByTableName;
+
+    /**
+     * Create a new cache
+     */
+    TableSegmentCache() {
+        this.segmentByTableName = new HashMap<String, Segment>();
+    }
+
+    /**
+     * @param tableName the name of the table
+     * @param version   the content version of the table
+     * @return the cached XML and styles of this version of the table, or null
+     */
+    synchronized Segment getSegment(final String tableName, final Object version) {
+        final Segment segment = this.segmentByTableName.get(tableName);
+        if (segment == null || !segment.version.equals(version)) {
+            return null;
+        }
+        return segment;
+    }
+
+    /**
+     * Cache the XML of a table. Replaces any previous version.
+     *
+     * @param tableName the name of the table
+     * @param version   the content version of the table
+     * @param xml       the XML of the table
+     * @param styles    the styles registered by the table
+     * @return the new segment
+     */
+    synchronized Segment putSegment(final String tableName, final Object version,
+                                    final String xml,
+                                    final List<TableStylesRecorder.Registration> styles) {
+        final Segment segment = new Segment(version, xml, styles);
+        this.segmentByTableName.put(tableName, segment);
+        return segment;
+    }
+
+    /**
+     * Remove the XML of a table: the table will be rendered at the next setSegmentCache,
+     * whatever its version. A table that has already found its XML in the cache keeps it.
+     *
+     * @param tableName the name of the table
+     */
+    public synchronized void invalidate(final String tableName) {
+        this.segmentByTableName.remove(tableName);
+    }
+
+    /**
+     * Remove all the cached XML.
+     */
+    public synchronized void clear() {
+        this.segmentByTableName.clear();
+    }
+
+    /**
+     * @return the number of cached tables
+     */
+    public synchronized int size() {
+        return this.segmentByTableName.size();
+    }
+
+    /**
+     * @return the total length of the cached XML, in chars
+     */
+    public synchronized long getLength() {
+        long length = 0;
+        for (final Segment segment : this.segmentByTableName.values()) {
+            length += segment.xml.length();
+        }
+        return length;
+    }
+
+    /**
+     * A version of the XML of a table, and the styles it refers to
+     */
+    static final class Segment {
+        private final Object version;
+        private final String xml;
+        private final List<TableStylesRecorder.Registration> styles;
+
+        /**
+         * @param version the content version
+         * @param xml     the XML
+         * @param styles  the styles registered by the table
+         */
+        Segment(final Object version, final String xml,
+                final List<TableStylesRecorder.Registration> styles) {
+            this.version = version;
+            this.xml = xml;
+            this.styles = styles;
+        }
+
+        /**
+         * @return the XML of the table
+         */
+        String getXML() {
+            return this.xml;
+        }
+
+        /**
+         * @return the styles registered by the table
+         */
+        List<TableStylesRecorder.Registration> getStyles() {
+            return this.styles;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.FontFaceContainerStyle;
+import com.github.jferard.fastods.style.MasterPageStyle;
+import com.github.jferard.fastods.style.ObjectStyle;
+import com.github.jferard.fastods.style.PageLayoutStyle;
+import com.github.jferard.fastods.style.PageStyle;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.Container;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The styles container of a table. Delegates to the container of the document and, once
+ * started, records the styles that the table registers: the cached XML of a table refers to
+ * those styles, and they have to be registered again in the documents that reuse the XML.
+ *
+ * @author Julien Férard
+ */
+class TableStylesRecorder implements StylesContainer {
+    private final StylesContainer stylesContainer;
+    private Set<Registration> registrations;
+    private boolean used;
+
+    /**
+     * @param stylesContainer the container of the document
+     */
+    TableStylesRecorder(final StylesContainer stylesContainer) {
+        this.stylesContainer = stylesContainer;
+        this.registrations = null;
+        this.used = false;
+    }
+
+    /**
+     * Start to record the styles.
+     *
+     * @throws IllegalStateException if some styles were registered before
+     */
+    void startRecording() {
+        if (this.used) {
+            throw new IllegalStateException(
+                    "The styles of the table were registered before the recording");
+        }
+        if (this.registrations == null) {
+            this.registrations = new LinkedHashSet<Registration>();
+        }
+    }
+
+    /**
+     * @return the styles recorded, in order
+     */
+    List<Registration> getRegistrations() {
+        if (this.registrations == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<Registration>(this.registrations));
+    }
+
+    /**
+     * Register the recorded styles again, e.g. in another document.
+     *
+     * @param registrations the recorded styles
+     */
+    void register(final List<Registration> registrations) {
+        for (final Registration registration : registrations) {
+            registration.registerTo(this);
+        }
+    }
+
+    private void record(final Kind kind, final Object style, final DataStyle dataStyle) {
+        if (this.registrations == null) {
+            this.used = true;
+        } else {
+            this.registrations.add(new Registration(kind, style, dataStyle));
+        }
+    }
+
+    @Override
+    public TableCellStyle addChildCellStyle(final TableCellStyle style,
+                                            final DataStyle dataStyle) {
+        this.record(Kind.CHILD_CELL, style, dataStyle);
+        return this.stylesContainer.addChildCellStyle(style, dataStyle);
+    }
+
+    @Override
+    public boolean addContentFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+        this.record(Kind.CONTENT_FONT_FACE, ffcStyle, null);
+        return this.stylesContainer.addContentFontFaceContainerStyle(ffcStyle);
+    }
+
+    @Override
+    public boolean addStylesFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+        this.record(Kind.STYLES_FONT_FACE, ffcStyle, null);
+        return this.stylesContainer.addStylesFontFaceContainerStyle(ffcStyle);
+    }
+
+    @Override
+    public boolean addDataStyle(final DataStyle dataStyle) {
+        this.record(Kind.DATA, dataStyle, null);
+        return this.stylesContainer.addDataStyle(dataStyle);
+    }
+
+    @Override
+    public boolean addMasterPageStyle(final MasterPageStyle masterPageStyle) {
+        this.record(Kind.MASTER_PAGE, masterPageStyle, null);
+        return this.stylesContainer.addMasterPageStyle(masterPageStyle);
+    }
+
+    @Override
+    public boolean addNewDataStyleFromCellStyle(final TableCellStyle style) {
+        this.record(Kind.NEW_DATA_FROM_CELL, style, null);
+        return this.stylesContainer.addNewDataStyleFromCellStyle(style);
+    }
+
+    @Override
+    public boolean addPageLayoutStyle(final PageLayoutStyle pageLayoutStyle) {
+        this.record(Kind.PAGE_LAYOUT, pageLayoutStyle, null);
+        return this.stylesContainer.addPageLayoutStyle(pageLayoutStyle);
+    }
+
+    @Override
+    public boolean addPageStyle(final PageStyle ps) {
+        this.record(Kind.PAGE, ps, null);
+        return this.stylesContainer.addPageStyle(ps);
+    }
+
+    @Override
+    public boolean addContentStyle(final ObjectStyle objectStyle) {
+        this.record(Kind.CONTENT, objectStyle, null);
+        return this.stylesContainer.addContentStyle(objectStyle);
+    }
+
+    @Override
+    public boolean addStylesStyle(final ObjectStyle objectStyle) {
+        this.record(Kind.STYLES, objectStyle, null);
+        return this.stylesContainer.addStylesStyle(objectStyle);
+    }
+
+    @Override
+    public void setDataStylesMode(final Container.Mode mode) {
+        this.stylesContainer.setDataStylesMode(mode);
+    }
+
+    @Override
+    public void setMasterPageStyleMode(final Container.Mode mode) {
+        this.stylesContainer.setMasterPageStyleMode(mode);
+    }
+
+    @Override
+    public void setPageLayoutStyleMode(final Container.Mode mode) {
+        this.stylesContainer.setPageLayoutStyleMode(mode);
+    }
+
+    @Override
+    public void setPageStyleMode(final Container.Mode mode) {
+        this.stylesContainer.setPageStyleMode(mode);
+    }
+
+    @Override
+    public void setObjectStyleMode(final Container.Mode mode) {
+        this.stylesContainer.setObjectStyleMode(mode);
+    }
+
+    /**
+     * The method of the container that registered a style
+     */
+    private enum Kind {
+        CHILD_CELL, CONTENT_FONT_FACE, STYLES_FONT_FACE, DATA, MASTER_PAGE, NEW_DATA_FROM_CELL,
+        PAGE_LAYOUT, PAGE, CONTENT, STYLES
+    }
+
+    /**
+     * A style registered by the table. Immutable.
+     */
+    static final class Registration {
+        private final Kind kind;
+        private final Object style;
+        private final DataStyle dataStyle;
+
+        /**
+         * @param kind      the method of the container
+         * @param style     the style
+         * @param dataStyle the data style of a child cell style, or null
+         */
+        Registration(final Kind kind, final Object style, final DataStyle dataStyle) {
+            this.kind = kind;
+            this.style = style;
+            this.dataStyle = dataStyle;
+        }
+
+        /**
+         * @param stylesContainer the container where the style is registered again
+         */
+        void registerTo(final StylesContainer stylesContainer) {
+            switch (this.kind) {
+                case CHILD_CELL:
+                    stylesContainer.addChildCellStyle((TableCellStyle) this.style, this.dataStyle);
+                    break;
+                case CONTENT_FONT_FACE:
+                    stylesContainer
+                            .addContentFontFaceContainerStyle((FontFaceContainerStyle) this.style);
+                    break;
+                case STYLES_FONT_FACE:
+                    stylesContainer
+                            .addStylesFontFaceContainerStyle((FontFaceContainerStyle) this.style);
+                    break;
+                case DATA:
+                    stylesContainer.addDataStyle((DataStyle) this.style);
+                    break;
+                case MASTER_PAGE:
+                    stylesContainer.addMasterPageStyle((MasterPageStyle) this.style);
+                    break;
+                case NEW_DATA_FROM_CELL:
+                    stylesContainer.addNewDataStyleFromCellStyle((TableCellStyle) this.style);
+                    break;
+                case PAGE_LAYOUT:
+                    stylesContainer.addPageLayoutStyle((PageLayoutStyle) this.style);
+                    break;
+                case PAGE:
+                    stylesContainer.addPageStyle((PageStyle) this.style);
+                    break;
+                case CONTENT:
+                    stylesContainer.addContentStyle((ObjectStyle) this.style);
+                    break;
+                default: // STYLES
+                    stylesContainer.addStylesStyle((ObjectStyle) this.style);
+                    break;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Registration)) {
+                return false;
+            }
+            final Registration other = (Registration) o;
+            return this.kind == other.kind && this.style == other.style &&
+                    this.dataStyle == other.dataStyle;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * this.kind.hashCode() + System.identityHashCode(this.style)) * 31 +
+                    System.identityHashCode(this.dataStyle);
+        }
+    }
+}
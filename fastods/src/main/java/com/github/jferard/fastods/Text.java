@@ -103,6 +103,9 @@ public class Text implements ParagraphElement {
     }
 
     private final List<Paragraph> paragraphs;
+    private final String xmlContent;
+    private final TableColdCell sharedColdCell;
+    private StylesContainer lastCellStylesContainer;
 
     /**
      * Create a new Text
@@ -110,7 +113,47 @@ public class Text implements ParagraphElement {
      * @param paragraphs the paragraphs
      */
     Text(final List<Paragraph> paragraphs) {
+        this(paragraphs, null);
+    }
+
+    /**
+     * Create a new Text
+     *
+     * @param paragraphs the paragraphs
+     * @param xmlContent the rendered XML content of the paragraphs, or null. If not null, the
+     *                   text is shared by many cells (see {@link TextInterner}).
+     */
+    Text(final List<Paragraph> paragraphs, final String xmlContent) {
         this.paragraphs = paragraphs;
+        this.xmlContent = xmlContent;
+        if (xmlContent == null) {
+            this.sharedColdCell = null;
+        } else {
+            this.sharedColdCell = new TableColdCell(null, true);
+            this.sharedColdCell.setText(this);
+        }
+    }
+
+    /**
+     * @param xmlContent the rendered XML content of this text
+     * @return a prerendered copy of this text
+     */
+    Text prerendered(final String xmlContent) {
+        return new Text(this.paragraphs, xmlContent);
+    }
+
+    /**
+     * @return true if the XML content of this text was rendered once for all
+     */
+    boolean isPrerendered() {
+        return this.xmlContent != null;
+    }
+
+    /**
+     * @return the cold cell shared by the cells that contain this prerendered text, or null
+     */
+    TableColdCell getSharedColdCell() {
+        return this.sharedColdCell;
     }
 
     /**
@@ -121,6 +164,12 @@ public class Text implements ParagraphElement {
      */
     @Override
     public void addEmbeddedStylesFromCell(final StylesContainer stylesContainer) {
+        if (this.isPrerendered()) {
+            if (stylesContainer == this.lastCellStylesContainer) { // already added
+                return;
+            }
+            this.lastCellStylesContainer = stylesContainer;
+        }
         for (final Paragraph par : this.paragraphs) {
             par.addEmbeddedStylesFromCell(stylesContainer);
         }
@@ -142,6 +191,10 @@ public class Text implements ParagraphElement {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
+        if (this.isPrerendered()) {
+            appendable.append(this.xmlContent);
+            return;
+        }
         for (final Paragraph paragraph : this.paragraphs) {
             paragraph.appendXMLContent(util, appendable);
         }
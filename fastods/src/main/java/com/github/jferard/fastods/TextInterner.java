@@ -0,0 +1,105 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An interner of texts and links. Many cells have the same styled label or the same link: the
+ * interner returns one shared text per rendered XML content. The shared text is rendered once,
+ * its embedded styles are registered once per document, and the cells that contain it share
+ * one cold cell: a rich text costs no more than a plain string.
+ * <p>
+ * The texts are compared by rendered XML content, because the equality of texts does not
+ * take the styles into account.
+ *
+ * @author Julien Férard
+ */
+public final class TextInterner {
+    /**
+     * @return a new interner
+     */
+    public static TextInterner create() {
+        return new TextInterner(XMLUtil.create());
+    }
+
+    private final XMLUtil xmlUtil;
+    private final Map<String, Text> textByXMLContent;
+
+    /**
+     * @param xmlUtil an util
+     */
+    TextInterner(final XMLUtil xmlUtil) {
+        this.xmlUtil = xmlUtil;
+        this.textByXMLContent = new HashMap<String, Text>();
+    }
+
+    /**
+     * @param text the text
+     * @return the shared text that has the same content
+     * @throws IOException if the text can't be rendered
+     */
+    public synchronized Text intern(final Text text) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        text.appendXMLContent(this.xmlUtil, sb);
+        final String xmlContent = sb.toString();
+        Text interned = this.textByXMLContent.get(xmlContent);
+        if (interned == null) {
+            interned = text.isPrerendered() ? text : text.prerendered(xmlContent);
+            this.textByXMLContent.put(xmlContent, interned);
+        }
+        return interned;
+    }
+
+    /**
+     * @param link the link
+     * @return the shared text that contains one paragraph with this link
+     * @throws IOException if the link can't be rendered
+     */
+    public Text intern(final Link link) throws IOException {
+        return this.intern(
+                new Text(Collections.singletonList(Paragraph.builder().element(link).build())));
+    }
+
+    /**
+     * @param content the content
+     * @return the shared text that contains one paragraph with this content
+     * @throws IOException if the text can't be rendered
+     */
+    public Text intern(final String content) throws IOException {
+        return this.intern(Text.content(content));
+    }
+
+    /**
+     * @return the number of shared texts
+     */
+    public synchronized int size() {
+        return this.textByXMLContent.size();
+    }
+}
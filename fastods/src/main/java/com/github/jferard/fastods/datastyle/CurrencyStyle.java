@@ -57,6 +57,7 @@ public class CurrencyStyle implements DataStyle {
     private final SymbolPosition currencyPosition;
     private final String currencySymbol;
     private final FloatStyle floatStyle;
+    private String xml;
 
     /**
      * Create a new CurrencyStyle.
@@ -75,8 +76,13 @@ public class CurrencyStyle implements DataStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final CharSequence number = this.computeCurrency(util);
-        this.floatStyle.appendXMLHelper(util, appendable, "currency-style", number);
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder sb = new StringBuilder();
+            final CharSequence number = this.computeCurrency(util);
+            this.floatStyle.appendXMLHelper(util, sb, "currency-style", number);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
     }
 
     private StringBuilder computeCurrency(final XMLUtil util) throws IOException {
@@ -39,6 +39,7 @@ import java.io.IOException;
 public class FloatStyle implements DataStyle {
     private final NumberStyleHelper numberStyle;
     private final int decimalPlaces;
+    private String xml;
 
     /**
      * Create a float style
@@ -54,8 +55,13 @@ public class FloatStyle implements DataStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final CharSequence number = this.computeNumberTag(util);
-        this.numberStyle.appendXMLHelper(util, appendable, "number-style", number);
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder sb = new StringBuilder();
+            final CharSequence number = this.computeNumberTag(util);
+            this.numberStyle.appendXMLHelper(util, sb, "number-style", number);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
     }
 
     /**
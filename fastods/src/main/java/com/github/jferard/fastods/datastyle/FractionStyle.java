@@ -43,6 +43,7 @@ public class FractionStyle implements DataStyle {
     private final NumberStyleHelper numberStyle;
     private final int minDenominatorDigits;
     private final int minNumeratorDigits;
+    private String xml;
 
     /**
      * Create a new fraction style
@@ -61,8 +62,13 @@ public class FractionStyle implements DataStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final CharSequence number = this.computeNumberTag(util);
-        this.numberStyle.appendXMLHelper(util, appendable, "number-style", number);
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder sb = new StringBuilder();
+            final CharSequence number = this.computeNumberTag(util);
+            this.numberStyle.appendXMLHelper(util, sb, "number-style", number);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
     }
 
     private CharSequence computeNumberTag(final XMLUtil util) throws IOException {
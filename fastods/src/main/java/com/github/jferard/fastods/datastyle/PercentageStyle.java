@@ -41,6 +41,7 @@ import java.io.IOException;
  */
 public class PercentageStyle implements DataStyle {
     private final FloatStyle floatStyle;
+    private String xml;
 
     /**
      * A percentage style
@@ -54,10 +55,15 @@ public class PercentageStyle implements DataStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final StringBuilder percentage = new StringBuilder();
-        this.floatStyle.appendNumberTag(util, percentage);
-        percentage.append("<number:text>%</number:text>");
-        this.floatStyle.appendXMLHelper(util, appendable, "percentage-style", percentage);
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder percentage = new StringBuilder();
+            this.floatStyle.appendNumberTag(util, percentage);
+            percentage.append("<number:text>%</number:text>");
+            final StringBuilder sb = new StringBuilder();
+            this.floatStyle.appendXMLHelper(util, sb, "percentage-style", percentage);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
     }
 
     @Override
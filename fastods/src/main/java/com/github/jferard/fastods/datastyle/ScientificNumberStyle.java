@@ -42,6 +42,7 @@ import java.io.IOException;
 public class ScientificNumberStyle implements DataStyle {
     private final FloatStyle floatStyle;
     private final int minExponentDigits;
+    private String xml;
 
     /**
      * Create a new number style with the name name, minimum integer digits is
@@ -65,10 +66,14 @@ public class ScientificNumberStyle implements DataStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final StringBuilder number = new StringBuilder();
-        this.appendNumber(util, number);
-        this.floatStyle.appendXMLHelper(util, appendable, "number-style", number);
-
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder number = new StringBuilder();
+            this.appendNumber(util, number);
+            final StringBuilder sb = new StringBuilder();
+            this.floatStyle.appendXMLHelper(util, sb, "number-style", number);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
     }
 
     @Override
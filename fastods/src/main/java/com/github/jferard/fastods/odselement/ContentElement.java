@@ -30,6 +30,7 @@ import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
+import com.github.jferard.fastods.util.MemoryBudget;
 import com.github.jferard.fastods.util.PilotTable;
 import com.github.jferard.fastods.util.UniqueList;
 import com.github.jferard.fastods.util.WriteUtil;
@@ -49,6 +50,36 @@ import java.util.zip.ZipEntry;
  * @author Martin Schulz
  */
 public class ContentElement implements OdsElement {
+    /**
+     * The namespaces of content.xml (and of flat XML documents)
+     */
+    static final String NAMESPACE_ATTRIBUTES =
+            "xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\" " +
+            "xmlns:style=\"urn:oasis:names:tc:opendocument:xmlns:style:1.0\" " +
+            "xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\" " +
+            "xmlns:table=\"urn:oasis:names:tc:opendocument:xmlns:table:1.0\" " +
+            "xmlns:draw=\"urn:oasis:names:tc:opendocument:xmlns:drawing:1.0\" " +
+            "xmlns:fo=\"urn:oasis:names:tc:opendocument:xmlns:xsl-fo-compatible:1.0\" " +
+            "xmlns:xlink=\"http://www.w3.org/1999/xlink\" " +
+            "xmlns:dc=\"http://purl.org/dc/elements/1.1/\" " +
+            "xmlns:meta=\"urn:oasis:names:tc:opendocument:xmlns:meta:1.0\" " +
+            "xmlns:number=\"urn:oasis:names:tc:opendocument:xmlns:datastyle:1.0\" " +
+            "xmlns:presentation=\"urn:oasis:names:tc:opendocument:xmlns:presentation:1.0\" " +
+            "xmlns:svg=\"urn:oasis:names:tc:opendocument:xmlns:svg-compatible:1.0\" " +
+            "xmlns:chart=\"urn:oasis:names:tc:opendocument:xmlns:chart:1.0\" " +
+            "xmlns:dr3d=\"urn:oasis:names:tc:opendocument:xmlns:dr3d:1.0\" " +
+            "xmlns:math=\"http://www.w3.org/1998/Math/MathML\" " +
+            "xmlns:form=\"urn:oasis:names:tc:opendocument:xmlns:form:1.0\" " +
+            "xmlns:script=\"urn:oasis:names:tc:opendocument:xmlns:script:1.0\" " +
+            "xmlns:ooo=\"http://openoffice.org/2004/office\" " +
+            "xmlns:ooow=\"http://openoffice.org/2004/writer\" " +
+            "xmlns:oooc=\"http://openoffice.org/2004/calc\" " +
+            "xmlns:dom=\"http://www.w3.org/2001/xml-events\" " +
+            "xmlns:xforms=\"http://www.w3.org/2002/xforms\" " +
+            "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" " +
+            "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" " +
+            "xmlns:of=\"urn:oasis:names:tc:opendocument:xmlns:of:1.2\" ";
+
     private final FlushPosition flushPosition;
     private final DataStyles format;
     private final PositionUtil positionUtil;
@@ -57,6 +88,7 @@ public class ContentElement implements OdsElement {
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final boolean libreOfficeMode;
+    private final MemoryBudget memoryBudget;
     private List<AutoFilter> autoFilters;
     private final List<ScriptEventListener> scriptEvents;
     private List<PilotTable> pilotTables;
@@ -72,6 +104,23 @@ public class ContentElement implements OdsElement {
     ContentElement(final PositionUtil positionUtil, final XMLUtil xmlUtil,
                    final WriteUtil writeUtil, final DataStyles format,
                    final boolean libreOfficeMode, final StylesContainerImpl stylesContainer) {
+        this(positionUtil, xmlUtil, writeUtil, format, libreOfficeMode, stylesContainer, null);
+    }
+
+    /**
+     * @param positionUtil    an util object for positions (e.g. "A1")
+     * @param xmlUtil         an util object to write xml
+     * @param writeUtil       an util to compute some data
+     * @param format          the format for data styles
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param stylesContainer a styles container.
+     * @param memoryBudget    the budget for the rows of the tables, or null
+     */
+    ContentElement(final PositionUtil positionUtil, final XMLUtil xmlUtil,
+                   final WriteUtil writeUtil, final DataStyles format,
+                   final boolean libreOfficeMode, final StylesContainerImpl stylesContainer,
+                   final MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
         this.writeUtil = writeUtil;
         this.xmlUtil = xmlUtil;
         this.positionUtil = positionUtil;
@@ -114,7 +163,7 @@ public class ContentElement implements OdsElement {
         if (table == null) {
             table = Table.create(this, this.positionUtil, this.writeUtil, this.xmlUtil, name,
                     rowCapacity, columnCapacity, this.stylesContainer, this.format,
-                    this.libreOfficeMode);
+                    this.libreOfficeMode, this.memoryBudget);
             this.tables.add(table);
         }
         return table;
@@ -167,11 +216,25 @@ public class ContentElement implements OdsElement {
 
     @Override
     public void write(final XMLUtil util, final ZipUTF8Writer writer) throws IOException {
-        this.writePreamble(util, writer);
+        boolean written = false;
+        try {
+            this.writePreamble(util, writer);
+            for (final Table table : this.tables) {
+                table.appendXMLToContentEntry(util, writer);
+            }
+            this.writePostamble(util, writer);
+            written = true;
+        } finally {
+            if (!written) {
+                this.deleteSpilledRows();
+            }
+        }
+    }
+
+    private void deleteSpilledRows() {
         for (final Table table : this.tables) {
-            table.appendXMLToContentEntry(util, writer);
+            table.deleteSpilledRows();
         }
-        this.writePostamble(util, writer);
     }
 
     /**
@@ -183,12 +246,7 @@ public class ContentElement implements OdsElement {
      * @throws IOException if the postamble could not be written
      */
     public void writePostamble(final XMLUtil util, final ZipUTF8Writer writer) throws IOException {
-        if (this.autoFilters != null) {
-            this.appendAutoFilters(util, writer);
-        }
-        if (this.pilotTables != null) {
-            this.appendPilotTables(util, writer);
-        }
+        this.appendRanges(util, writer);
         writer.write("</office:spreadsheet>");
         writer.write("</office:body>");
         writer.write("</office:document-content>");
@@ -196,6 +254,56 @@ public class ContentElement implements OdsElement {
         writer.closeEntry();
     }
 
+    private void appendRanges(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        if (this.autoFilters != null) {
+            this.appendAutoFilters(util, appendable);
+        }
+        if (this.pilotTables != null) {
+            this.appendPilotTables(util, appendable);
+        }
+    }
+
+    /**
+     * Append the office:body element. Used by flat XML documents.
+     *
+     * @param util       an XML util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendOfficeBody(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        appendable.append("<office:body>");
+        appendable.append("<office:spreadsheet>");
+        boolean written = false;
+        try {
+            for (final Table table : this.tables) {
+                table.appendXMLToContentEntry(util, appendable);
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                this.deleteSpilledRows();
+            }
+        }
+        this.appendRanges(util, appendable);
+        appendable.append("</office:spreadsheet>");
+        appendable.append("</office:body>");
+    }
+
+    /**
+     * Append the children of the office:automatic-styles element of content.xml.
+     *
+     * @param util       an XML util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendAutomaticStyles(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        this.stylesContainer.writeHiddenDataStyles(util, appendable);
+        this.stylesContainer.writeContentAutomaticStyles(util, appendable);
+    }
+
     /**
      * Write the preamble into the given writer. Used by the MetaAndStylesElementsFlusher and by
      * standard write method
@@ -207,41 +315,12 @@ public class ContentElement implements OdsElement {
     public void writePreamble(final XMLUtil util, final ZipUTF8Writer writer) throws IOException {
         writer.putNextEntry(new ZipEntry("content.xml"));
         writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-        writer.write(
-                "<office:document-content " +
-                        "xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\" " +
-                        "xmlns:style=\"urn:oasis:names:tc:opendocument:xmlns:style:1.0\" " +
-                        "xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\" " +
-                        "xmlns:table=\"urn:oasis:names:tc:opendocument:xmlns:table:1.0\" " +
-                        "xmlns:draw=\"urn:oasis:names:tc:opendocument:xmlns:drawing:1.0\" " +
-                        "xmlns:fo=\"urn:oasis:names:tc:opendocument:xmlns:xsl-fo-compatible:1.0\"" +
-                        " " +
-                        "xmlns:xlink=\"http://www.w3.org/1999/xlink\" " +
-                        "xmlns:dc=\"http://purl.org/dc/elements/1.1/\" " +
-                        "xmlns:meta=\"urn:oasis:names:tc:opendocument:xmlns:meta:1.0\" " +
-                        "xmlns:number=\"urn:oasis:names:tc:opendocument:xmlns:datastyle:1.0\" " +
-                        "xmlns:presentation=\"urn:oasis:names:tc:opendocument:xmlns:presentation" +
-                        ":1.0\" " +
-                        "xmlns:svg=\"urn:oasis:names:tc:opendocument:xmlns:svg-compatible:1.0\" " +
-                        "xmlns:chart=\"urn:oasis:names:tc:opendocument:xmlns:chart:1.0\" " +
-                        "xmlns:dr3d=\"urn:oasis:names:tc:opendocument:xmlns:dr3d:1.0\" " +
-                        "xmlns:math=\"http://www.w3.org/1998/Math/MathML\" " +
-                        "xmlns:form=\"urn:oasis:names:tc:opendocument:xmlns:form:1.0\" " +
-                        "xmlns:script=\"urn:oasis:names:tc:opendocument:xmlns:script:1.0\" " +
-                        "xmlns:ooo=\"http://openoffice.org/2004/office\" " +
-                        "xmlns:ooow=\"http://openoffice.org/2004/writer\" " +
-                        "xmlns:oooc=\"http://openoffice.org/2004/calc\" " +
-                        "xmlns:dom=\"http://www.w3.org/2001/xml-events\" " +
-                        "xmlns:xforms=\"http://www.w3.org/2002/xforms\" " +
-                        "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" " +
-                        "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" " +
-                        "xmlns:of=\"urn:oasis:names:tc:opendocument:xmlns:of:1.2\" " +
-                        "office:version=\"1.2\">");
+        writer.write("<office:document-content " + NAMESPACE_ATTRIBUTES +
+                "office:version=\"1.2\">");
         this.writeEvents(util, writer);
         this.stylesContainer.writeFontFaceDecls(util, writer);
         writer.write("<office:automatic-styles>");
-        this.stylesContainer.writeHiddenDataStyles(util, writer);
-        this.stylesContainer.writeContentAutomaticStyles(util, writer);
+        this.appendAutomaticStyles(util, writer);
         writer.write("</office:automatic-styles>");
         writer.write("<office:body>");
         writer.write("<office:spreadsheet>");
@@ -253,10 +332,33 @@ public class ContentElement implements OdsElement {
         }
 
         writer.write("<office:scripts><office:event-listeners>");
+        this.appendEventListeners(util, writer);
+        writer.write("</office:event-listeners></office:scripts>");
+    }
+
+    /**
+     * Append the office:scripts element, if there are some events. Used by flat XML documents.
+     *
+     * @param util       an XML util
+     * @param appendable the destination
+     * @throws IOException if the events were not written
+     */
+    public void appendOfficeScripts(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        if (this.scriptEvents.isEmpty()) {
+            return;
+        }
+
+        appendable.append("<office:scripts><office:event-listeners>");
+        this.appendEventListeners(util, appendable);
+        appendable.append("</office:event-listeners></office:scripts>");
+    }
+
+    private void appendEventListeners(final XMLUtil util, final Appendable appendable)
+            throws IOException {
         for (final ScriptEventListener event: this.scriptEvents) {
-            event.appendXMLContent(util, writer);
+            event.appendXMLContent(util, appendable);
         }
-        writer.write("</office:event-listeners></office:scripts>");
     }
 
     private void appendAutoFilters(final XMLUtil util, final Appendable appendable)
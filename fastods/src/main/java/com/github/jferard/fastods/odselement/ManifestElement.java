@@ -30,6 +30,7 @@ import com.github.jferard.fastods.util.ZipUTF8Writer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.zip.ZipEntry;
 
@@ -62,19 +63,53 @@ public class ManifestElement implements OdsElement {
                     new ManifestEntry("Thumbnails/", ""),
                     new ManifestEntry("Thumbnails/thumbnail.png", ""));
 
+    /**
+     * The default entries are the same for every document: they are serialized once.
+     */
+    private static final String RENDERED_ENTRIES =
+            ManifestElement.render(XMLUtil.create(), ManifestElement.ENTRIES);
+
     /**
      * @return a new ManifestElement
      */
     public static ManifestElement create() {
-        return new ManifestElement(ManifestElement.ENTRIES);
+        return new ManifestElement(ManifestElement.RENDERED_ENTRIES,
+                Collections.<ManifestEntry>emptyList());
+    }
+
+    /**
+     * @param util    an util
+     * @param entries the entries
+     * @return the XML representation of the entries
+     */
+    static String render(final XMLUtil util, final List<ManifestEntry> entries) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            for (final ManifestEntry entry : entries) {
+                entry.appendXMLContent(util, sb);
+            }
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+        return sb.toString();
     }
 
+    private final String renderedEntries;
     private final List<ManifestEntry> manifestEntries;
 
     /**
      * @param initialEntries the first entries
      */
     ManifestElement(final List<ManifestEntry> initialEntries) {
+        this("", initialEntries);
+    }
+
+    /**
+     * @param renderedEntries the first entries, already serialized
+     * @param initialEntries  the next entries
+     */
+    ManifestElement(final String renderedEntries, final List<ManifestEntry> initialEntries) {
+        this.renderedEntries = renderedEntries;
         this.manifestEntries = new ArrayList<ManifestEntry>(initialEntries);
     }
 
@@ -84,6 +119,7 @@ public class ManifestElement implements OdsElement {
         writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" +
                 "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
                 ":manifest:1.0\">");
+        writer.write(this.renderedEntries);
         for (final ManifestEntry entry : this.manifestEntries) {
             entry.appendXMLContent(util, writer);
         }
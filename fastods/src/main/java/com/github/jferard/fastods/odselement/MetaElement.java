@@ -46,6 +46,16 @@ public class MetaElement implements OdsElement {
      * the time format: 18:12:59
      */
     final static SimpleDateFormat DF_TIME = new SimpleDateFormat("HH:mm:ss");
+    /**
+     * the beginning of meta.xml, the same for every document
+     */
+    private static final String META_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<office:document-meta" +
+            " xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\"" +
+            " xmlns:xlink=\"http://www.w3.org/1999/xlink\"" +
+            " xmlns:dc=\"http://purl.org/dc/elements/1.1/\"" +
+            " xmlns:meta=\"urn:oasis:names:tc:opendocument:xmlns:meta:1.0\"" +
+            " xmlns:ooo=\"http://openoffice.org/2004/office\" office:version=\"1.2\">";
     private final String editingCycles;
     private final String editingDuration;
     private final String generator;
@@ -75,35 +85,37 @@ public class MetaElement implements OdsElement {
     @Override
     public void write(final XMLUtil util, final ZipUTF8Writer writer) throws IOException {
         writer.putNextEntry(new ZipEntry("meta.xml"));
-        writer.append("<?xml");
-        util.appendAttribute(writer, "version", "1.0");
-        util.appendAttribute(writer, "encoding", "UTF-8");
-        writer.append("?><office:document-meta");
-        util.appendAttribute(writer, "xmlns:office",
-                "urn:oasis:names:tc:opendocument:xmlns:office:1.0");
-        util.appendAttribute(writer, "xmlns:xlink", "http://www.w3.org/1999/xlink");
-        util.appendAttribute(writer, "xmlns:dc", "http://purl.org/dc/elements/1.1/");
-        util.appendAttribute(writer, "xmlns:meta",
-                "urn:oasis:names:tc:opendocument:xmlns:meta:1.0");
-        util.appendAttribute(writer, "xmlns:ooo", "http://openoffice.org/2004/office");
-        util.appendAttribute(writer, "office:version", "1.2");
-        writer.append("><office:meta>");
-        util.appendTag(writer, "meta:generator", this.generator);
-        util.appendTag(writer, "dc:creator", this.creator);
-        util.appendTag(writer, "dc:date", this.dateTime);
-        util.appendTag(writer, "meta:editing-cycles", this.editingCycles);
-        util.appendTag(writer, "meta:editing-duration", this.editingDuration);
-        writer.append("<meta:user-defined meta:name=\"Info 1\"/>")
+        writer.append(MetaElement.META_START);
+        this.appendOfficeMeta(util, writer);
+        writer.append("</office:document-meta>");
+        writer.flush();
+        writer.closeEntry();
+    }
+
+    /**
+     * Append the office:meta element. Used by meta.xml and by flat XML documents.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendOfficeMeta(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        appendable.append("<office:meta>");
+        util.appendTag(appendable, "meta:generator", this.generator);
+        util.appendTag(appendable, "dc:creator", this.creator);
+        util.appendTag(appendable, "dc:date", this.dateTime);
+        util.appendTag(appendable, "meta:editing-cycles", this.editingCycles);
+        util.appendTag(appendable, "meta:editing-duration", this.editingDuration);
+        appendable.append("<meta:user-defined meta:name=\"Info 1\"/>")
                 .append("<meta:user-defined meta:name=\"Info 2\"/>")
                 .append("<meta:user-defined meta:name=\"Info 3\"/>")
                 .append("<meta:user-defined meta:name=\"Info 4\"/>");
         // .append("<meta:document-statistic");
-        // util.appendAttribute(writer, "meta:table-count", this.tableCount);
-        // util.appendAttribute(writer, "meta:cell-count", this.cellCount);
-        // writer.append("/>")
-        writer.append("</office:meta>").append("</office:document-meta>");
-        writer.flush();
-        writer.closeEntry();
+        // util.appendAttribute(appendable, "meta:table-count", this.tableCount);
+        // util.appendAttribute(appendable, "meta:cell-count", this.cellCount);
+        // appendable.append("/>")
+        appendable.append("</office:meta>");
     }
 
     /**
@@ -44,13 +44,18 @@ import com.github.jferard.fastods.style.PageStyle;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
+import com.github.jferard.fastods.util.MemoryBudget;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.StoredEntry;
+import com.github.jferard.fastods.util.StoredEntryWriter;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -98,6 +103,22 @@ public class OdsElements implements StylesContainer {
     public static OdsElements create(final PositionUtil positionUtil, final XMLUtil xmlUtil,
                                      final WriteUtil writeUtil, final DataStyles format,
                                      final boolean libreOfficeMode) {
+        return OdsElements.create(positionUtil, xmlUtil, writeUtil, format, libreOfficeMode, null);
+    }
+
+    /**
+     * @param positionUtil    an util for cell addresses (e.g. "A1")
+     * @param xmlUtil         an XML util
+     * @param writeUtil       an util for write
+     * @param format          the data styles
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param memoryBudget    the budget for the rows of the tables, or null
+     * @return a new OdsElements, with newly build elements.
+     */
+    public static OdsElements create(final PositionUtil positionUtil, final XMLUtil xmlUtil,
+                                     final WriteUtil writeUtil, final DataStyles format,
+                                     final boolean libreOfficeMode,
+                                     final MemoryBudget memoryBudget) {
         final Logger logger = Logger.getLogger(OdsElements.class.getName());
         final MimetypeElement mimetypeElement = new MimetypeElement();
         final ManifestElement manifestElement = ManifestElement.create();
@@ -106,7 +127,7 @@ public class OdsElements implements StylesContainer {
         final StylesContainerImpl stylesContainer = new StylesContainerImpl(logger);
         final StylesElement stylesElement = new StylesElement(stylesContainer);
         final ContentElement contentElement = new ContentElement(positionUtil, xmlUtil, writeUtil,
-                format, libreOfficeMode, stylesContainer);
+                format, libreOfficeMode, stylesContainer, memoryBudget);
         return new OdsElements(logger, stylesContainer, mimetypeElement, manifestElement,
                 settingsElement, metaElement, contentElement, stylesElement);
     }
@@ -120,6 +141,7 @@ public class OdsElements implements StylesContainer {
     private final StylesContainerImpl stylesContainer;
     private final StylesElement stylesElement;
     private final Map<String, CharSequence> extraFileByName;
+    private final Map<String, StoredEntry> storedEntryByName;
     private NamedOdsFileWriter observer;
 
     /**
@@ -147,6 +169,7 @@ public class OdsElements implements StylesContainer {
         this.stylesElement = stylesElement;
         this.stylesContainer = stylesContainer;
         this.extraFileByName = new HashMap<String, CharSequence>();
+        this.storedEntryByName = new LinkedHashMap<String, StoredEntry>();
     }
 
     /**
@@ -384,6 +407,47 @@ public class OdsElements implements StylesContainer {
         this.settingsElement.write(xmlUtil, writer);
     }
 
+    /**
+     * Write the whole document as a flat XML document (.fods): a single office:document
+     * element with the meta, the settings, the styles and the body. The extra files (e.g. macro
+     * libraries) can't be part of a flat XML document and are ignored.
+     *
+     * @param xmlUtil    the xml util
+     * @param appendable the destination
+     * @throws IOException if write fails
+     */
+    public void writeFlat(final XMLUtil xmlUtil, final Appendable appendable)
+            throws IOException {
+        if (!this.extraFileByName.isEmpty()) {
+            this.logger.log(Level.WARNING, "Extra files are ignored in a flat XML document: {0}",
+                    this.extraFileByName.keySet());
+        }
+        if (!this.storedEntryByName.isEmpty()) {
+            this.logger.log(Level.WARNING,
+                    "Stored entries are ignored in a flat XML document: {0}",
+                    this.storedEntryByName.keySet());
+        }
+        this.logger.log(Level.FINER, "Writing flat ods document");
+        this.settingsElement.setTables(this.getTables());
+        appendable.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        appendable.append("<office:document ").append(ContentElement.NAMESPACE_ATTRIBUTES)
+                .append("xmlns:config=\"urn:oasis:names:tc:opendocument:xmlns:config:1.0\" ")
+                .append("office:version=\"1.2\" ")
+                .append("office:mimetype=\"application/vnd.oasis.opendocument.spreadsheet\">");
+        this.metaElement.appendOfficeMeta(xmlUtil, appendable);
+        this.settingsElement.appendOfficeSettings(xmlUtil, appendable);
+        this.contentElement.appendOfficeScripts(xmlUtil, appendable);
+        this.stylesContainer.writeFontFaceDecls(xmlUtil, appendable);
+        this.stylesElement.appendOfficeStyles(xmlUtil, appendable);
+        appendable.append("<office:automatic-styles>");
+        this.stylesElement.appendAutomaticStyles(xmlUtil, appendable);
+        this.contentElement.appendAutomaticStyles(xmlUtil, appendable);
+        appendable.append("</office:automatic-styles>");
+        this.stylesElement.appendOfficeMasterStyles(xmlUtil, appendable);
+        this.contentElement.appendOfficeBody(xmlUtil, appendable);
+        appendable.append("</office:document>");
+    }
+
     /**
      * Write the styles element to a writer.
      *
@@ -397,6 +461,56 @@ public class OdsElements implements StylesContainer {
     }
 
 
+    /**
+     * Remove the styles that are already declared in an existing document. Used when rows
+     * are appended to that document.
+     *
+     * @param objectStyleKeys the keys of the object styles (see ObjectStyle.getKey)
+     * @param dataStyleNames  the names of the data styles
+     */
+    public void removeStyles(final Collection<String> objectStyleKeys,
+                             final Collection<String> dataStyleNames) {
+        this.stylesContainer.removeStyles(objectStyleKeys, dataStyleNames);
+    }
+
+    /**
+     * Write the children of content.xml/office:automatic-styles.
+     *
+     * @param xmlUtil    the xml util
+     * @param appendable the destination
+     * @throws IOException if write fails
+     */
+    public void writeContentAutomaticStyles(final XMLUtil xmlUtil, final Appendable appendable)
+            throws IOException {
+        this.contentElement.appendAutomaticStyles(xmlUtil, appendable);
+    }
+
+    /**
+     * Write the children of styles.xml/office:styles.
+     *
+     * @param xmlUtil    the xml util
+     * @param appendable the destination
+     * @throws IOException if write fails
+     */
+    public void writeStylesCommonStyles(final XMLUtil xmlUtil, final Appendable appendable)
+            throws IOException {
+        this.stylesContainer.writeStylesCommonStyles(xmlUtil, appendable);
+        this.stylesContainer.writeVisibleDataStyles(xmlUtil, appendable);
+    }
+
+    /**
+     * Write the styles of styles.xml/office:automatic-styles, without the page layouts.
+     *
+     * @param xmlUtil    the xml util
+     * @param appendable the destination
+     * @throws IOException if write fails
+     */
+    public void writeStylesAutomaticStyles(final XMLUtil xmlUtil, final Appendable appendable)
+            throws IOException {
+        this.stylesContainer.writeStylesAutomaticStyles(xmlUtil, appendable);
+    }
+
+
     /**
      * Freeze cells. See https://help.libreoffice.org/Calc/Freezing_Rows_or_Columns_as_Headers
      *
@@ -491,6 +605,18 @@ public class OdsElements implements StylesContainer {
         this.manifestElement.add(manifestEntry);
     }
 
+    /**
+     * Add a stored (uncompressed) entry, that may be shared by a lot of documents.
+     *
+     * @param mediaType the MIME type
+     * @param entry     the entry
+     */
+    public void addStoredEntry(final String mediaType, final StoredEntry entry) {
+        final String fullPath = entry.getName();
+        this.storedEntryByName.put(fullPath, entry);
+        this.manifestElement.add(new ManifestEntry(fullPath, mediaType));
+    }
+
     /**
      * @param fullPath the path of the dir
      */
@@ -500,7 +626,8 @@ public class OdsElements implements StylesContainer {
     }
 
     /**
-     * @param writer write the extra files to the archive
+     * @param writer write the extra files to the archive. If there are stored entries, the
+     *               writer must be a {@link StoredEntryWriter}.
      * @throws IOException if something can"t be written
      */
     public void writeExtras(final ZipUTF8Writer writer) throws IOException {
@@ -512,6 +639,19 @@ public class OdsElements implements StylesContainer {
             writer.write(entry.getValue());
             writer.closeEntry();
         }
+        if (this.storedEntryByName.isEmpty()) {
+            return;
+        }
+        if (!(writer instanceof StoredEntryWriter)) {
+            throw new IOException("Can't write the stored entries " +
+                    this.storedEntryByName.keySet() + ": the writer doesn't accept them");
+        }
+        final StoredEntryWriter storedEntryWriter = (StoredEntryWriter) writer;
+        for (final StoredEntry entry : this.storedEntryByName.values()) {
+            this.logger.log(Level.FINEST, "Writing stored entry: {0} to zip file",
+                    entry.getName());
+            storedEntryWriter.writeStoredEntry(entry);
+        }
     }
 
     /**
@@ -551,4 +691,4 @@ public class OdsElements implements StylesContainer {
     public void addPilotTable(final PilotTable pilot) {
         this.contentElement.addPilotTable(pilot);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
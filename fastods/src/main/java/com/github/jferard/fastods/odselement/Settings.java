@@ -32,6 +32,8 @@ import com.github.jferard.fastods.odselement.config.ConfigItemMapEntrySet;
 import com.github.jferard.fastods.odselement.config.ConfigItemMapIndexed;
 import com.github.jferard.fastods.odselement.config.ConfigItemMapNamed;
 import com.github.jferard.fastods.odselement.config.ConfigItemSet;
+import com.github.jferard.fastods.odselement.config.RenderedConfigBlock;
+import com.github.jferard.fastods.util.XMLUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -57,6 +59,12 @@ import java.util.Map;
  * @author Martin Schulz
  */
 public class Settings {
+    /**
+     * The configuration settings are the same for every document: they are serialized once.
+     */
+    private static final ConfigBlock CONFIGURATION_SETTINGS = RenderedConfigBlock
+            .render(XMLUtil.create(), Settings.createConfigurationSettings());
+
     /**
      * @return a new settings representation
      */
@@ -99,6 +107,13 @@ public class Settings {
         firstView.add(ConfigItem.create(ConfigElement.PAGE_VIEW_ZOOM_VALUE, "60"));
         firstView.add(ConfigItem.create(ConfigElement.SHOW_PAGE_BREAK_PREVIEW, "false"));
 
+        return Settings.create(viewSettings, firstView, Settings.CONFIGURATION_SETTINGS);
+    }
+
+    /**
+     * @return the default configuration settings
+     */
+    static ConfigItemSet createConfigurationSettings() {
         final ConfigItemSet configurationSettings = new ConfigItemSet("ooo:configuration-settings");
 
         // com.sun.star.sheet.SpreadsheetViewSettings
@@ -136,8 +151,7 @@ public class Settings {
         // undocumented unonames.hxx
         configurationSettings.add(ConfigItem.create(ConfigElement.ALLOW_PRINT_JOB_CANCEL, "true"));
         configurationSettings.add(ConfigItem.create(ConfigElement.LOAD_READONLY, "false"));
-
-        return Settings.create(viewSettings, firstView, configurationSettings);
+        return configurationSettings;
     }
 
     /**
@@ -149,7 +163,7 @@ public class Settings {
      * @return the settings representation
      */
     static Settings create(final ConfigItemSet viewSettings, final ConfigItemMapEntrySet firstView,
-                           final ConfigItemSet configurationSettings) {
+                           final ConfigBlock configurationSettings) {
         final List<ConfigBlock> rootBlocks = new ArrayList<ConfigBlock>();
         final ConfigItemMapIndexed views = new ConfigItemMapIndexed("Views");
         final Map<String, ConfigItemMapEntrySet> viewById = new HashMap<String,
@@ -179,7 +193,7 @@ public class Settings {
     Settings(final List<ConfigBlock> rootBlocks, final ConfigItemSet viewSettings,
              final ConfigItemMapIndexed views, final Map<String, ConfigItemMapEntrySet> viewById,
              final ConfigItemMapEntrySet firstView, final ConfigItemMapNamed tablesMap,
-             final ConfigItemSet configurationSettings) {
+             final ConfigBlock configurationSettings) {
         this.rootBlocks = rootBlocks;
         this.viewById = viewById;
         this.firstView = firstView;
@@ -40,6 +40,7 @@ import com.github.jferard.fastods.util.MultiContainer;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -255,6 +256,23 @@ public class StylesContainerImpl implements StylesContainer {
         }
     }
 
+    /**
+     * Remove the styles that are already declared in an existing document. Used when rows
+     * are appended to that document.
+     *
+     * @param objectStyleKeys the keys of the object styles (see ObjectStyle.getKey)
+     * @param dataStyleNames  the names of the data styles
+     */
+    public void removeStyles(final Collection<String> objectStyleKeys,
+                             final Collection<String> dataStyleNames) {
+        for (final String key : objectStyleKeys) {
+            this.objectStylesContainer.remove(key);
+        }
+        for (final String name : dataStyleNames) {
+            this.dataStylesContainer.remove(name);
+        }
+    }
+
     /**
      * Enable debug mode
      */
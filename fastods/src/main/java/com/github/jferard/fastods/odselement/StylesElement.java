@@ -68,8 +68,6 @@ public class StylesElement implements OdsElement {
 
     @Override
     public void write(final XMLUtil util, final ZipUTF8Writer writer) throws IOException {
-        final HasFooterHeader hasFooterHeader = this.stylesContainer.hasFooterHeader();
-
         writer.putNextEntry(new ZipEntry("styles.xml"));
         writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
         writer.write(
@@ -95,31 +93,65 @@ public class StylesElement implements OdsElement {
                         "xmlns:oooc=\"http://openoffice.org/2004/calc\" xmlns:dom=\"http://www.w3" +
                         ".org/2001/xml-events\" office:version=\"1.1\">");
         this.stylesContainer.writeFontFaceDecls(util, writer);
-        writer.write("<office:styles>");
-        this.stylesContainer.writeStylesCommonStyles(util, writer); // table-cell
-        this.stylesContainer.writeVisibleDataStyles(util, writer); // table-cell
+        this.appendOfficeStyles(util, writer);
+        writer.write("<office:automatic-styles>");
+        this.appendAutomaticStyles(util, writer);
+        writer.write("</office:automatic-styles>");
+        this.appendOfficeMasterStyles(util, writer);
+        writer.write("</office:document-styles>");
+        writer.flush();
+        writer.closeEntry();
+    }
+
+    /**
+     * Append the office:styles element. Used by styles.xml and by flat XML documents.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendOfficeStyles(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        final HasFooterHeader hasFooterHeader = this.stylesContainer.hasFooterHeader();
+
+        appendable.append("<office:styles>");
+        this.stylesContainer.writeStylesCommonStyles(util, appendable); // table-cell
+        this.stylesContainer.writeVisibleDataStyles(util, appendable); // table-cell
 
         if (hasFooterHeader.hasHeader()) {
-            StylesElement.appendDefaultFooterHeaderStyle(util, writer, "Header");
+            StylesElement.appendDefaultFooterHeaderStyle(util, appendable, "Header");
         }
         if (hasFooterHeader.hasFooter()) {
-            StylesElement.appendDefaultFooterHeaderStyle(util, writer, "Footer");
+            StylesElement.appendDefaultFooterHeaderStyle(util, appendable, "Footer");
         }
 
-        writer.write("</office:styles>");
-        writer.write("<office:automatic-styles>");
-
-        this.stylesContainer.writeStylesAutomaticStyles(util, writer);
-        this.stylesContainer.writePageLayoutStyles(util, writer);
-
-        writer.write("</office:automatic-styles>");
-        writer.write("<office:master-styles>");
+        appendable.append("</office:styles>");
+    }
 
-        this.stylesContainer.writeMasterPageStyles(util, writer);
+    /**
+     * Append the children of the office:automatic-styles element of styles.xml.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendAutomaticStyles(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        this.stylesContainer.writeStylesAutomaticStyles(util, appendable);
+        this.stylesContainer.writePageLayoutStyles(util, appendable);
+    }
 
-        writer.write("</office:master-styles>");
-        writer.write("</office:document-styles>");
-        writer.flush();
-        writer.closeEntry();
+    /**
+     * Append the office:master-styles element. Used by styles.xml and by flat XML documents.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendOfficeMasterStyles(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        appendable.append("<office:master-styles>");
+        this.stylesContainer.writeMasterPageStyles(util, appendable);
+        appendable.append("</office:master-styles>");
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.odselement.config;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+
+/**
+ * A config block that was serialized once: the XML is appended verbatim. Used for the invariant
+ * parts of settings.xml, that are identical in every document.
+ *
+ * @author Julien Férard
+ */
+public class RenderedConfigBlock implements ConfigBlock {
+    /**
+     * @param util  an util
+     * @param block the block to serialize
+     * @return the serialized block
+     */
+    public static RenderedConfigBlock render(final XMLUtil util, final ConfigBlock block) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            block.appendXMLContent(util, sb);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+        return new RenderedConfigBlock(block.getName(), sb.toString());
+    }
+
+    private final String name;
+    private final String xml;
+
+    /**
+     * @param name the name of the block
+     * @param xml  the serialized block
+     */
+    RenderedConfigBlock(final String name, final String xml) {
+        this.name = name;
+        this.xml = xml;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public void appendXMLContent(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        appendable.append(this.xml);
+    }
+}
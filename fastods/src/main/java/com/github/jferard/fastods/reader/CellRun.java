@@ -0,0 +1,249 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import com.github.jferard.fastods.attribute.CellType;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A run of identical cells in a row (9.1.4 table:table-cell with a
+ * table:number-columns-repeated attribute). Instances are reused from one row to the next.
+ *
+ * @author Julien Férard
+ */
+class CellRun {
+    private static final Map<String, CellType> TYPE_BY_VALUE_TYPE;
+
+    static {
+        TYPE_BY_VALUE_TYPE = new HashMap<String, CellType>();
+        for (final CellType type : CellType.values()) {
+            TYPE_BY_VALUE_TYPE.put(type.getValue(), type);
+        }
+    }
+
+    /**
+     * @param type the type of the cell
+     * @return the local name of the attribute that holds the value (19.386 - 19.389)
+     */
+    private static String getValueAttributeName(final CellType type) {
+        switch (type) {
+            case BOOLEAN:
+                return "boolean-value";
+            case DATE:
+                return "date-value";
+            case STRING:
+                return "string-value";
+            case TIME:
+                return "time-value";
+            default:
+                return "value";
+        }
+    }
+
+    private int repeat;
+    private boolean covered;
+    private String styleName;
+    private CellType type;
+    private String value;
+    private String currency;
+    private String formula;
+    private String text;
+    private int columnsSpanned;
+    private int rowsSpanned;
+
+    /**
+     * Read a cell element and its content.
+     *
+     * @param reader      the reader, on the START_ELEMENT event of a table:table-cell or a
+     *                    table:covered-table-cell. After the call, the reader is on the matching
+     *                    END_ELEMENT event.
+     * @param textBuilder a reusable builder for the text
+     * @throws XMLStreamException if the XML is not well formed
+     */
+    void read(final XMLStreamReader reader, final StringBuilder textBuilder)
+            throws XMLStreamException {
+        this.covered = "covered-table-cell".equals(reader.getLocalName());
+        this.repeat = StAXUtil
+                .getIntAttribute(reader, StAXUtil.TABLE_NS, "number-columns-repeated", 1);
+        this.styleName = reader.getAttributeValue(StAXUtil.TABLE_NS, "style-name");
+        final String valueType = reader.getAttributeValue(StAXUtil.OFFICE_NS, "value-type");
+        if (valueType == null) {
+            this.type = null;
+            this.value = null;
+        } else {
+            this.type = TYPE_BY_VALUE_TYPE.get(valueType);
+            this.value = this.type == null ? null : reader
+                    .getAttributeValue(StAXUtil.OFFICE_NS, getValueAttributeName(this.type));
+        }
+        this.currency = reader.getAttributeValue(StAXUtil.OFFICE_NS, "currency");
+        this.formula = reader.getAttributeValue(StAXUtil.TABLE_NS, "formula");
+        this.columnsSpanned = StAXUtil
+                .getIntAttribute(reader, StAXUtil.TABLE_NS, "number-columns-spanned", 0);
+        this.rowsSpanned = StAXUtil
+                .getIntAttribute(reader, StAXUtil.TABLE_NS, "number-rows-spanned", 0);
+        this.text = this.readText(reader, textBuilder);
+    }
+
+    private String readText(final XMLStreamReader reader, final StringBuilder textBuilder)
+            throws XMLStreamException {
+        textBuilder.setLength(0);
+        boolean hasParagraph = false;
+        while (true) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (StAXUtil.is(reader, StAXUtil.TEXT_NS, "p") ||
+                    StAXUtil.is(reader, StAXUtil.TEXT_NS, "h")) {
+                if (hasParagraph) {
+                    textBuilder.append('\n');
+                }
+                hasParagraph = true;
+                this.readParagraph(reader, textBuilder);
+            } else { // office:annotation, draw:frame, ...
+                StAXUtil.skipElement(reader);
+            }
+        }
+        return hasParagraph ? textBuilder.toString() : null;
+    }
+
+    private void readParagraph(final XMLStreamReader reader, final StringBuilder textBuilder)
+            throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    textBuilder.append(reader.getTextCharacters(), reader.getTextStart(),
+                            reader.getTextLength());
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    if (StAXUtil.is(reader, StAXUtil.TEXT_NS, "s")) {
+                        final int c = StAXUtil.getIntAttribute(reader, StAXUtil.TEXT_NS, "c", 1);
+                        for (int i = 0; i < c; i++) {
+                            textBuilder.append(' ');
+                        }
+                        StAXUtil.skipElement(reader);
+                    } else if (StAXUtil.is(reader, StAXUtil.TEXT_NS, "tab")) {
+                        textBuilder.append('\t');
+                        StAXUtil.skipElement(reader);
+                    } else if (StAXUtil.is(reader, StAXUtil.TEXT_NS, "line-break")) {
+                        textBuilder.append('\n');
+                        StAXUtil.skipElement(reader);
+                    } else if (StAXUtil.is(reader, StAXUtil.TEXT_NS, "note") ||
+                            StAXUtil.is(reader, StAXUtil.OFFICE_NS, "annotation")) {
+                        StAXUtil.skipElement(reader);
+                    } else { // text:span, text:a, ...: keep the text
+                        depth++;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return the number of repeated cells in this run, >= 1
+     */
+    int getRepeat() {
+        return this.repeat;
+    }
+
+    /**
+     * @return true if the cells are covered
+     */
+    boolean isCovered() {
+        return this.covered;
+    }
+
+    /**
+     * @return the table:style-name attribute or null
+     */
+    String getStyleName() {
+        return this.styleName;
+    }
+
+    /**
+     * @return the type or null
+     */
+    CellType getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the raw value or null
+     */
+    String getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return the currency or null
+     */
+    String getCurrency() {
+        return this.currency;
+    }
+
+    /**
+     * @return the formula or null
+     */
+    String getFormula() {
+        return this.formula;
+    }
+
+    /**
+     * @return the text or null
+     */
+    String getText() {
+        return this.text;
+    }
+
+    /**
+     * @return the table:number-columns-spanned attribute or 0
+     */
+    int getColumnsSpanned() {
+        return this.columnsSpanned;
+    }
+
+    /**
+     * @return the table:number-rows-spanned attribute or 0
+     */
+    int getRowsSpanned() {
+        return this.rowsSpanned;
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A pull reader for ODS files. content.xml is streamed from the archive with StAX: only the
+ * current row is kept in memory, and repeated rows and cells (table:number-rows-repeated,
+ * table:number-columns-repeated) are expanded lazily. Styles are resolved on demand.
+ * <p>
+ * <pre>
+ * final OdsStreamReader reader = OdsStreamReader.open(file);
+ * try {
+ *     while (reader.nextTable()) {
+ *         while (reader.nextRow()) {
+ *             while (reader.nextCell()) {
+ *                 final ReadCell cell = reader.getCell();
+ *                 ...
+ *             }
+ *         }
+ *     }
+ * } finally {
+ *     reader.close();
+ * }
+ * </pre>
+ *
+ * @author Julien Férard
+ */
+public class OdsStreamReader implements Closeable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Open an ODS file
+     *
+     * @param file the file
+     * @return the reader, positioned before the first table
+     * @throws IOException if the file is not a valid archive or has no content.xml
+     */
+    public static OdsStreamReader open(final File file) throws IOException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            final ZipEntry entry = zipFile.getEntry("content.xml");
+            if (entry == null) {
+                throw new IOException("No content.xml in " + file);
+            }
+            final InputStream in = zipFile.getInputStream(entry);
+            final XMLStreamReader reader = factory.createXMLStreamReader(in, "UTF-8");
+            return new OdsStreamReader(zipFile, in, reader, new StyleResolver(factory, zipFile));
+        } catch (final XMLStreamException e) {
+            zipFile.close();
+            throw new IOException(e);
+        } catch (final IOException e) {
+            zipFile.close();
+            throw e;
+        }
+    }
+
+    private final ZipFile zipFile;
+    private final InputStream in;
+    private final XMLStreamReader reader;
+    private final StyleResolver resolver;
+    private final List<CellRun> cellRuns;
+    private final ReadCell cell;
+    private final StringBuilder textBuilder;
+    private int[] columnRepeats;
+    private String[] columnDefaultCellStyleNames;
+    private int columnRunCount;
+    private String tableName;
+    private boolean inTable;
+    private boolean rowStartPending;
+    private int rowIndex;
+    private int rowRepeatLeft;
+    private String rowStyleName;
+    private String rowDefaultCellStyleName;
+    private int cellRunCount;
+    private int cellRunIndex;
+    private int cellRepeatLeft;
+    private int columnIndex;
+    private int columnRunIndex;
+    private int columnRepeatLeft;
+
+    /**
+     * @param zipFile  the archive
+     * @param in       the content.xml stream
+     * @param reader   the StAX reader on content.xml
+     * @param resolver the style resolver
+     */
+    OdsStreamReader(final ZipFile zipFile, final InputStream in, final XMLStreamReader reader,
+                    final StyleResolver resolver) {
+        this.zipFile = zipFile;
+        this.in = in;
+        this.reader = reader;
+        this.resolver = resolver;
+        this.cellRuns = new ArrayList<CellRun>();
+        this.cell = new ReadCell(resolver);
+        this.textBuilder = new StringBuilder();
+        this.columnRepeats = new int[DEFAULT_CAPACITY];
+        this.columnDefaultCellStyleNames = new String[DEFAULT_CAPACITY];
+        this.inTable = false;
+    }
+
+    /**
+     * Move to the next table. The remaining rows of the current table are skipped.
+     *
+     * @return true if there is a table, false if the end of the document was reached
+     * @throws IOException if the XML can't be read
+     */
+    public boolean nextTable() throws IOException {
+        try {
+            if (this.inTable) {
+                this.skipToTableEnd();
+            }
+            while (this.reader.hasNext()) {
+                if (this.reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    if (StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table")) {
+                        this.beginTable();
+                        return true;
+                    }
+                    this.resolver.register(this.reader);
+                }
+            }
+            return false;
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void skipToTableEnd() throws XMLStreamException {
+        if (this.rowStartPending) {
+            StAXUtil.skipElement(this.reader);
+        }
+        int depth = 1;
+        while (depth > 0) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT &&
+                    StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table")) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT &&
+                    StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table")) {
+                depth--;
+            }
+        }
+        this.endTable();
+    }
+
+    private void beginTable() throws XMLStreamException {
+        this.tableName = this.reader.getAttributeValue(StAXUtil.TABLE_NS, "name");
+        this.inTable = true;
+        this.rowStartPending = false;
+        this.rowIndex = -1;
+        this.rowRepeatLeft = 0;
+        this.cellRunCount = 0;
+        this.columnRunCount = 0;
+        this.moveToNextRow();
+        if (this.inTable) {
+            this.rowStartPending = true;
+        }
+    }
+
+    private void endTable() {
+        this.inTable = false;
+        this.rowStartPending = false;
+        this.rowRepeatLeft = 0;
+        this.cellRunCount = 0;
+    }
+
+    /**
+     * Move the reader to the next table:table-row start or to the end of the table.
+     * The columns met on the way are registered.
+     *
+     * @return true if a row was found
+     */
+    private boolean moveToNextRow() throws XMLStreamException {
+        while (true) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table-row")) {
+                    return true;
+                } else if (StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table-column")) {
+                    this.addColumnRun();
+                } else if (StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table")) {
+                    StAXUtil.skipElement(this.reader); // a nested table
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT &&
+                    StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table")) {
+                this.endTable();
+                return false;
+            }
+        }
+    }
+
+    private void addColumnRun() {
+        if (this.columnRunCount == this.columnRepeats.length) {
+            final int newLength = this.columnRunCount * 2;
+            this.columnRepeats = Arrays.copyOf(this.columnRepeats, newLength);
+            this.columnDefaultCellStyleNames = Arrays
+                    .copyOf(this.columnDefaultCellStyleNames, newLength);
+        }
+        this.columnRepeats[this.columnRunCount] = StAXUtil
+                .getIntAttribute(this.reader, StAXUtil.TABLE_NS, "number-columns-repeated", 1);
+        this.columnDefaultCellStyleNames[this.columnRunCount] = this.reader
+                .getAttributeValue(StAXUtil.TABLE_NS, "default-cell-style-name");
+        this.columnRunCount++;
+    }
+
+    /**
+     * @return the name of the current table
+     */
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Move to the next row of the current table. A row with a table:number-rows-repeated
+     * attribute is returned as many times as it is repeated.
+     *
+     * @return true if there is a row, false if the end of the table was reached
+     * @throws IOException if the XML can't be read
+     */
+    public boolean nextRow() throws IOException {
+        if (!this.inTable) {
+            return false;
+        }
+        if (this.rowRepeatLeft > 0) {
+            this.rowRepeatLeft--;
+            this.rowIndex++;
+            this.resetCellCursor();
+            return true;
+        }
+        try {
+            if (!this.rowStartPending && !this.moveToNextRow()) {
+                return false;
+            }
+            this.rowStartPending = false;
+            this.readRow();
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
+        return true;
+    }
+
+    private void readRow() throws XMLStreamException {
+        this.rowRepeatLeft = StAXUtil
+                .getIntAttribute(this.reader, StAXUtil.TABLE_NS, "number-rows-repeated", 1) - 1;
+        this.rowStyleName = this.reader.getAttributeValue(StAXUtil.TABLE_NS, "style-name");
+        this.rowDefaultCellStyleName = this.reader
+                .getAttributeValue(StAXUtil.TABLE_NS, "default-cell-style-name");
+        this.rowIndex++;
+        this.cellRunCount = 0;
+        while (true) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "table-cell") ||
+                    StAXUtil.is(this.reader, StAXUtil.TABLE_NS, "covered-table-cell")) {
+                this.nextCellRun().read(this.reader, this.textBuilder);
+            } else {
+                StAXUtil.skipElement(this.reader);
+            }
+        }
+        this.resetCellCursor();
+    }
+
+    private CellRun nextCellRun() {
+        final CellRun run;
+        if (this.cellRunCount < this.cellRuns.size()) {
+            run = this.cellRuns.get(this.cellRunCount);
+        } else {
+            run = new CellRun();
+            this.cellRuns.add(run);
+        }
+        this.cellRunCount++;
+        return run;
+    }
+
+    private void resetCellCursor() {
+        this.cellRunIndex = -1;
+        this.cellRepeatLeft = 0;
+        this.columnIndex = -1;
+        this.columnRunIndex = -1;
+        this.columnRepeatLeft = 0;
+    }
+
+    /**
+     * @return the index of the current row (0..)
+     */
+    public int getRowIndex() {
+        return this.rowIndex;
+    }
+
+    /**
+     * @return the style of the current row or null
+     */
+    public String getRowStyleName() {
+        return this.rowStyleName;
+    }
+
+    /**
+     * Move to the next cell of the current row. A cell with a table:number-columns-repeated
+     * attribute is returned as many times as it is repeated.
+     *
+     * @return true if there is a cell, false if the end of the row was reached
+     */
+    public boolean nextCell() {
+        if (this.cellRepeatLeft > 0) {
+            this.cellRepeatLeft--;
+        } else {
+            this.cellRunIndex++;
+            if (this.cellRunIndex >= this.cellRunCount) {
+                return false;
+            }
+            this.cellRepeatLeft = this.cellRuns.get(this.cellRunIndex).getRepeat() - 1;
+        }
+        this.columnIndex++;
+        final CellRun run = this.cellRuns.get(this.cellRunIndex);
+        this.cell.set(run, this.rowIndex, this.columnIndex, this.getEffectiveStyleName(run));
+        return true;
+    }
+
+    private String getEffectiveStyleName(final CellRun run) {
+        final String columnDefaultCellStyleName = this.nextColumnDefaultCellStyleName();
+        String styleName = run.getStyleName();
+        if (styleName == null) {
+            styleName = this.rowDefaultCellStyleName;
+            if (styleName == null) {
+                styleName = columnDefaultCellStyleName;
+            }
+        }
+        return styleName;
+    }
+
+    private String nextColumnDefaultCellStyleName() {
+        if (this.columnRepeatLeft > 0) {
+            this.columnRepeatLeft--;
+        } else {
+            this.columnRunIndex++;
+            if (this.columnRunIndex >= this.columnRunCount) {
+                return null;
+            }
+            this.columnRepeatLeft = this.columnRepeats[this.columnRunIndex] - 1;
+        }
+        return this.columnDefaultCellStyleNames[this.columnRunIndex];
+    }
+
+    /**
+     * @return the cursor on the current cell. The instance is the same for every cell.
+     */
+    public ReadCell getCell() {
+        return this.cell;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.reader.close();
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            this.in.close();
+            this.zipFile.close();
+        }
+    }
+}
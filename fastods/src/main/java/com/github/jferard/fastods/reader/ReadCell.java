@@ -0,0 +1,192 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import com.github.jferard.fastods.attribute.CellType;
+
+import java.io.IOException;
+
+/**
+ * A cursor on the current cell of an OdsStreamReader. The same instance is reused for every
+ * cell: copy the values you need before calling OdsStreamReader.nextCell again.
+ *
+ * @author Julien Férard
+ */
+public class ReadCell {
+    private final StyleResolver resolver;
+    private CellRun run;
+    private int rowIndex;
+    private int columnIndex;
+    private String styleName;
+
+    /**
+     * @param resolver the resolver for data styles
+     */
+    ReadCell(final StyleResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Move the cursor
+     *
+     * @param run         the current run
+     * @param rowIndex    the index of the row
+     * @param columnIndex the index of the column
+     * @param styleName   the effective style name (cell, row default or column default)
+     */
+    void set(final CellRun run, final int rowIndex, final int columnIndex,
+             final String styleName) {
+        this.run = run;
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.styleName = styleName;
+    }
+
+    /**
+     * @return the index of the row (0..)
+     */
+    public int getRowIndex() {
+        return this.rowIndex;
+    }
+
+    /**
+     * @return the index of the column (0..)
+     */
+    public int getColumnIndex() {
+        return this.columnIndex;
+    }
+
+    /**
+     * @return true if the cell has no value, no text and no formula
+     */
+    public boolean isEmpty() {
+        return this.run.getType() == null && this.run.getText() == null &&
+                this.run.getFormula() == null;
+    }
+
+    /**
+     * 9.1.5 table:covered-table-cell
+     *
+     * @return true if the cell is covered by a span
+     */
+    public boolean isCovered() {
+        return this.run.isCovered();
+    }
+
+    /**
+     * 19.385 office:value-type
+     *
+     * @return the type of the cell or null
+     */
+    public CellType getType() {
+        return this.run.getType();
+    }
+
+    /**
+     * @return the value as written in the file (office:value, office:date-value, ...). For a
+     * string cell without office:string-value, the text of the cell.
+     */
+    public String getValue() {
+        final String value = this.run.getValue();
+        if (value == null && this.run.getType() == CellType.STRING) {
+            return this.run.getText();
+        }
+        return value;
+    }
+
+    /**
+     * @return the text of the cell (paragraphs are separated by a new line). For a string cell
+     * without text, the office:string-value. Otherwise null.
+     */
+    public String getText() {
+        final String text = this.run.getText();
+        if (text == null && this.run.getType() == CellType.STRING) {
+            return this.run.getValue();
+        }
+        return text;
+    }
+
+    /**
+     * @return the currency (see 19.369 office:currency) or null
+     */
+    public String getCurrency() {
+        return this.run.getCurrency();
+    }
+
+    /**
+     * @return the formula (19.642 table:formula) or null
+     */
+    public String getFormula() {
+        return this.run.getFormula();
+    }
+
+    /**
+     * @return the number of columns spanned, 0 if none
+     */
+    public int getColumnsSpanned() {
+        return this.run.getColumnsSpanned();
+    }
+
+    /**
+     * @return the number of rows spanned, 0 if none
+     */
+    public int getRowsSpanned() {
+        return this.run.getRowsSpanned();
+    }
+
+    /**
+     * @return the style of the cell, or the default cell style of the row or column, or null
+     */
+    public String getStyleName() {
+        return this.styleName;
+    }
+
+    /**
+     * Resolve the data style. May trigger the parsing of styles.xml.
+     *
+     * @return the name of the data style, or null
+     * @throws IOException if styles.xml can't be read
+     */
+    public String getDataStyleName() throws IOException {
+        if (this.styleName == null) {
+            return null;
+        }
+        return this.resolver.getDataStyleName(this.styleName);
+    }
+
+    /**
+     * Resolve the data style. May trigger the parsing of styles.xml.
+     *
+     * @return the kind of the data style ("number-style", "currency-style", "date-style", ...),
+     * or null
+     * @throws IOException if styles.xml can't be read
+     */
+    public String getDataStyleKind() throws IOException {
+        final String dataStyleName = this.getDataStyleName();
+        if (dataStyleName == null) {
+            return null;
+        }
+        return this.resolver.getDataStyleKind(dataStyleName);
+    }
+}
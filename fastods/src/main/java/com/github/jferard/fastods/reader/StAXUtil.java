@@ -0,0 +1,97 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * An util for the StAX parsing of the ODS entries.
+ *
+ * @author Julien Férard
+ */
+final class StAXUtil {
+    /**
+     * urn:oasis:names:tc:opendocument:xmlns:office:1.0
+     */
+    static final String OFFICE_NS = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    /**
+     * urn:oasis:names:tc:opendocument:xmlns:table:1.0
+     */
+    static final String TABLE_NS = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    /**
+     * urn:oasis:names:tc:opendocument:xmlns:text:1.0
+     */
+    static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+
+    private StAXUtil() {}
+
+    /**
+     * @param reader       the reader, on a START_ELEMENT event
+     * @param namespaceURI the namespace
+     * @param localName    the local name
+     * @return true if the current element has this name
+     */
+    static boolean is(final XMLStreamReader reader, final String namespaceURI,
+                      final String localName) {
+        return localName.equals(reader.getLocalName()) &&
+                namespaceURI.equals(reader.getNamespaceURI());
+    }
+
+    /**
+     * @param reader       the reader, on a START_ELEMENT event
+     * @param namespaceURI the namespace of the attribute
+     * @param localName    the local name of the attribute
+     * @param defaultValue the value if the attribute is absent
+     * @return the value of the attribute as an int
+     */
+    static int getIntAttribute(final XMLStreamReader reader, final String namespaceURI,
+                               final String localName, final int defaultValue) {
+        final String value = reader.getAttributeValue(namespaceURI, localName);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * Skip the current element and its descendants.
+     *
+     * @param reader the reader, on a START_ELEMENT event. After the call, the reader is on the
+     *               matching END_ELEMENT event.
+     * @throws XMLStreamException if the XML is not well formed
+     */
+    static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
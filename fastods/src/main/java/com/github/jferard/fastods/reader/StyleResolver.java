@@ -0,0 +1,170 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Resolves the cell styles and data styles of a document. The automatic styles of content.xml
+ * are registered while the content is streamed; styles.xml is parsed on demand, the first time
+ * a style is not found among the automatic styles.
+ *
+ * @author Julien Férard
+ */
+class StyleResolver {
+    private static final String STYLE_NS = "urn:oasis:names:tc:opendocument:xmlns:style:1.0";
+    private static final String NUMBER_NS =
+            "urn:oasis:names:tc:opendocument:xmlns:datastyle:1.0";
+
+    /**
+     * A style:style element, reduced to what is needed to find the data style.
+     */
+    private static class CellStyleEntry {
+        private final String parentName;
+        private final String dataStyleName;
+
+        CellStyleEntry(final String parentName, final String dataStyleName) {
+            this.parentName = parentName;
+            this.dataStyleName = dataStyleName;
+        }
+    }
+
+    private final XMLInputFactory factory;
+    private final ZipFile zipFile;
+    private final Map<String, CellStyleEntry> cellStyleByName;
+    private final Map<String, String> dataStyleKindByName;
+    private boolean stylesLoaded;
+
+    /**
+     * @param factory the StAX factory
+     * @param zipFile the ods file, to find styles.xml
+     */
+    StyleResolver(final XMLInputFactory factory, final ZipFile zipFile) {
+        this.factory = factory;
+        this.zipFile = zipFile;
+        this.cellStyleByName = new HashMap<String, CellStyleEntry>();
+        this.dataStyleKindByName = new HashMap<String, String>();
+        this.stylesLoaded = false;
+    }
+
+    /**
+     * Register the current element if it is a style or a data style. The reader is not moved.
+     *
+     * @param reader the reader, on a START_ELEMENT event
+     */
+    void register(final XMLStreamReader reader) {
+        final String namespaceURI = reader.getNamespaceURI();
+        final String name = reader.getAttributeValue(STYLE_NS, "name");
+        if (name == null) {
+            return;
+        }
+        if (STYLE_NS.equals(namespaceURI)) {
+            if ("style".equals(reader.getLocalName()) &&
+                    "table-cell".equals(reader.getAttributeValue(STYLE_NS, "family"))) {
+                this.cellStyleByName.put(name,
+                        new CellStyleEntry(reader.getAttributeValue(STYLE_NS, "parent-style-name"),
+                                reader.getAttributeValue(STYLE_NS, "data-style-name")));
+            }
+        } else if (NUMBER_NS.equals(namespaceURI)) {
+            this.dataStyleKindByName.put(name, reader.getLocalName());
+        }
+    }
+
+    /**
+     * @param cellStyleName the name of a cell style
+     * @return the name of the data style, found in the style or one of its ancestors, or null.
+     * @throws IOException if styles.xml can't be read
+     */
+    String getDataStyleName(final String cellStyleName) throws IOException {
+        String name = cellStyleName;
+        while (name != null) {
+            final CellStyleEntry entry = this.getCellStyle(name);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.dataStyleName != null) {
+                return entry.dataStyleName;
+            }
+            name = entry.parentName;
+        }
+        return null;
+    }
+
+    /**
+     * @param dataStyleName the name of a data style
+     * @return the kind of data style, e.g. "number-style", "currency-style", "date-style", or null
+     * @throws IOException if styles.xml can't be read
+     */
+    String getDataStyleKind(final String dataStyleName) throws IOException {
+        String kind = this.dataStyleKindByName.get(dataStyleName);
+        if (kind == null && !this.stylesLoaded) {
+            this.loadStyles();
+            kind = this.dataStyleKindByName.get(dataStyleName);
+        }
+        return kind;
+    }
+
+    private CellStyleEntry getCellStyle(final String name) throws IOException {
+        CellStyleEntry entry = this.cellStyleByName.get(name);
+        if (entry == null && !this.stylesLoaded) {
+            this.loadStyles();
+            entry = this.cellStyleByName.get(name);
+        }
+        return entry;
+    }
+
+    private void loadStyles() throws IOException {
+        this.stylesLoaded = true;
+        final ZipEntry entry = this.zipFile.getEntry("styles.xml");
+        if (entry == null) {
+            return;
+        }
+        final InputStream in = this.zipFile.getInputStream(entry);
+        try {
+            final XMLStreamReader reader = this.factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        this.register(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.ref;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A formula that was parsed once, and that is rendered for any cell, like a copy/paste of the
+ * formula in LibreOffice: the relative references are moved, the absolute references are not.
+ * <p>
+ * Example: the template created with {@code create("[.B1]*[.$C$1]", 0, 3)} is rendered as
+ * {@code of:=[.B12]*[.$C$1]} for the cell D12 (row 11, column 3).
+ * <p>
+ * The literal parts are escaped once, and the rendering writes the addresses directly to the
+ * destination: no string is built per cell.
+ *
+ * @author Julien Férard
+ */
+public class FormulaTemplate {
+    private static final char QUOTE = '"';
+    private static final char TABLE_QUOTE = '\'';
+    private static final char REF_START = '[';
+    private static final char REF_END = ']';
+
+    /**
+     * @param formula      the formula, without '=' sign, as it is in the anchor cell
+     * @param anchorRow    the row of the anchor cell
+     * @param anchorColumn the column of the anchor cell
+     * @return the template
+     * @throws ParseException if a reference can't be parsed
+     */
+    public static FormulaTemplate create(final String formula, final int anchorRow,
+                                         final int anchorColumn) throws ParseException {
+        return FormulaTemplate.create(XMLUtil.create(), formula, anchorRow, anchorColumn);
+    }
+
+    /**
+     * @param util         an util to escape the formula
+     * @param formula      the formula, without '=' sign, as it is in the anchor cell
+     * @param anchorRow    the row of the anchor cell
+     * @param anchorColumn the column of the anchor cell
+     * @return the template
+     * @throws ParseException if a reference can't be parsed
+     */
+    public static FormulaTemplate create(final XMLUtil util, final String formula,
+                                         final int anchorRow, final int anchorColumn)
+            throws ParseException {
+        final Parser parser = new Parser(formula);
+        parser.parse();
+        final int count = parser.refs.size();
+        final String[] literals = new String[count + 1];
+        final int[] rows = new int[count];
+        final int[] columns = new int[count];
+        final int[] statuses = new int[count];
+        for (int i = 0; i < count; i++) {
+            literals[i] = util.escapeXMLAttribute(parser.literals.get(i));
+            final LocalCellRef ref = parser.refs.get(i);
+            final int status = ref.getStatus();
+            statuses[i] = status;
+            if ((status & LocalCellRef.ABSOLUTE_ROW) == LocalCellRef.ABSOLUTE_ROW) {
+                rows[i] = ref.getRow();
+            } else {
+                rows[i] = ref.getRow() - anchorRow;
+            }
+            if ((status & LocalCellRef.ABSOLUTE_COL) == LocalCellRef.ABSOLUTE_COL) {
+                columns[i] = ref.getColumn();
+            } else {
+                columns[i] = ref.getColumn() - anchorColumn;
+            }
+        }
+        literals[count] = util.escapeXMLAttribute(parser.literals.get(count));
+        return new FormulaTemplate(literals, rows, columns, statuses);
+    }
+
+    /**
+     * Append the column letters without building a string.
+     *
+     * @param appendable the destination
+     * @param col        the column index
+     * @throws IOException if an I/O error occurs
+     */
+    private static void appendColumn(final Appendable appendable, final int col)
+            throws IOException {
+        if (col >= PositionUtil.ALPHABET_SIZE) {
+            FormulaTemplate.appendColumn(appendable, col / PositionUtil.ALPHABET_SIZE - 1);
+        }
+        appendable.append((char) (PositionUtil.ORD_A + col % PositionUtil.ALPHABET_SIZE));
+    }
+
+    private final String[] literals;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] statuses;
+
+    /**
+     * @param literals the escaped literals, between the references. The first one begins with
+     *                 "of:=".
+     * @param rows     the rows of the references: absolute or relative to the anchor
+     * @param columns  the columns of the references: absolute or relative to the anchor
+     * @param statuses the absolute status of the references
+     */
+    FormulaTemplate(final String[] literals, final int[] rows, final int[] columns,
+                    final int[] statuses) {
+        this.literals = literals;
+        this.rows = rows;
+        this.columns = columns;
+        this.statuses = statuses;
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @throws IllegalArgumentException if a reference would be before the first row or column
+     */
+    public void checkPosition(final int row, final int col) {
+        for (int i = 0; i < this.rows.length; i++) {
+            if (this.getRow(i, row) < 0 || this.getColumn(i, col) < 0) {
+                throw new IllegalArgumentException(
+                        "Reference out of the table for cell (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    /**
+     * Append the escaped value of the table:formula attribute for a given cell.
+     *
+     * @param util       an util to write the row numbers
+     * @param appendable the destination
+     * @param row        the row of the cell
+     * @param col        the column of the cell
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendEscapedValue(final XMLUtil util, final Appendable appendable,
+                                   final int row, final int col) throws IOException {
+        for (int i = 0; i < this.rows.length; i++) {
+            appendable.append(this.literals[i]);
+            final int status = this.statuses[i];
+            if ((status & LocalCellRef.ABSOLUTE_COL) == LocalCellRef.ABSOLUTE_COL) {
+                appendable.append(LocalCellRef.ABS_SIGN);
+            }
+            FormulaTemplate.appendColumn(appendable, this.getColumn(i, col));
+            if ((status & LocalCellRef.ABSOLUTE_ROW) == LocalCellRef.ABSOLUTE_ROW) {
+                appendable.append(LocalCellRef.ABS_SIGN);
+            }
+            util.appendLong(appendable, this.getRow(i, row) + 1);
+        }
+        appendable.append(this.literals[this.rows.length]);
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the formula of this cell, with the "of:=" prefix
+     */
+    public String render(final int row, final int col) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            this.appendEscapedValue(XMLUtil.create(), sb, row, col);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+        return sb.toString();
+    }
+
+    private int getRow(final int i, final int row) {
+        if ((this.statuses[i] & LocalCellRef.ABSOLUTE_ROW) == LocalCellRef.ABSOLUTE_ROW) {
+            return this.rows[i];
+        } else {
+            return this.rows[i] + row;
+        }
+    }
+
+    private int getColumn(final int i, final int col) {
+        if ((this.statuses[i] & LocalCellRef.ABSOLUTE_COL) == LocalCellRef.ABSOLUTE_COL) {
+            return this.columns[i];
+        } else {
+            return this.columns[i] + col;
+        }
+    }
+
+    /**
+     * A parser that splits the formula into literals and cell references.
+     */
+    private static class Parser {
+        private final String formula;
+        private final List<String> literals;
+        private final List<LocalCellRef> refs;
+        private final LocalCellAddressParser addressParser;
+        private final StringBuilder literal;
+
+        Parser(final String formula) {
+            this.formula = formula;
+            this.literals = new ArrayList<String>();
+            this.refs = new ArrayList<LocalCellRef>();
+            this.addressParser = new LocalCellAddressParser();
+            this.literal = new StringBuilder("of:=");
+        }
+
+        void parse() throws ParseException {
+            int i = 0;
+            final int len = this.formula.length();
+            while (i < len) {
+                final char c = this.formula.charAt(i);
+                if (c == QUOTE) {
+                    final int end = this.skipQuoted(i, QUOTE);
+                    this.literal.append(this.formula, i, end);
+                    i = end;
+                } else if (c == REF_START) {
+                    final int end = this.findRefEnd(i);
+                    this.literal.append(REF_START);
+                    this.parseRef(i + 1, end);
+                    this.literal.append(REF_END);
+                    i = end + 1;
+                } else {
+                    this.literal.append(c);
+                    i++;
+                }
+            }
+            this.literals.add(this.literal.toString());
+        }
+
+        /**
+         * @param start the index of the opening quote
+         * @param quote the quote char
+         * @return the index after the closing quote. A doubled quote is an escaped quote.
+         * @throws ParseException if the closing quote is missing
+         */
+        private int skipQuoted(final int start, final char quote) throws ParseException {
+            int i = start + 1;
+            final int len = this.formula.length();
+            while (i < len) {
+                if (this.formula.charAt(i) == quote) {
+                    if (i + 1 < len && this.formula.charAt(i + 1) == quote) {
+                        i += 2;
+                        continue;
+                    }
+                    return i + 1;
+                }
+                i++;
+            }
+            throw new ParseException("Missing closing quote: " + this.formula, start);
+        }
+
+        private int findRefEnd(final int start) throws ParseException {
+            int i = start + 1;
+            final int len = this.formula.length();
+            while (i < len) {
+                final char c = this.formula.charAt(i);
+                if (c == TABLE_QUOTE) {
+                    i = this.skipQuoted(i, TABLE_QUOTE);
+                } else if (c == REF_END) {
+                    return i;
+                } else {
+                    i++;
+                }
+            }
+            throw new ParseException("Missing closing bracket: " + this.formula, start);
+        }
+
+        /**
+         * Parse [table.]cell[:[table.]cell]
+         *
+         * @param start the first index of the reference
+         * @param end   the index of the closing bracket
+         * @throws ParseException if a cell address can't be parsed
+         */
+        private void parseRef(final int start, final int end) throws ParseException {
+            int partStart = start;
+            int lastDot = -1;
+            int i = start;
+            while (i < end) {
+                final char c = this.formula.charAt(i);
+                if (c == TABLE_QUOTE) {
+                    i = this.skipQuoted(i, TABLE_QUOTE);
+                    continue;
+                }
+                if (c == CellRef.TABLE_CELL_SEP) {
+                    lastDot = i;
+                } else if (c == RangeRef.RANGE_SEP) {
+                    this.parseCellRef(partStart, lastDot, i);
+                    this.literal.append(RangeRef.RANGE_SEP);
+                    partStart = i + 1;
+                    lastDot = -1;
+                }
+                i++;
+            }
+            this.parseCellRef(partStart, lastDot, end);
+        }
+
+        private void parseCellRef(final int start, final int lastDot, final int end)
+                throws ParseException {
+            final int cellStart;
+            if (lastDot == -1) {
+                cellStart = start;
+            } else {
+                cellStart = lastDot + 1;
+                this.literal.append(this.formula, start, cellStart);
+            }
+            final String address = this.formula.substring(cellStart, end);
+            try {
+                this.refs.add(this.addressParser.parse(address));
+            } catch (final ParseException e) {
+                throw new ParseException(
+                        "Can't parse reference " + address + " in " + this.formula + ": " +
+                                e.getMessage(), cellStart + e.getErrorOffset());
+            }
+            this.literals.add(this.literal.toString());
+            this.literal.setLength(0);
+        }
+    }
+}
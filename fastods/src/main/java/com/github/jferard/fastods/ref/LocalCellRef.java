@@ -97,6 +97,13 @@ class LocalCellRef {
         return this.r;
     }
 
+    /**
+     * @return the absolute status = col | row
+     */
+    int getStatus() {
+        return this.status;
+    }
+
     /**
      * Returns the address of a cell, in Excel/OO/LO format. Some examples:
      * <ul>
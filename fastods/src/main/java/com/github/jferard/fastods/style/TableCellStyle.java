@@ -75,6 +75,7 @@ public class TableCellStyle implements FontFaceContainerStyle {
     private final boolean wrap; // No line wrap when false, line wrap when
     private final DataStyle dataStyle;
     private String key;
+    private String xml;
 
     /**
      * Create a new cell style
@@ -144,6 +145,16 @@ public class TableCellStyle implements FontFaceContainerStyle {
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
+        if (this.xml == null) { // the style is immutable: render once
+            final StringBuilder sb = new StringBuilder();
+            this.computeXMLContent(util, sb);
+            this.xml = sb.toString();
+        }
+        appendable.append(this.xml);
+    }
+
+    private void computeXMLContent(final XMLUtil util, final Appendable appendable)
+            throws IOException {
         appendable.append("<style:style");
         util.appendEAttribute(appendable, "style:name", this.name);
         util.appendAttribute(appendable, "style:family", "table-cell");
@@ -254,6 +265,13 @@ public class TableCellStyle implements FontFaceContainerStyle {
         return this.textProperties.getFontFace();
     }
 
+    /**
+     * @return the text properties, never null
+     */
+    public TextProperties getTextProperties() {
+        return this.textProperties;
+    }
+
     /**
      * @return true if there is an text align
      */
@@ -137,6 +137,27 @@ public class TextProperties implements TagParameters {
                 this.fontName != null;
     }
 
+    /**
+     * @return the font name or null
+     */
+    public String getFontName() {
+        return this.fontName;
+    }
+
+    /**
+     * @return the font size (e.g. "10pt" or "120%") or null
+     */
+    public String getFontSize() {
+        return this.fontSize;
+    }
+
+    /**
+     * @return the font weight (e.g. "bold" or "700") or null
+     */
+    public String getFontWeight() {
+        return this.fontWeight;
+    }
+
     /**
      * @return a font face or null
      */
@@ -51,6 +51,9 @@ import java.util.Queue;
  *     logger.log(Level.SEVERE, "", e);
  * }
  * </code></pre>
+ * <p>
+ * Every call takes the monitor of the bus: to hand a lot of elements between threads, use a
+ * {@link RingBus}.
  *
  * @param <E> the elements in the bus
  * @author Julien Férard
@@ -0,0 +1,299 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded bus for many producers and a single consumer. Unlike the {@link FastOdsBus}, no
+ * monitor is taken: the producers claim a slot of a ring with a compare-and-set and the
+ * consumer drains the published slots in batches. The closed flag is a bit of the producer
+ * index: a slot is claimed before the bus is closed, or not at all. A producer that finds the
+ * ring full waits for the consumer (backpressure); a consumer that finds the ring empty spins a
+ * little, then parks until a producer wakes it up.
+ * <p>
+ * Usage:
+ * <pre><code>
+ * final RingBus{@literal <E>} bus = new RingBus{@literal <E>}(1024);
+ *
+ * Thread consumer = new Thread() {
+ *     {@literal @}Override
+ *     public void run() {
+ *         final List{@literal <E>} elements = new ArrayList{@literal <E>}();
+ *         while (bus.drainTo(elements, 1024) {@literal >} 0) {
+ *             // do something with the elements
+ *             elements.clear();
+ *         }
+ *     }
+ * }
+ *
+ * consumer.start()
+ *
+ * // put whatever in the bus with bus.put, from one or more threads, then close the bus.
+ *
+ * try {
+ *     consumer.join();
+ * } catch (final InterruptedException e) {
+ *     logger.log(Level.SEVERE, "", e);
+ * }
+ * </code></pre>
+ *
+ * @param <E> the elements in the bus
+ * @author Julien Férard
+ */
+public class RingBus<E> {
+    private static final int SPIN_COUNT = 128;
+    private static final long CLOSED = 1L << 62;
+    private static final long PARK_NANOS = 50000L;
+
+    /**
+     * Wait a little: spin, then yield, then park.
+     *
+     * @param attempt the number of previous attempts
+     */
+    private static void backOff(final int attempt) {
+        if (attempt < SPIN_COUNT) {
+            return;
+        }
+        if (attempt < 2 * SPIN_COUNT) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    /**
+     * The index of the next slot to claim by a producer, and the CLOSED bit
+     */
+    private final AtomicLong producerIndex;
+    /**
+     * The index of the next slot to read by the consumer. Only the consumer writes it.
+     */
+    private volatile long consumerIndex;
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Create a new bus
+     *
+     * @param capacity the max number of elements in the bus, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public RingBus(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30]: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<E>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = 0;
+        this.waitingConsumer = null;
+    }
+
+    /**
+     * @return the max number of elements in the bus
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * close the bus. The consumer will still get the elements that were put before.
+     */
+    public void close() {
+        while (true) {
+            final long current = this.producerIndex.get();
+            if ((current & CLOSED) != 0 ||
+                    this.producerIndex.compareAndSet(current, current | CLOSED)) {
+                break;
+            }
+        }
+        this.wakeUpConsumer();
+    }
+
+    /**
+     * @return true if the bus was closed and all the elements were consumed
+     */
+    public boolean isClosed() {
+        return this.isClosedAt(this.consumerIndex);
+    }
+
+    /**
+     * Add an element to the bus. If the bus is full, wait until the consumer takes some
+     * elements.
+     *
+     * @param element the element, not null
+     * @throws IllegalStateException if the bus was closed
+     */
+    public void put(final E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Can't put a null element");
+        }
+        long index = this.producerIndex.get();
+        while (true) {
+            if ((index & CLOSED) != 0) {
+                throw new IllegalStateException("Bus is closed");
+            }
+            if (this.producerIndex.compareAndSet(index, index + 1)) {
+                break;
+            }
+            index = this.producerIndex.get();
+        }
+        // the slot is claimed: we have to fill it, even if we are interrupted.
+        boolean interrupted = false;
+        int attempt = 0;
+        while (index - this.consumerIndex >= this.capacity) {
+            backOff(attempt++);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        this.slots.set((int) index & this.mask, element);
+        this.wakeUpConsumer();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get an element from the bus. Blocking method. Must be called by the consumer thread only.
+     *
+     * @return the next element in the bus
+     * @throws NoSuchElementException if the bus is closed and empty
+     */
+    public E get() {
+        final long index = this.consumerIndex;
+        final E element = this.awaitElement(index);
+        if (element == null) {
+            throw new NoSuchElementException();
+        }
+        this.slots.lazySet((int) index & this.mask, null);
+        this.consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * Move the available elements of the bus to a collection. Waits for at least one element,
+     * then takes every element that was already published, without further wait. Must be
+     * called by the consumer thread only.
+     *
+     * @param elements    the destination
+     * @param maxElements the max number of elements to move
+     * @return the number of elements moved, 0 if the bus is closed and empty
+     */
+    public int drainTo(final Collection<? super E> elements, final int maxElements) {
+        if (maxElements <= 0) {
+            return 0;
+        }
+        long index = this.consumerIndex;
+        E element = this.awaitElement(index);
+        if (element == null) {
+            return 0;
+        }
+
+        int count = 0;
+        try {
+            while (true) {
+                elements.add(element);
+                this.slots.lazySet((int) index & this.mask, null);
+                index++;
+                count++;
+                if (count == maxElements) {
+                    break;
+                }
+                element = this.slots.get((int) index & this.mask);
+                if (element == null) {
+                    break;
+                }
+            }
+        } finally {
+            // one volatile write for the whole batch: the producers see the free slots now.
+            this.consumerIndex = index;
+        }
+        return count;
+    }
+
+    /**
+     * @param index the index of the slot
+     * @return the element in the slot, or null if the bus is closed and empty.
+     */
+    private E awaitElement(final long index) {
+        final int slot = (int) index & this.mask;
+        int attempt = 0;
+        while (true) {
+            E element = this.slots.get(slot);
+            if (element != null) {
+                return element;
+            }
+            if (this.isClosedAt(index)) {
+                return null;
+            }
+            if (attempt < SPIN_COUNT) {
+                attempt++;
+                continue;
+            }
+
+            // register, then check again: a producer that publishes after the check will see
+            // the waiting consumer and unpark it.
+            this.waitingConsumer = Thread.currentThread();
+            element = this.slots.get(slot);
+            if (element != null || this.isClosedAt(index)) {
+                this.waitingConsumer = null;
+                return element;
+            }
+            LockSupport.park(this);
+            this.waitingConsumer = null;
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(new InterruptedException());
+            }
+        }
+    }
+
+    /**
+     * @param index the index of a slot
+     * @return true if the bus was closed and no slot was claimed at or after this index
+     */
+    private boolean isClosedAt(final long index) {
+        return this.producerIndex.get() == (index | CLOSED);
+    }
+
+    private void wakeUpConsumer() {
+        final Thread consumer = this.waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+/**
+ * The link between a publisher and a {@link TableSubscriber}. Same contract as a reactive
+ * streams subscription (java.util.concurrent.Flow.Subscription or
+ * org.reactivestreams.Subscription): wrap one of them to connect a publisher.
+ *
+ * @author Julien Férard
+ */
+public interface RowSubscription {
+    /**
+     * Ask for more elements.
+     *
+     * @param n the number of elements, > 0
+     */
+    void request(long n);
+
+    /**
+     * Ask the publisher to stop sending elements.
+     */
+    void cancel();
+}
@@ -0,0 +1,335 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.NamedOdsFileWriter;
+import com.github.jferard.fastods.TableCellWalker;
+import com.github.jferard.fastods.ToCellValueConverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A sink that writes batches of rows, sent by a publisher from another thread, to a table of a
+ * named writer. The elements are batches of rows; a row is a list of values, converted by a
+ * ToCellValueConverter.
+ * <p>
+ * The methods have the contract of a reactive streams subscriber (java.util.concurrent.Flow
+ * .Subscriber or org.reactivestreams.Subscriber): wrap this sink in a subscriber that delegates
+ * the four signals, and wrap the subscription in a {@link RowSubscription}.
+ * <ul>
+ * <li>The signals only queue the batches: the publisher thread does not convert nor write the
+ * values. The sink is a Runnable: the batches are written by the thread that runs it.</li>
+ * <li>The demand is bounded: the sink requests maxPendingBatches batches on subscription, then
+ * the writer thread requests one batch for each batch written. The queue holds at most
+ * maxPendingBatches batches.</li>
+ * <li>On completion, the document is saved and the writer is closed.</li>
+ * <li>On error, on cancellation or if a batch can't be written, the writer is closed and the
+ * subscription is cancelled. The cause is available with {@link #getError()}.</li>
+ * </ul>
+ * Usage:
+ * <pre><code>
+ * final TableSubscriber sink = TableSubscriber.create(logger, writer, walker, converter, 16);
+ * final Thread writerThread = new Thread(sink);
+ * writerThread.start();
+ * // subscribe the sink to the publisher
+ * writerThread.join();
+ * </code></pre>
+ *
+ * @author Julien Férard
+ */
+public class TableSubscriber implements Runnable {
+    /**
+     * Create a new sink
+     *
+     * @param logger            the logger
+     * @param writer            the writer, will be saved and closed by this sink
+     * @param walker            a walker on the table. The first row is written at the walker
+     *                          position.
+     * @param converter         the converter of the values
+     * @param maxPendingBatches the max number of batches requested and not written, > 0
+     * @return the sink
+     * @throws IllegalArgumentException if maxPendingBatches <= 0
+     */
+    public static TableSubscriber create(final Logger logger, final NamedOdsFileWriter writer,
+                                         final TableCellWalker walker,
+                                         final ToCellValueConverter converter,
+                                         final int maxPendingBatches) {
+        if (maxPendingBatches <= 0) {
+            throw new IllegalArgumentException(
+                    "The max number of pending batches must be > 0: " + maxPendingBatches);
+        }
+        return new TableSubscriber(logger, writer, walker, converter, maxPendingBatches);
+    }
+
+    /**
+     * The marker of the end of the stream: completion, error or cancellation.
+     */
+    private static final List<List<?>> END = new ArrayList<List<?>>(0);
+
+    private final Logger logger;
+    private final NamedOdsFileWriter writer;
+    private final TableCellWalker walker;
+    private final ToCellValueConverter converter;
+    private final int maxPendingBatches;
+    private final int firstColIndex;
+    private final BlockingQueue<List<? extends List<?>>> batches;
+    private RowSubscription subscription;
+    private boolean terminated;
+    private Throwable terminationCause;
+    private boolean firstRow;
+    private boolean done;
+    private Throwable error;
+
+    /**
+     * Create a new sink
+     *
+     * @param logger            the logger
+     * @param writer            the writer, will be saved and closed by this sink
+     * @param walker            a walker on the table
+     * @param converter         the converter of the values
+     * @param maxPendingBatches the max number of batches requested and not written
+     */
+    TableSubscriber(final Logger logger, final NamedOdsFileWriter writer,
+                    final TableCellWalker walker, final ToCellValueConverter converter,
+                    final int maxPendingBatches) {
+        this.logger = logger;
+        this.writer = writer;
+        this.walker = walker;
+        this.converter = converter;
+        this.maxPendingBatches = maxPendingBatches;
+        this.firstColIndex = walker.colIndex();
+        // one more slot for the END marker
+        this.batches = new ArrayBlockingQueue<List<? extends List<?>>>(maxPendingBatches + 1);
+        this.firstRow = true;
+        this.terminated = false;
+        this.done = false;
+    }
+
+    /**
+     * @param subscription the subscription
+     */
+    public synchronized void onSubscribe(final RowSubscription subscription) {
+        if (this.subscription != null || this.terminated) { // only one subscription
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(this.maxPendingBatches);
+    }
+
+    /**
+     * Queue a batch of rows. The batch will be written by the writer thread.
+     *
+     * @param rows the rows
+     */
+    public synchronized void onNext(final List<? extends List<?>> rows) {
+        if (this.terminated) {
+            return;
+        }
+        if (this.batches.size() >= this.maxPendingBatches) {
+            if (this.subscription != null) {
+                this.subscription.cancel();
+            }
+            this.terminate(new IllegalStateException(
+                    "The publisher sent more batches than requested"));
+            return;
+        }
+        this.batches.add(rows);
+    }
+
+    /**
+     * The publisher failed: the writer will be closed.
+     *
+     * @param throwable the cause
+     */
+    public synchronized void onError(final Throwable throwable) {
+        if (this.terminated) {
+            return;
+        }
+        this.terminate(throwable);
+    }
+
+    /**
+     * The publisher has no more rows: the document will be saved and the writer closed.
+     */
+    public synchronized void onComplete() {
+        if (this.terminated) {
+            return;
+        }
+        this.terminate(null);
+    }
+
+    /**
+     * Stop writing: cancel the subscription. The writer will be closed.
+     */
+    public synchronized void cancel() {
+        if (this.terminated) {
+            return;
+        }
+        if (this.subscription != null) {
+            this.subscription.cancel();
+        }
+        this.terminate(new IOException("The sink was cancelled"));
+    }
+
+    private void terminate(final Throwable cause) {
+        this.terminated = true;
+        this.terminationCause = cause;
+        if (cause != null) { // the pending batches won't be saved
+            this.batches.clear();
+        }
+        this.batches.add(END); // there is always a slot for the END marker
+    }
+
+    /**
+     * Write the queued batches until the end of the stream. This is the writer thread. Once the
+     * publisher has completed, the remaining batches are written without requesting more.
+     */
+    @Override
+    public void run() {
+        try {
+            List<? extends List<?>> rows = this.batches.take();
+            while (rows != END) {
+                if (!this.writeBatch(rows)) {
+                    return;
+                }
+                rows = this.batches.take();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.cancelSubscription();
+            this.fail(e);
+            return;
+        }
+        final Throwable cause = this.getTerminationCause();
+        if (cause == null) {
+            this.complete();
+        } else {
+            this.fail(cause);
+        }
+    }
+
+    private boolean writeBatch(final List<? extends List<?>> rows) {
+        try {
+            for (final List<?> row : rows) {
+                this.writeRow(row);
+            }
+        } catch (final IOException e) {
+            this.cancelSubscription();
+            this.fail(e);
+            return false;
+        } catch (final RuntimeException e) {
+            this.cancelSubscription();
+            this.fail(e);
+            return false;
+        }
+        this.requestNext();
+        return true;
+    }
+
+    private synchronized void requestNext() {
+        if (!this.terminated && this.subscription != null) {
+            this.subscription.request(1);
+        }
+    }
+
+    private synchronized void cancelSubscription() {
+        if (!this.terminated) {
+            this.terminated = true;
+            if (this.subscription != null) { // interrupted before the subscription
+                this.subscription.cancel();
+            }
+        }
+    }
+
+    private synchronized Throwable getTerminationCause() {
+        return this.terminationCause;
+    }
+
+    private void writeRow(final List<?> row) throws IOException {
+        if (this.firstRow) {
+            this.firstRow = false;
+        } else {
+            this.walker.nextRow();
+        }
+        int c = this.firstColIndex;
+        for (final Object value : row) {
+            this.walker.to(c);
+            this.walker.setCellValue(this.converter.from(value));
+            c++;
+        }
+    }
+
+    private void complete() {
+        try {
+            this.writer.save();
+            this.writer.close();
+            this.setDone(null);
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Can't save the document", e);
+            this.closeQuietly();
+            this.setDone(e);
+        }
+    }
+
+    private void fail(final Throwable throwable) {
+        this.logger.log(Level.SEVERE, "Can't write the rows", throwable);
+        this.closeQuietly();
+        this.setDone(throwable);
+    }
+
+    private void closeQuietly() {
+        try {
+            this.writer.close();
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Can't close the writer", e);
+        }
+    }
+
+    private synchronized void setDone(final Throwable throwable) {
+        this.done = true;
+        this.error = throwable;
+    }
+
+    /**
+     * @return true if the writer thread has finished: the document was saved, or the writer was
+     * closed after a failure
+     */
+    public synchronized boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * @return the cause of the failure, or null
+     */
+    public synchronized Throwable getError() {
+        return this.error;
+    }
+}
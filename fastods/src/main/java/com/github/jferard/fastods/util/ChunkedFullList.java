@@ -0,0 +1,323 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A full list (see {@link FastFullList}) stored in fixed size segments. The list never copies
+ * its elements when it grows: only the small array of segments is copied. Segments that
+ * contain only blank elements are not allocated. Use it for the huge lists (e.g. the rows of a
+ * table) to avoid big contiguous arrays.
+ *
+ * @param <E> type of the elements
+ * @author J. Férard
+ */
+public class ChunkedFullList<E> implements Iterable<E> {
+    /**
+     * The default size of a segment
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+    /**
+     * @param capacity the capacity needed
+     * @param <F>      the type of the elements
+     * @return a new full list
+     */
+    public static <F> ChunkedFullList<F> newListWithCapacity(final int capacity) {
+        return new ChunkedFullList<F>(capacity, DEFAULT_SEGMENT_SIZE, null);
+    }
+
+    /**
+     * @param <F> the type of the elements
+     * @return a builder
+     */
+    public static <F> ChunkedFullListBuilder<F> builder() {
+        return new ChunkedFullListBuilder<F>();
+    }
+
+    /**
+     * @param <F> the type of the elements
+     */
+    public static class ChunkedFullListBuilder<F> {
+        private F blankElement;
+        private int capacity;
+        private int segmentSize;
+
+        /**
+         * Create a new builder
+         */
+        ChunkedFullListBuilder() {
+            this.segmentSize = DEFAULT_SEGMENT_SIZE;
+        }
+
+        /**
+         * Set the blank element
+         *
+         * @param blankElement the blank element
+         * @return this for fluent style
+         */
+        public ChunkedFullListBuilder<F> blankElement(final F blankElement) {
+            this.blankElement = blankElement;
+            return this;
+        }
+
+        /**
+         * @param capacity the need capacity
+         * @return this for fluent style
+         */
+        public ChunkedFullListBuilder<F> capacity(final int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param segmentSize the size of a segment, a power of two
+         * @return this for fluent style
+         */
+        public ChunkedFullListBuilder<F> segmentSize(final int segmentSize) {
+            if (segmentSize <= 0 || (segmentSize & (segmentSize - 1)) != 0) {
+                throw new IllegalArgumentException(
+                        "Segment size must be a power of two: " + segmentSize);
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * @return the full list
+         */
+        public ChunkedFullList<F> build() {
+            return new ChunkedFullList<F>(this.capacity, this.segmentSize, this.blankElement);
+        }
+    }
+
+    private final E blankElement;
+    private final int segmentSize;
+    private final int shift;
+    private final int mask;
+    private E[][] segments;
+    private int size;
+
+    /**
+     * @param capacity     the expected capacity
+     * @param segmentSize  the size of a segment, a power of two
+     * @param blankElement the value of cells that were not set.
+     */
+    @SuppressWarnings("unchecked")
+    ChunkedFullList(final int capacity, final int segmentSize, final E blankElement) {
+        this.blankElement = blankElement;
+        this.segmentSize = segmentSize;
+        this.shift = Integer.numberOfTrailingZeros(segmentSize);
+        this.mask = segmentSize - 1;
+        final int segmentCount = Math.max(1, (capacity + this.mask) >>> this.shift);
+        this.segments = (E[][]) new Object[segmentCount][];
+        this.size = 0;
+    }
+
+    /**
+     * @return the size really used, that is the index of the last non blank element + 1.
+     */
+    public int usedSize() {
+        return this.size;
+    }
+
+    /**
+     * Set an element
+     *
+     * @param index   the index
+     * @param element the element
+     */
+    public void set(final int index, final E element) {
+        if (index >= this.size) {
+            if (element != this.blankElement) {
+                this.getOrCreateSegment(index)[index & this.mask] = element;
+                this.size = index + 1;
+            }
+        } else if (element == this.blankElement) {
+            final E[] segment = this.segments[index >>> this.shift];
+            if (segment != null) {
+                segment[index & this.mask] = element;
+            }
+            if (index == this.size - 1) {
+                this.removeTrail();
+            }
+        } else {
+            this.getOrCreateSegment(index)[index & this.mask] = element;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E[] getOrCreateSegment(final int index) {
+        final int segmentIndex = index >>> this.shift;
+        if (segmentIndex >= this.segments.length) {
+            int newLength = this.segments.length * 2;
+            if (newLength <= segmentIndex) {
+                newLength = segmentIndex + 1;
+            }
+            final E[][] newSegments = (E[][]) new Object[newLength][];
+            System.arraycopy(this.segments, 0, newSegments, 0, this.segments.length);
+            this.segments = newSegments;
+        }
+        E[] segment = this.segments[segmentIndex];
+        if (segment == null) {
+            segment = (E[]) new Object[this.segmentSize];
+            if (this.blankElement != null) {
+                Arrays.fill(segment, this.blankElement);
+            }
+            this.segments[segmentIndex] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * post condition: this.get(this.size-1) != blankElement
+     */
+    private void removeTrail() {
+        int last = this.size - 2;
+        while (last >= 0) {
+            final E[] segment = this.segments[last >>> this.shift];
+            if (segment == null) { // skip the whole segment
+                last = (last & ~this.mask) - 1;
+            } else if (segment[last & this.mask] == this.blankElement) {
+                last--;
+            } else {
+                break;
+            }
+        }
+        this.size = last + 1;
+    }
+
+    /**
+     * @param index the index
+     * @return the element at the index
+     */
+    public E get(final int index) {
+        if (index >= this.size) {
+            return this.blankElement;
+        }
+        final E[] segment = this.segments[index >>> this.shift];
+        if (segment == null) {
+            return this.blankElement;
+        }
+        return segment[index & this.mask];
+    }
+
+    /**
+     * Find the next element that is not blank. The segments that were never allocated are
+     * skipped at once: use this method to walk a sparse list.
+     *
+     * @param fromIndex the first index to check
+     * @return the index of the first non blank element at or after fromIndex, or usedSize() if
+     * there is none
+     */
+    public int nextNonBlankIndex(final int fromIndex) {
+        int i = fromIndex;
+        while (i < this.size) {
+            final E[] segment = this.segments[i >>> this.shift];
+            if (segment == null) {
+                i = (i | this.mask) + 1;
+            } else if (segment[i & this.mask] == this.blankElement) {
+                i++;
+            } else {
+                return i;
+            }
+        }
+        return this.size;
+    }
+
+    /**
+     * Replace the elements before an index by the blank element. The segments that are
+     * entirely before the index are released.
+     *
+     * @param toIndex the first index to keep
+     */
+    public void clearBefore(final int toIndex) {
+        final int end = Math.min(toIndex, this.size);
+        final int segmentCount = Math.min(end >>> this.shift, this.segments.length);
+        for (int s = 0; s < segmentCount; s++) {
+            this.segments[s] = null;
+        }
+        for (int i = segmentCount << this.shift; i < end; i++) {
+            this.set(i, this.blankElement);
+        }
+        if (end == this.size) {
+            this.size = 0;
+        }
+    }
+
+    /**
+     * @param fromIndex starting index
+     * @param toIndex   last index + 1
+     * @return the sublist view.
+     */
+    public List<E> subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(fromIndex + ", " + toIndex);
+        }
+        return new ListView(fromIndex, toIndex);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ListView(0, this.size).iterator();
+    }
+
+    /**
+     * A view on a part of the list.
+     */
+    private class ListView extends AbstractList<E> implements RandomAccess {
+        private final int fromIndex;
+        private final int toIndex;
+
+        ListView(final int fromIndex, final int toIndex) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        public E get(final int index) {
+            if (index < 0 || index >= this.size()) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return ChunkedFullList.this.get(this.fromIndex + index);
+        }
+
+        @Override
+        public E set(final int index, final E element) {
+            final E previous = this.get(index);
+            ChunkedFullList.this.set(this.fromIndex + index, element);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return this.toIndex - this.fromIndex;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * The compression of a zip entry: stored, or deflated with a level and a Deflater strategy.
+ *
+ * @author Julien Férard
+ */
+public final class EntryCompression {
+    private static final EntryCompression STORED =
+            new EntryCompression(ZipEntry.STORED, Deflater.NO_COMPRESSION,
+                    Deflater.DEFAULT_STRATEGY);
+
+    /**
+     * A stored entry needs its size and its CRC before its data: the whole entry is buffered in
+     * memory (about three times its size) until it is closed. Use it for small entries only
+     * (e.g. the mimetype): content.xml can't be stored. For an uncompressed but streamed entry,
+     * use deflated(Deflater.NO_COMPRESSION).
+     *
+     * @return a compression for an entry that is not compressed (e.g. the mimetype)
+     */
+    public static EntryCompression stored() {
+        return STORED;
+    }
+
+    /**
+     * @param level the level (Deflater.DEFAULT_COMPRESSION or 0-9)
+     * @return a compression for a deflated entry
+     */
+    public static EntryCompression deflated(final int level) {
+        return EntryCompression.deflated(level, Deflater.DEFAULT_STRATEGY);
+    }
+
+    /**
+     * @param level    the level (Deflater.DEFAULT_COMPRESSION or 0-9)
+     * @param strategy the Deflater strategy (DEFAULT_STRATEGY, FILTERED or HUFFMAN_ONLY)
+     * @return a compression for a deflated entry
+     */
+    public static EntryCompression deflated(final int level, final int strategy) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) &&
+                level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED &&
+                strategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("invalid compression strategy");
+        }
+        return new EntryCompression(ZipEntry.DEFLATED, level, strategy);
+    }
+
+    private final int method;
+    private final int level;
+    private final int strategy;
+
+    /**
+     * @param method   ZipEntry.STORED or ZipEntry.DEFLATED
+     * @param level    the level
+     * @param strategy the Deflater strategy
+     */
+    private EntryCompression(final int method, final int level, final int strategy) {
+        this.method = method;
+        this.level = level;
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return true if the entry is not compressed
+     */
+    public boolean isStored() {
+        return this.method == ZipEntry.STORED;
+    }
+
+    /**
+     * @return the level of compression
+     */
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * @return the Deflater strategy
+     */
+    public int getStrategy() {
+        return this.strategy;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof EntryCompression)) {
+            return false;
+        }
+        final EntryCompression other = (EntryCompression) o;
+        return this.method == other.method && this.level == other.level &&
+                this.strategy == other.strategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return (this.method * 31 + this.level) * 31 + this.strategy;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryCompression[method=" + this.method + ", level=" + this.level +
+                ", strategy=" + this.strategy + "]";
+    }
+}
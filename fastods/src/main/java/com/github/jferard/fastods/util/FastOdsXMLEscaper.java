@@ -73,6 +73,7 @@ public class FastOdsXMLEscaper implements XMLEscaper {
 
     private final Map<String, String> attrCacheMap;
     private final Map<String, String> contentCacheMap;
+    private final int bufferSize;
     private char[] buffer;
 
     /**
@@ -83,6 +84,7 @@ public class FastOdsXMLEscaper implements XMLEscaper {
     public FastOdsXMLEscaper(final int bufferSize) {
         this.attrCacheMap = new HashMap<String, String>();
         this.contentCacheMap = new HashMap<String, String>();
+        this.bufferSize = bufferSize;
         this.buffer = new char[bufferSize];
     }
 
@@ -192,4 +194,15 @@ public class FastOdsXMLEscaper implements XMLEscaper {
         this.contentCacheMap.put(s, escaped);
         return escaped;
     }
+
+    /**
+     * Clear the caches, but keep the buffers, to reuse the escaper for another document.
+     */
+    public void reset() {
+        this.attrCacheMap.clear();
+        this.contentCacheMap.clear();
+        if (this.buffer.length > this.bufferSize) {
+            this.buffer = new char[this.bufferSize];
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A budget for the rows that a document keeps in memory. The sizes are rough estimates: the
+ * budget is the threshold above which the oldest rows are spilled to temporary files, not a
+ * hard limit.
+ * <p>
+ * The budget is shared by the tables of a document. When it is exceeded, the table that holds
+ * the most memory spills first, not the table that is being filled, and the other tables spill
+ * all their rows: a big table that was filled before does not make the next tables spill every
+ * few rows.
+ *
+ * @author Julien Férard
+ */
+public final class MemoryBudget {
+    /**
+     * @param maxBytes the budget, in bytes
+     * @return a new budget
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public static MemoryBudget create(final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive: " + maxBytes);
+        }
+        return new MemoryBudget(maxBytes);
+    }
+
+    private static final Comparator<Holder> BY_HELD_BYTES_DESC = new Comparator<Holder>() {
+        @Override
+        public int compare(final Holder h1, final Holder h2) {
+            final long b1 = h1.getHeldBytes();
+            final long b2 = h2.getHeldBytes();
+            return b1 < b2 ? 1 : (b1 == b2 ? 0 : -1);
+        }
+    };
+
+    private final long maxBytes;
+    private final List<Holder> holders;
+    private long usedBytes;
+
+    /**
+     * @param maxBytes the budget, in bytes
+     */
+    private MemoryBudget(final long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.holders = new ArrayList<Holder>();
+        this.usedBytes = 0;
+    }
+
+    /**
+     * @param holder a new holder of rows, that may be asked to spill
+     */
+    public void register(final Holder holder) {
+        this.holders.add(holder);
+    }
+
+    /**
+     * While the budget is exceeded, ask the holders to spill, the holder that holds the most
+     * memory first. The requester keeps its last rows, that are probably being filled.
+     *
+     * @param requester the holder that has just reserved memory
+     * @throws IOException if a holder can't spill
+     */
+    public void enforce(final Holder requester) throws IOException {
+        if (!this.isExceeded()) {
+            return;
+        }
+        final List<Holder> sortedHolders = new ArrayList<Holder>(this.holders);
+        Collections.sort(sortedHolders, BY_HELD_BYTES_DESC);
+        for (final Holder holder : sortedHolders) {
+            holder.spill(holder == requester);
+            if (!this.isExceeded()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param bytes the estimated size of objects that are now held in memory
+     */
+    public void reserve(final long bytes) {
+        this.usedBytes += bytes;
+    }
+
+    /**
+     * @param bytes the estimated size of objects that were dropped
+     */
+    public void release(final long bytes) {
+        this.usedBytes = Math.max(0, this.usedBytes - bytes);
+    }
+
+    /**
+     * @return true if the objects held in memory exceed the budget
+     */
+    public boolean isExceeded() {
+        return this.usedBytes > this.maxBytes;
+    }
+
+    /**
+     * @return the estimated size of the objects held in memory
+     */
+    public long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * A holder of rows, e.g. a table.
+     */
+    public interface Holder {
+        /**
+         * @return the estimated size of the rows held in memory
+         */
+        long getHeldBytes();
+
+        /**
+         * Spill the rows that can be spilled, and release their size from the budget.
+         *
+         * @param keepLastRows true to keep the last rows in memory
+         * @throws IOException if the rows can't be spilled
+         */
+        void spill(boolean keepLastRows) throws IOException;
+    }
+}
@@ -122,6 +122,21 @@ public class MultiContainer<K, S extends Enum<S>, V> {
         return true;
     }
 
+    /**
+     * Remove a value from this multi container, whatever the sub container
+     *
+     * @param key the key
+     * @return true if the key was present
+     */
+    public boolean remove(final K key) {
+        final S subContainer = this.subContainerByKey.remove(key);
+        if (subContainer == null) {
+            return false;
+        }
+        this.valueByKeyBySubContainer.get(subContainer).remove(key);
+        return true;
+    }
+
     /**
      * @param key          the key
      * @param subContainer the sub container
@@ -0,0 +1,56 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.Map;
+
+/**
+ * A compression strategy that gives a compression to some entries, and a default compression
+ * to the others.
+ *
+ * @author Julien Férard
+ */
+class PerEntryCompressionStrategy implements CompressionStrategy {
+    private final EntryCompression defaultCompression;
+    private final Map<String, EntryCompression> compressionByEntryName;
+
+    /**
+     * @param defaultCompression     the compression of the entries that are not in the map
+     * @param compressionByEntryName the compression of some entries
+     */
+    PerEntryCompressionStrategy(final EntryCompression defaultCompression,
+                                final Map<String, EntryCompression> compressionByEntryName) {
+        this.defaultCompression = defaultCompression;
+        this.compressionByEntryName = compressionByEntryName;
+    }
+
+    @Override
+    public EntryCompression getCompression(final String entryName) {
+        final EntryCompression compression = this.compressionByEntryName.get(entryName);
+        if (compression == null) {
+            return this.defaultCompression;
+        }
+        return compression;
+    }
+}
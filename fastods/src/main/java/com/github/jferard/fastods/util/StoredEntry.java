@@ -0,0 +1,151 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * An immutable zip entry that is not compressed, whose bytes, size and CRC are computed once,
+ * to be written to a lot of archives: a shared picture, a macro module, a template part. The
+ * entry is copied byte for byte: there is no UTF-8 encoding and no compression cost.
+ *
+ * A stored entry fits the content that is already compressed (e.g. PNG or JPEG pictures).
+ * Other content takes its full size in the archive: use
+ * {@link com.github.jferard.fastods.OdsDocument#addExtraFile(String, String, CharSequence)}
+ * to have it compressed.
+ *
+ * A stored entry is thread safe: it may be written to several archives at the same time.
+ *
+ * @author Julien Férard
+ */
+public final class StoredEntry {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Create an entry.
+     *
+     * @param name  the name of the entry
+     * @param bytes the content. The array shall not be modified.
+     * @return the stored entry
+     */
+    public static StoredEntry create(final String name, final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return new StoredEntry(name, bytes, crc.getValue());
+    }
+
+    /**
+     * Create an entry.
+     *
+     * @param name the name of the entry
+     * @param text the content, that will be encoded in UTF-8
+     * @return the stored entry
+     */
+    public static StoredEntry create(final String name, final CharSequence text) {
+        return StoredEntry.create(name, text.toString().getBytes(ZipUTF8Writer.UTF_8));
+    }
+
+    /**
+     * Read a stored entry of another archive, once. A deflated entry is rejected: it would take
+     * its full size in the archive.
+     *
+     * @param zipFile the source archive
+     * @param entry   the entry of the source archive
+     * @return the stored entry
+     * @throws IOException              if the entry can't be read
+     * @throws IllegalArgumentException if the entry is not stored
+     */
+    public static StoredEntry copyOf(final ZipFile zipFile, final ZipEntry entry)
+            throws IOException {
+        if (entry.getMethod() != ZipEntry.STORED) {
+            throw new IllegalArgumentException("The entry " + entry.getName() + " is not stored");
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(
+                entry.getSize() > 0 ? (int) entry.getSize() : BUFFER_SIZE);
+        final InputStream in = zipFile.getInputStream(entry);
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int count = in.read(buffer);
+            while (count != -1) {
+                out.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+        } finally {
+            in.close();
+        }
+        return StoredEntry.create(entry.getName(), out.toByteArray());
+    }
+
+    private final String name;
+    private final byte[] bytes;
+    private final long crc;
+
+    /**
+     * @param name  the name of the entry
+     * @param bytes the content
+     * @param crc   the CRC-32 of the content
+     */
+    private StoredEntry(final String name, final byte[] bytes, final long crc) {
+        this.name = name;
+        this.bytes = bytes;
+        this.crc = crc;
+    }
+
+    /**
+     * @return the name of the entry
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the size of the entry, in bytes
+     */
+    public int getSize() {
+        return this.bytes.length;
+    }
+
+    /**
+     * Write the entry to a zip stream. The current entry of the stream must be closed.
+     *
+     * @param zipStream the destination
+     * @throws IOException if an I/O error occurs
+     */
+    void writeTo(final ZipOutputStream zipStream) throws IOException {
+        final ZipEntry entry = new ZipEntry(this.name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(this.bytes.length);
+        entry.setCompressedSize(this.bytes.length);
+        entry.setCrc(this.crc);
+        zipStream.putNextEntry(entry);
+        zipStream.write(this.bytes);
+        zipStream.closeEntry();
+    }
+}
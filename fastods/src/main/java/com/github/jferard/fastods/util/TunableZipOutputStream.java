@@ -0,0 +1,50 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.OutputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A ZipOutputStream that exposes the strategy of its Deflater.
+ *
+ * @author Julien Férard
+ */
+class TunableZipOutputStream extends ZipOutputStream {
+    /**
+     * @param out the destination
+     */
+    TunableZipOutputStream(final OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * Set the strategy of the Deflater for the next entries.
+     *
+     * @param strategy the strategy (Deflater.DEFAULT_STRATEGY, FILTERED or HUFFMAN_ONLY)
+     */
+    public void setStrategy(final int strategy) {
+        this.def.setStrategy(strategy);
+    }
+}
@@ -40,6 +40,7 @@ public class WriteUtil {
 
     private final int maxInt;
     private final String[] ints;
+    private final String[] doubles;
 
     /**
      * @param maxInt the max int in cache
@@ -47,6 +48,7 @@ public class WriteUtil {
     WriteUtil(final int maxInt) {
         this.maxInt = maxInt;
         this.ints = new String[2 * maxInt];
+        this.doubles = new String[2 * maxInt];
     }
 
     /**
@@ -64,4 +66,51 @@ public class WriteUtil {
             return Integer.toString(value);
         }
     }
+
+    /**
+     * @param value the value to convert to String
+     * @return the same value as a String
+     */
+    public String toString(final long value) {
+        if (-this.maxInt <= value && value < this.maxInt) {
+            return this.toString((int) value);
+        } else {
+            return Long.toString(value);
+        }
+    }
+
+    /**
+     * @param value the value to convert to String
+     * @return the same value as a String, e.g. "2.0" for 2.0
+     */
+    public String toString(final double value) {
+        final int intValue = (int) value;
+        if (intValue == value && -this.maxInt <= intValue && intValue < this.maxInt &&
+                (intValue != 0 || 1 / value > 0)) { // -0.0 is not cached
+            final int i = intValue + this.maxInt;
+            if (this.doubles[i] == null) {
+                this.doubles[i] = Double.toString(value);
+            }
+            return this.doubles[i];
+        } else {
+            return Double.toString(value);
+        }
+    }
+
+    /**
+     * @param value the value to convert to String
+     * @return the same value as a String: value.toString(), but the small ints, longs and
+     * integral doubles are cached
+     */
+    public String toString(final Number value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return this.toString(value.intValue());
+        } else if (value instanceof Long) {
+            return this.toString(value.longValue());
+        } else if (value instanceof Double) {
+            return this.toString(value.doubleValue());
+        } else {
+            return value.toString();
+        }
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * A minimal XML scanner: it copies the text between tags verbatim and stops on every tag,
+ * without building a tree or decoding the attributes. Used to splice new XML into an
+ * existing document in one pass.
+ *
+ * @author Julien Férard
+ */
+public class XMLTagReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param tag      a tag, e.g. "&lt;table:table table:name=\"t\"&gt;"
+     * @param attrName the name of the attribute, e.g. "table:name"
+     * @return the raw (escaped) value of the attribute, or null
+     */
+    public static String getRawAttribute(final CharSequence tag, final String attrName) {
+        final String s = tag.toString();
+        final String prefix = attrName + "=";
+        int i = s.indexOf(prefix);
+        while (i != -1) {
+            final int valueStart = i + prefix.length() + 1;
+            if (Character.isWhitespace(s.charAt(i - 1)) && valueStart < s.length()) {
+                final char quote = s.charAt(valueStart - 1);
+                final int valueEnd = s.indexOf(quote, valueStart);
+                if (valueEnd != -1) {
+                    return s.substring(valueStart, valueEnd);
+                }
+            }
+            i = s.indexOf(prefix, i + 1);
+        }
+        return null;
+    }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder tag;
+    private int position;
+    private int length;
+
+    /**
+     * @param reader the source
+     */
+    public XMLTagReader(final Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.tag = new StringBuilder();
+        this.position = 0;
+        this.length = 0;
+    }
+
+    /**
+     * Copy the text up to the next tag and read that tag. Comments and processing instructions
+     * are returned as tags.
+     *
+     * @param writer the destination of the text, or null to skip the text
+     * @return true if a tag was read, false if the end of the source was reached.
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean copyToNextTag(final Writer writer) throws IOException {
+        this.tag.setLength(0);
+        while (true) {
+            if (this.position == this.length && !this.fill()) {
+                return false;
+            }
+            final int start = this.position;
+            while (this.position < this.length && this.buffer[this.position] != '<') {
+                this.position++;
+            }
+            if (writer != null && this.position > start) {
+                writer.write(this.buffer, start, this.position - start);
+            }
+            if (this.position < this.length) {
+                this.readTag();
+                return true;
+            }
+        }
+    }
+
+    private void readTag() throws IOException {
+        char quote = 0;
+        while (true) {
+            if (this.position == this.length && !this.fill()) {
+                throw new IOException("Unexpected end of XML: " + this.tag);
+            }
+            final char c = this.buffer[this.position++];
+            this.tag.append(c);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                if (!this.isComment()) {
+                    quote = c;
+                }
+            } else if (c == '>' && (!this.isComment() || this.endsWith("-->"))) {
+                return;
+            }
+        }
+    }
+
+    private boolean isComment() {
+        return this.tag.length() >= 4 && this.tag.charAt(1) == '!' && this.tag.charAt(2) == '-' &&
+                this.tag.charAt(3) == '-';
+    }
+
+    private boolean endsWith(final String suffix) {
+        final int start = this.tag.length() - suffix.length();
+        return start >= 0 && this.regionMatches(start, suffix);
+    }
+
+    private boolean regionMatches(final int start, final String s) {
+        final int l = s.length();
+        if (start + l > this.tag.length()) {
+            return false;
+        }
+        for (int i = 0; i < l; i++) {
+            if (this.tag.charAt(start + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        this.length = this.reader.read(this.buffer);
+        this.position = 0;
+        if (this.length == -1) {
+            this.length = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the last tag read
+     */
+    public CharSequence getTag() {
+        return this.tag;
+    }
+
+    /**
+     * @param name the qualified name of the element, e.g. "table:table"
+     * @return true if the last tag is a start tag (or an empty element tag) of that element
+     */
+    public boolean isStartTag(final String name) {
+        return this.isTag(1, name);
+    }
+
+    /**
+     * @param name the qualified name of the element, e.g. "table:table"
+     * @return true if the last tag is an end tag of that element
+     */
+    public boolean isEndTag(final String name) {
+        return this.tag.length() > 1 && this.tag.charAt(1) == '/' && this.isTag(2, name);
+    }
+
+    /**
+     * @return true if the last tag is an empty element tag ("&lt;a/&gt;")
+     */
+    public boolean isEmptyElementTag() {
+        final int l = this.tag.length();
+        return l >= 2 && this.tag.charAt(l - 2) == '/';
+    }
+
+    private boolean isTag(final int start, final String name) {
+        final int end = start + name.length();
+        if (end >= this.tag.length() || !this.regionMatches(start, name)) {
+            return false;
+        }
+        final char c = this.tag.charAt(end);
+        return c == '>' || c == '/' || Character.isWhitespace(c);
+    }
+}
@@ -38,6 +38,19 @@ public class XMLUtil {
      */
     public static final char SPACE_CHAR = ' ';
 
+    /**
+     * The pairs of digits "00", "01", ..., "99"
+     */
+    private static final char[] DIGIT_PAIRS;
+
+    static {
+        DIGIT_PAIRS = new char[200];
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+    }
+
     /**
      * @return a new default xml util
      */
@@ -47,6 +60,7 @@ public class XMLUtil {
     }
 
     private final XMLEscaper escaper;
+    private final char[] digits;
 
     /**
      * Create a new util
@@ -55,6 +69,7 @@ public class XMLUtil {
      */
     XMLUtil(final XMLEscaper escaper) {
         this.escaper = escaper;
+        this.digits = new char[20];
     }
 
     /**
@@ -99,7 +114,67 @@ public class XMLUtil {
      */
     public void appendAttribute(final Appendable appendable, final CharSequence attrName,
                                 final int attrValue) throws IOException {
-        this.appendAttribute(appendable, attrName, Integer.toString(attrValue));
+        appendable.append(' ').append(attrName).append("=\"");
+        this.appendLong(appendable, attrValue);
+        appendable.append('"');
+    }
+
+    /**
+     * Append a new element to the appendable element, the name of the element is
+     * attrName and the value is attrValue.
+     *
+     * @param appendable The StringBuilder to which the new element should be added.
+     * @param attrName   The new element name
+     * @param attrValue  The value of the element
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendAttribute(final Appendable appendable, final CharSequence attrName,
+                                final long attrValue) throws IOException {
+        appendable.append(' ').append(attrName).append("=\"");
+        this.appendLong(appendable, attrValue);
+        appendable.append('"');
+    }
+
+    /**
+     * Append a long (or an int) without creating a String: same result as
+     * appendable.append(Long.toString(value)).
+     *
+     * @param appendable the destination
+     * @param value      the value
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendLong(final Appendable appendable, final long value) throws IOException {
+        if (value == Long.MIN_VALUE) { // -value overflows
+            appendable.append(Long.toString(value));
+            return;
+        }
+        long v = value;
+        if (v < 0) {
+            appendable.append('-');
+            v = -v;
+        }
+        if (v < 10) {
+            appendable.append((char) ('0' + v));
+            return;
+        }
+
+        int pos = this.digits.length;
+        while (v >= 100) {
+            final int pair = 2 * (int) (v % 100);
+            v /= 100;
+            this.digits[--pos] = DIGIT_PAIRS[pair + 1];
+            this.digits[--pos] = DIGIT_PAIRS[pair];
+        }
+        if (v >= 10) {
+            final int pair = 2 * (int) v;
+            this.digits[--pos] = DIGIT_PAIRS[pair + 1];
+            this.digits[--pos] = DIGIT_PAIRS[pair];
+        } else {
+            this.digits[--pos] = (char) ('0' + v);
+        }
+        while (pos < this.digits.length) {
+            appendable.append(this.digits[pos++]);
+        }
     }
 
     /**
@@ -245,4 +320,14 @@ public class XMLUtil {
                                         final double seconds) {
         return '-' + this.formatTimeInterval(years, months, days, hours, minutes, seconds);
     }
+
+    /**
+     * Clear the caches of the escaper, to reuse this util for another document. Other escapers
+     * than the FastOdsXMLEscaper are left unchanged.
+     */
+    public void reset() {
+        if (this.escaper instanceof FastOdsXMLEscaper) {
+            ((FastOdsXMLEscaper) this.escaper).reset();
+        }
+    }
 }
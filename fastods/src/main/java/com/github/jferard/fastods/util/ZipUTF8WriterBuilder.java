@@ -28,6 +28,8 @@ import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.Deflater;
 import java.util.zip.ZipOutputStream;
 
@@ -40,7 +42,10 @@ public class ZipUTF8WriterBuilder {
     private static final int DEFAULT_BUFFER = -1;
     private static final int NO_BUFFER = -2;
 
+    private final Map<String, EntryCompression> compressionByEntryName;
     private int level;
+    private int strategy;
+    private CompressionStrategy compressionStrategy;
     private int writerBufferSize;
     private int zipBufferSize;
 
@@ -48,7 +53,10 @@ public class ZipUTF8WriterBuilder {
      * Create a new builder
      */
     ZipUTF8WriterBuilder() {
+        this.compressionByEntryName = new HashMap<String, EntryCompression>();
         this.level = Deflater.BEST_SPEED;
+        this.strategy = Deflater.DEFAULT_STRATEGY;
+        this.compressionStrategy = null;
         this.writerBufferSize = ZipUTF8WriterBuilder.DEFAULT_BUFFER;
         this.zipBufferSize = ZipUTF8WriterBuilder.DEFAULT_BUFFER;
     }
@@ -72,9 +80,10 @@ public class ZipUTF8WriterBuilder {
                 bufferedOut = new BufferedOutputStream(out, this.zipBufferSize);
                 break;
         }
-        final ZipOutputStream zipOut = new ZipOutputStream(bufferedOut);
+        final TunableZipOutputStream zipOut = new TunableZipOutputStream(bufferedOut);
         zipOut.setMethod(ZipOutputStream.DEFLATED);
         zipOut.setLevel(this.level);
+        zipOut.setStrategy(this.strategy);
         final Writer writer = new OutputStreamWriter(zipOut, ZipUTF8Writer.UTF_8);
         final Writer bufferedWriter;
         switch (this.writerBufferSize) {
@@ -88,7 +97,62 @@ public class ZipUTF8WriterBuilder {
                 bufferedWriter = new BufferedWriter(writer, this.writerBufferSize);
                 break;
         }
-        return new ZipUTF8WriterImpl(zipOut, bufferedWriter);
+        return new ZipUTF8WriterImpl(zipOut, bufferedWriter, this.getCompressionStrategy());
+    }
+
+    private CompressionStrategy getCompressionStrategy() {
+        if (this.compressionStrategy != null) {
+            return this.compressionStrategy;
+        }
+        if (this.compressionByEntryName.isEmpty()) {
+            return null;
+        }
+        return new PerEntryCompressionStrategy(
+                EntryCompression.deflated(this.level, this.strategy),
+                new HashMap<String, EntryCompression>(this.compressionByEntryName));
+    }
+
+    /**
+     * Set the compression of a given entry. Ignored if a compression strategy was set.
+     *
+     * @param entryName   the name of the entry, e.g. "mimetype" or "content.xml"
+     * @param compression the compression of this entry
+     * @return this for fluent style
+     * @throws IllegalArgumentException if content.xml would be stored
+     */
+    public ZipUTF8WriterBuilder entryCompression(final String entryName,
+                                                 final EntryCompression compression) {
+        ZipUTF8WriterImpl.checkCompression(entryName, compression);
+        this.compressionByEntryName.put(entryName, compression);
+        return this;
+    }
+
+    /**
+     * Set the compression strategy, that gives the compression of every entry. Overrides the
+     * level, the strategy and the entry compressions.
+     *
+     * @param compressionStrategy the strategy
+     * @return this for fluent style
+     */
+    public ZipUTF8WriterBuilder compressionStrategy(
+            final CompressionStrategy compressionStrategy) {
+        this.compressionStrategy = compressionStrategy;
+        return this;
+    }
+
+    /**
+     * Set the Deflater strategy of the entries
+     *
+     * @param strategy the strategy (Deflater.DEFAULT_STRATEGY, FILTERED or HUFFMAN_ONLY)
+     * @return this for fluent style
+     */
+    public ZipUTF8WriterBuilder strategy(final int strategy) {
+        if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED &&
+                strategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("invalid compression strategy");
+        }
+        this.strategy = strategy;
+        return this;
     }
 
     /**
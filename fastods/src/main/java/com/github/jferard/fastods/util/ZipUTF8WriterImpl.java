@@ -25,6 +25,7 @@ package com.github.jferard.fastods.util;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -33,9 +34,14 @@ import java.util.zip.ZipOutputStream;
  *
  * @author Julien Férard
  */
-public class ZipUTF8WriterImpl implements ZipUTF8Writer {
+public class ZipUTF8WriterImpl implements ZipUTF8Writer, StoredEntryWriter {
+    private static final String CONTENT_XML = "content.xml";
+
     private final Writer writer;
     private final ZipOutputStream zipStream;
+    private final CompressionStrategy compressionStrategy;
+    private ZipEntry storedEntry;
+    private StringBuilder storedContent;
 
     /**
      * Create a new writer. Do not use directly. Use a builder if you want to avoid mistakes
@@ -44,8 +50,22 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
      * @param writer    the utf-8 writer
      */
     ZipUTF8WriterImpl(final ZipOutputStream zipStream, final Writer writer) {
+        this(zipStream, writer, null);
+    }
+
+    /**
+     * Create a new writer. Do not use directly. Use a builder if you want to avoid mistakes
+     *
+     * @param zipStream           the zip stream
+     * @param writer              the utf-8 writer
+     * @param compressionStrategy the compression of each entry, null to keep the settings of
+     *                            the zip stream
+     */
+    ZipUTF8WriterImpl(final ZipOutputStream zipStream, final Writer writer,
+                      final CompressionStrategy compressionStrategy) {
         this.zipStream = zipStream;
         this.writer = writer;
+        this.compressionStrategy = compressionStrategy;
     }
 
     /**
@@ -55,35 +75,95 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
         return new ZipUTF8WriterBuilder();
     }
 
+    /**
+     * A stored entry is buffered in memory: content.xml, that may be huge, can't be stored.
+     *
+     * @param entryName   the name of the entry
+     * @param compression the compression of the entry
+     * @throws IllegalArgumentException if content.xml would be stored
+     */
+    static void checkCompression(final String entryName, final EntryCompression compression) {
+        if (compression.isStored() && CONTENT_XML.equals(entryName)) {
+            throw new IllegalArgumentException(
+                    "content.xml can't be stored, use deflated(Deflater.NO_COMPRESSION)");
+        }
+    }
+
     @Override
     public Appendable append(final char c) throws IOException {
+        if (this.storedContent != null) {
+            this.storedContent.append(c);
+            return this;
+        }
         return this.writer.append(c);
     }
 
     @Override
     public Appendable append(final CharSequence arg0) throws IOException {
+        if (this.storedContent != null) {
+            this.storedContent.append(arg0);
+            return this;
+        }
         return this.writer.append(arg0);
     }
 
     @Override
     public Appendable append(final CharSequence csq, final int start, final int end)
             throws IOException {
+        if (this.storedContent != null) {
+            this.storedContent.append(csq, start, end);
+            return this;
+        }
         return this.writer.append(csq, start, end);
     }
 
     @Override
     public void close() throws IOException {
+        if (this.storedEntry != null) {
+            this.writeBufferedEntry();
+        }
         this.zipStream.close();
     }
 
     @Override
     public void closeEntry() throws IOException {
+        if (this.storedEntry != null) {
+            this.writeBufferedEntry();
+            return;
+        }
         this.writer.flush();
         this.zipStream.closeEntry();
     }
 
+    /**
+     * A stored entry needs its size and its CRC before the data: the content was buffered and is
+     * written now.
+     *
+     * @throws IOException if the entry can't be written
+     */
+    private void writeBufferedEntry() throws IOException {
+        final byte[] bytes = this.storedContent.toString().getBytes(ZipUTF8Writer.UTF_8);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        final ZipEntry entry = this.storedEntry;
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        this.storedEntry = null;
+        this.storedContent = null;
+
+        this.writer.flush();
+        this.zipStream.putNextEntry(entry);
+        this.zipStream.write(bytes);
+        this.zipStream.closeEntry();
+    }
+
     @Override
     public void finish() throws IOException {
+        if (this.storedEntry != null) {
+            this.writeBufferedEntry();
+        }
         this.writer.flush();
         this.zipStream.finish();
     }
@@ -95,9 +175,37 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
 
     @Override
     public void putNextEntry(final ZipEntry entry) throws IOException {
+        if (this.storedEntry != null) {
+            this.writeBufferedEntry();
+        }
+        if (this.compressionStrategy != null) {
+            final EntryCompression compression =
+                    this.compressionStrategy.getCompression(entry.getName());
+            ZipUTF8WriterImpl.checkCompression(entry.getName(), compression);
+            if (compression.isStored()) {
+                this.writer.flush();
+                this.storedEntry = entry;
+                this.storedContent = new StringBuilder();
+                return;
+            }
+            this.zipStream.setLevel(compression.getLevel());
+            if (this.zipStream instanceof TunableZipOutputStream) {
+                ((TunableZipOutputStream) this.zipStream).setStrategy(compression.getStrategy());
+            }
+        }
         this.zipStream.putNextEntry(entry);
     }
 
+    @Override
+    public void writeStoredEntry(final StoredEntry entry) throws IOException {
+        if (this.storedEntry != null) {
+            this.writeBufferedEntry();
+        } else {
+            this.writer.flush();
+        }
+        entry.writeTo(this.zipStream);
+    }
+
     @Override
     public void setComment(final String comment) {
         this.zipStream.setComment(comment);
@@ -105,6 +213,6 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
 
     @Override
     public void write(final CharSequence sequence) throws IOException {
-        this.writer.append(sequence);
+        this.append(sequence);
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+
+public class AdaptiveFlushPolicyTest {
+    private MemoryMXBean bean;
+    private AdaptiveFlushPolicy policy;
+
+    @Before
+    public void setUp() {
+        this.bean = PowerMock.createMock(MemoryMXBean.class);
+        this.policy = new AdaptiveFlushPolicy(this.bean, 10000, 0.8);
+    }
+
+    @Test
+    public final void testFirstChunk() {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        Assert.assertFalse(this.policy.shouldFlush(0));
+        Assert.assertFalse(this.policy.shouldFlush(10));
+        Assert.assertTrue(this.policy.shouldFlush(AdaptiveFlushPolicy.FIRST_CHUNK_ROW_COUNT));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public final void testMeasuredLength() {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.policy.rowsFlushed(100, 10000); // 100 chars per row
+        Assert.assertEquals(100.0, this.policy.getLengthPerRow(), 0.0);
+        Assert.assertFalse(this.policy.shouldFlush(99));
+        Assert.assertTrue(this.policy.shouldFlush(100));
+
+        this.policy.rowsFlushed(100, 30000); // 300 chars per row
+        Assert.assertEquals(200.0, this.policy.getLengthPerRow(), 0.0);
+        Assert.assertTrue(this.policy.shouldFlush(50));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public final void testHeapUsage() {
+        PowerMock.resetAll();
+        EasyMock.expect(this.bean.getHeapMemoryUsage())
+                .andReturn(new MemoryUsage(0, 900, 1000, 1000));
+
+        PowerMock.replayAll();
+        for (int i = 0; i < AdaptiveFlushPolicy.HEAP_CHECK_INTERVAL - 1; i++) {
+            Assert.assertFalse(this.policy.shouldFlush(1));
+        }
+        Assert.assertTrue(this.policy.shouldFlush(1));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public final void testUndefinedMaxHeap() {
+        PowerMock.resetAll();
+        EasyMock.expect(this.bean.getHeapMemoryUsage())
+                .andReturn(new MemoryUsage(0, 500, 1000, -1));
+
+        PowerMock.replayAll();
+        for (int i = 0; i < AdaptiveFlushPolicy.HEAP_CHECK_INTERVAL; i++) {
+            Assert.assertFalse(this.policy.shouldFlush(1));
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testBadTargetLength() {
+        AdaptiveFlushPolicy.create(0, 0.8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testBadMaxHeapUsage() {
+        AdaptiveFlushPolicy.create(1024, 1.5);
+    }
+}
@@ -41,7 +41,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.powermock.api.easymock.PowerMock;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
+import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -101,6 +106,38 @@ public class AnonymousOdsFileWriterTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public final void testSaveFlat() throws Exception {
+        final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
+        final Table table = writer.document().addTable("flat");
+        table.getRow(0).getOrCreateCell(0).setFloatValue(10);
+        table.getRow(1).getOrCreateCell(0).setStringValue("a < b");
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        writer.saveFlat(this.os);
+
+        PowerMock.verifyAll();
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        final Document document = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(this.os.toByteArray()));
+        final Element root = document.getDocumentElement();
+        Assert.assertEquals("office:document", root.getTagName());
+        Assert.assertEquals("application/vnd.oasis.opendocument.spreadsheet",
+                root.getAttribute("office:mimetype"));
+        final List<String> children = new ArrayList<String>();
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            children.add(child.getNodeName());
+        }
+        Assert.assertEquals(Arrays.asList("office:meta", "office:settings",
+                "office:font-face-decls", "office:styles", "office:automatic-styles",
+                "office:master-styles", "office:body"), children);
+        final NodeList cells = document.getElementsByTagName("table:table-cell");
+        Assert.assertEquals("10", ((Element) cells.item(0)).getAttribute("office:value"));
+        Assert.assertEquals("a < b", ((Element) cells.item(1)).getAttribute("office:string-value"));
+    }
+
     @Test
     public final void testSaveEmpyDocumentToStream() throws IOException {
         final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
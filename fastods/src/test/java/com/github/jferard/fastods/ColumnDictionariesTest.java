@@ -0,0 +1,84 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnDictionariesTest {
+    private ColumnDictionaries dictionaries;
+    private XMLUtil util;
+
+    @Before
+    public void setUp() {
+        this.dictionaries = new ColumnDictionaries();
+        this.util = XMLUtil.create();
+    }
+
+    @Test
+    public final void testNoDictionary() {
+        final String value = new String("FR");
+        Assert.assertFalse(this.dictionaries.hasDictionary(3));
+        Assert.assertSame(value, this.dictionaries.intern(3, value, this.util));
+        Assert.assertNull(this.dictionaries.getEscapedValue(3, value));
+        Assert.assertEquals(0, this.dictionaries.getCardinality(3));
+    }
+
+    @Test
+    public final void testSharedValues() {
+        this.dictionaries.setDictionary(3, 10);
+        final String value1 = this.dictionaries.intern(3, new String("FR"), this.util);
+        final String value2 = this.dictionaries.intern(3, new String("FR"), this.util);
+
+        Assert.assertTrue(this.dictionaries.hasDictionary(3));
+        Assert.assertFalse(this.dictionaries.hasDictionary(2));
+        Assert.assertSame(value1, value2);
+        Assert.assertEquals(1, this.dictionaries.getCardinality(3));
+        Assert.assertEquals("FR", this.dictionaries.getEscapedValue(3, "FR"));
+    }
+
+    @Test
+    public final void testEscapedValue() {
+        this.dictionaries.setDictionary(0, 10);
+        this.dictionaries.intern(0, "R&D", this.util);
+        Assert.assertEquals("R&amp;D", this.dictionaries.getEscapedValue(0, "R&D"));
+    }
+
+    @Test
+    public final void testMaxCardinality() {
+        this.dictionaries.setDictionary(0, 1);
+        this.dictionaries.intern(0, "FR", this.util);
+        final String value = new String("US");
+        Assert.assertSame(value, this.dictionaries.intern(0, value, this.util));
+        Assert.assertNull(this.dictionaries.getEscapedValue(0, "US"));
+        Assert.assertEquals(1, this.dictionaries.getCardinality(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testZeroCardinality() {
+        this.dictionaries.setDictionary(0, 0);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+public class ColumnTypedStylesTest {
+    private ColumnTypedStyles columnTypedStyles;
+    private DataStyles ds;
+
+    @Before
+    public void setUp() {
+        this.columnTypedStyles = new ColumnTypedStyles(2);
+        this.ds = DataStylesBuilder.create(Locale.US).build();
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertNull(this.columnTypedStyles
+                .get(0, TableCellStyle.DEFAULT_CELL_STYLE, this.ds.getFloatDataStyle()));
+        Assert.assertNull(this.columnTypedStyles
+                .get(10, TableCellStyle.DEFAULT_CELL_STYLE, this.ds.getFloatDataStyle()));
+    }
+
+    @Test
+    public void testPutGet() {
+        final TableCellStyle s1 = TableCellStyle.builder("s1").build();
+        final TableCellStyle s2 = TableCellStyle.builder("s2").build();
+        final DataStyle floatStyle = this.ds.getFloatDataStyle();
+        final DataStyle dateStyle = this.ds.getDateDataStyle();
+        this.columnTypedStyles.put(5, TableCellStyle.DEFAULT_CELL_STYLE, floatStyle, s1);
+        this.columnTypedStyles.put(5, TableCellStyle.DEFAULT_CELL_STYLE, dateStyle, s2);
+
+        Assert.assertSame(s1,
+                this.columnTypedStyles.get(5, TableCellStyle.DEFAULT_CELL_STYLE, floatStyle));
+        Assert.assertSame(s2,
+                this.columnTypedStyles.get(5, TableCellStyle.DEFAULT_CELL_STYLE, dateStyle));
+        Assert.assertNull(this.columnTypedStyles.get(5, s1, floatStyle));
+        Assert.assertNull(
+                this.columnTypedStyles.get(4, TableCellStyle.DEFAULT_CELL_STYLE, floatStyle));
+    }
+
+    @Test
+    public void testFullColumn() {
+        final DataStyle floatStyle = this.ds.getFloatDataStyle();
+        final TableCellStyle[] styles = new TableCellStyle[10];
+        for (int i = 0; i < 10; i++) {
+            styles[i] = TableCellStyle.builder("s" + i).build();
+            this.columnTypedStyles.put(0, styles[i], floatStyle, styles[i]);
+        }
+        Assert.assertSame(styles[0], this.columnTypedStyles.get(0, styles[0], floatStyle));
+        Assert.assertNull(this.columnTypedStyles.get(0, styles[7], floatStyle));
+        Assert.assertSame(styles[9], this.columnTypedStyles.get(0, styles[9], floatStyle));
+    }
+}
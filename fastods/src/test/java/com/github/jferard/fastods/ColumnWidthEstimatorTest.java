@@ -0,0 +1,92 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.SimpleLength;
+import com.github.jferard.fastods.style.TextProperties;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnWidthEstimatorTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSample() {
+        ColumnWidthEstimator.create(0);
+    }
+
+    @Test
+    public void testParseFontSize() {
+        Assert.assertEquals(10.0, ColumnWidthEstimator.parseFontSizePt(null), 0.001);
+        Assert.assertEquals(12.0, ColumnWidthEstimator.parseFontSizePt("12pt"), 0.001);
+        Assert.assertEquals(12.0, ColumnWidthEstimator.parseFontSizePt("120%"), 0.001);
+        Assert.assertEquals(28.346, ColumnWidthEstimator.parseFontSizePt("1cm"), 0.001);
+        Assert.assertEquals(36.0, ColumnWidthEstimator.parseFontSizePt("0.5in"), 0.001);
+        Assert.assertEquals(10.0, ColumnWidthEstimator.parseFontSizePt("big"), 0.001);
+    }
+
+    @Test
+    public void testCharWidth() {
+        Assert.assertEquals(5.5, ColumnWidthEstimator
+                .getCharWidthPt(TextProperties.builder().build()), 0.001);
+        Assert.assertEquals(12.0, ColumnWidthEstimator.getCharWidthPt(
+                TextProperties.builder().fontName("Courier New").fontSize(SimpleLength.pt(20))
+                        .build()), 0.001);
+        Assert.assertEquals(4.95, ColumnWidthEstimator.getCharWidthPt(
+                TextProperties.builder().fontName("Arial Narrow").fontWeightBold().build()),
+                0.001);
+    }
+
+    @Test
+    public void testObserve() {
+        final ColumnWidthEstimator estimator = ColumnWidthEstimator.create(10);
+        estimator.observe(3, 100.0);
+        estimator.observe(3, 1.0);
+        estimator.observe(5, 1.0);
+        estimator.observe(7, 1000.0);
+        Assert.assertEquals(0, estimator.getHalfCms(0));
+        Assert.assertEquals(8, estimator.getHalfCms(3));
+        Assert.assertEquals(2, estimator.getHalfCms(5));
+        Assert.assertEquals(24, estimator.getHalfCms(7));
+        Assert.assertEquals(0, estimator.getHalfCms(100));
+    }
+
+    @Test
+    public void testTextCharCount() {
+        Assert.assertEquals(0, ColumnWidthEstimator.getTextCharCount(""));
+        Assert.assertEquals(5, ColumnWidthEstimator.getTextCharCount(
+                "<text:p>a <text:span text:style-name=\"s\">b&amp;c</text:span></text:p>"));
+        Assert.assertEquals(6, ColumnWidthEstimator.getTextCharCount(
+                "<text:p>ab</text:p><text:p><text:a xlink:href=\"u\">link 2</text:a></text:p>"));
+        Assert.assertEquals(3, ColumnWidthEstimator.getTextCharCount(
+                "<text:p>abc<text:line-break/>de</text:p>"));
+    }
+
+    @Test
+    public void testSteps() {
+        final ColumnWidthEstimator estimator = ColumnWidthEstimator.create(10);
+        estimator.observe(0, 100.0); // 7.06 half cms
+        estimator.observe(1, 180.0); // 12.7 half cms
+        Assert.assertEquals(8, estimator.getHalfCms(0));
+        Assert.assertEquals(16, estimator.getHalfCms(1));
+    }
+}
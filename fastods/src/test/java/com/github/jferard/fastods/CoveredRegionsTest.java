@@ -0,0 +1,95 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoveredRegionsTest {
+    private CoveredRegions regions;
+
+    @Before
+    public void setUp() {
+        this.regions = new CoveredRegions();
+    }
+
+    @Test
+    public final void testEmpty() {
+        Assert.assertFalse(this.regions.isCovered(0, 0));
+        Assert.assertArrayEquals(new int[]{}, this.regions.getCoveredColumns(0));
+    }
+
+    @Test
+    public final void testMerge() {
+        // a 3 x 4 merge from (10, 2)
+        this.regions.add(10, 3, 1, 3);
+        this.regions.add(11, 2, 2, 4);
+
+        Assert.assertFalse(this.regions.isCovered(10, 2));
+        Assert.assertTrue(this.regions.isCovered(10, 3));
+        Assert.assertTrue(this.regions.isCovered(12, 2));
+        Assert.assertTrue(this.regions.isCovered(12, 5));
+        Assert.assertFalse(this.regions.isCovered(12, 6));
+        Assert.assertFalse(this.regions.isCovered(13, 2));
+        Assert.assertFalse(this.regions.isCovered(9, 3));
+
+        Assert.assertArrayEquals(new int[]{}, this.regions.getCoveredColumns(9));
+        Assert.assertArrayEquals(new int[]{3, 6}, this.regions.getCoveredColumns(10));
+        Assert.assertArrayEquals(new int[]{2, 6}, this.regions.getCoveredColumns(12));
+        Assert.assertArrayEquals(new int[]{}, this.regions.getCoveredColumns(13));
+    }
+
+    @Test
+    public final void testSortedAndMergedColumns() {
+        this.regions.add(0, 10, 5, 2);
+        this.regions.add(2, 1, 1, 3);
+        this.regions.add(1, 12, 3, 1);
+        this.regions.add(2, 2, 1, 1);
+
+        Assert.assertArrayEquals(new int[]{10, 12}, this.regions.getCoveredColumns(0));
+        Assert.assertArrayEquals(new int[]{1, 4, 10, 13}, this.regions.getCoveredColumns(2));
+        Assert.assertArrayEquals(new int[]{10, 12}, this.regions.getCoveredColumns(4));
+    }
+
+    @Test
+    public final void testRemoveBefore() {
+        this.regions.add(0, 0, 2, 1);
+        this.regions.add(1, 2, 5, 1);
+        this.regions.add(1, 4, 1, 1);
+        this.regions.add(4, 0, 1, 1);
+        this.regions.removeBefore(2);
+        Assert.assertEquals(2, this.regions.size());
+        Assert.assertArrayEquals(new int[]{2, 3}, this.regions.getCoveredColumns(2));
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, this.regions.getCoveredColumns(4));
+    }
+
+    @Test
+    public final void testEmptyRegion() {
+        this.regions.add(0, 0, 0, 2);
+        this.regions.add(0, 0, 2, 0);
+        Assert.assertFalse(this.regions.isCovered(0, 0));
+        Assert.assertArrayEquals(new int[]{}, this.regions.getCoveredColumns(0));
+    }
+}
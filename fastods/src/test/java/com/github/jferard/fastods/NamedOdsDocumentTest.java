@@ -77,6 +77,17 @@ public class NamedOdsDocumentTest extends OdsDocumentTest<NamedOdsDocument> {
     }
 
 
+    @Test(expected = IllegalStateException.class)
+    public final void testAutoColumnWidthStylesAfterTable() {
+        PowerMock.resetAll();
+        TestHelper.initMockDocument(this.odsElements);
+        EasyMock.expect(this.odsElements.getTableCount()).andReturn(1);
+
+        PowerMock.replayAll();
+        final NamedOdsDocument document = this.getDocument();
+        document.addAutoColumnWidthStyles();
+    }
+
     @Test
     public final void testAddPageStyle() {
         final PageStyle ps = PageStyle.builder("p").build();
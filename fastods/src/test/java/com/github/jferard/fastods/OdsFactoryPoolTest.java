@@ -0,0 +1,79 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+public class OdsFactoryPoolTest {
+    private OdsFactoryPool pool;
+
+    @Before
+    public void setUp() {
+        this.pool = OdsFactoryPool.create(Logger.getLogger("test"), Locale.US, 1);
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        final OdsFactory factory = this.pool.acquire();
+        this.saveDocument(factory.noLibreOfficeMode().memoryBudget(1000));
+        this.pool.release(factory);
+        Assert.assertEquals(1, this.pool.getIdleCount());
+
+        final OdsFactory factory2 = this.pool.acquire();
+        Assert.assertSame(factory, factory2);
+        Assert.assertEquals(0, this.pool.getIdleCount());
+        this.saveDocument(factory2);
+    }
+
+    @Test
+    public void testBound() {
+        final OdsFactory factory = this.pool.acquire();
+        final OdsFactory factory2 = this.pool.acquire();
+        Assert.assertNotSame(factory, factory2);
+        this.pool.release(factory);
+        this.pool.release(factory2);
+        Assert.assertEquals(1, this.pool.getIdleCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        OdsFactoryPool.create(-1);
+    }
+
+    private void saveDocument(final OdsFactory factory) throws IOException {
+        final AnonymousOdsFileWriter writer = factory.createWriter();
+        final Table table = writer.document().addTable("pool");
+        table.getRow(0).getOrCreateCell(0).setStringValue("<a>");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        Assert.assertTrue(out.size() > 0);
+    }
+}
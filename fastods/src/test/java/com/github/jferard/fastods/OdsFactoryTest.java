@@ -32,10 +32,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.Locale;
+import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipFile;
 
 /**
  * Created by jferard on 09/05/17.
@@ -79,6 +83,154 @@ public class OdsFactoryTest {
         Assert.assertTrue(this.file.length() > 0);
     }
 
+    @Test
+    public void testNamedWriterAutoColumnWidths() throws Exception {
+        PowerMock.resetAll();
+        this.logger.log(Level.FINE, "file saved");
+
+        PowerMock.replayAll();
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final NamedOdsDocument document = writer.document();
+        document.addAutoColumnWidthStyles();
+        final Table table = document.addTable("auto");
+        table.setAutoColumnWidths(2);
+        for (int r = 0; r < 10; r++) {
+            table.getRow(r).getOrCreateCell(0).setStringValue("a long value, a long value");
+        }
+        writer.save();
+        writer.close();
+
+        PowerMock.verifyAll();
+        final ZipFile zipFile = new ZipFile(this.file);
+        try {
+            final String content = new Scanner(
+                    zipFile.getInputStream(zipFile.getEntry("content.xml")), "UTF-8")
+                    .useDelimiter("\\A").next();
+            Assert.assertTrue(content.contains("<style:style style:name=\"co-auto-12\""));
+            Assert.assertTrue(content.contains(
+                    "<table:table-column table:style-name=\"co-auto-12\""));
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws Exception {
+        final AnonymousOdsFileWriter writer = OdsFactory.create(this.logger, Locale.US)
+                .createWriter();
+        final AnonymousOdsFileWriter spillingWriter = OdsFactory.create(this.logger, Locale.US)
+                .memoryBudget(10000).createWriter();
+
+        PowerMock.resetAll();
+        this.logger.log(Level.FINE, "flat file saved");
+        EasyMock.expectLastCall().times(2);
+
+        PowerMock.replayAll();
+        this.fillDocument(writer.document());
+        final Table spillingTable = this.fillDocument(spillingWriter.document());
+        try {
+            spillingTable.getRow(0);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertTrue(e.getMessage().contains("spilled"));
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.saveFlat(out);
+        final ByteArrayOutputStream spillingOut = new ByteArrayOutputStream();
+        spillingWriter.saveFlat(spillingOut);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(out.toString("UTF-8"), spillingOut.toString("UTF-8"));
+    }
+
+    @Test
+    public void testMemoryBudgetTwoTables() throws Exception {
+        final AnonymousOdsFileWriter writer = OdsFactory.create(this.logger, Locale.US)
+                .createWriter();
+        final AnonymousOdsFileWriter spillingWriter = OdsFactory.create(this.logger, Locale.US)
+                .memoryBudget(10000).createWriter();
+
+        PowerMock.resetAll();
+        this.logger.log(Level.FINE, "flat file saved");
+        EasyMock.expectLastCall().times(2);
+
+        PowerMock.replayAll();
+        this.fillDocument(writer.document(), "spill");
+        this.fillDocument(writer.document(), "spill2");
+        final Table spillingTable = this.fillDocument(spillingWriter.document(), "spill");
+        final Table spillingTable2 = this.fillDocument(spillingWriter.document(), "spill2");
+        // the first table was spilled, the second table keeps its last rows
+        try {
+            spillingTable.getRow(1998);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertTrue(e.getMessage().contains("spilled"));
+        }
+        spillingTable2.getRow(1800);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.saveFlat(out);
+        final ByteArrayOutputStream spillingOut = new ByteArrayOutputStream();
+        spillingWriter.saveFlat(spillingOut);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(out.toString("UTF-8"), spillingOut.toString("UTF-8"));
+    }
+
+    private Table fillDocument(final OdsDocument document) throws IOException {
+        return this.fillDocument(document, "spill");
+    }
+
+    private Table fillDocument(final OdsDocument document, final String name)
+            throws IOException {
+        final Table table = document.addTable(name);
+        table.setCellMerge(0, 0, 2, 2);
+        for (int r = 0; r < 2000; r++) {
+            if (r % 100 == 50) {
+                continue;
+            }
+            final TableRowImpl row = table.getRow(r);
+            row.getOrCreateCell(0).setFloatValue(r);
+            row.getOrCreateCell(3).setStringValue("row " + r);
+        }
+        table.getRow(1990).getOrCreateCell(1).setStringValue("back-filled");
+        return table;
+    }
+
+    @Test
+    public void testMemoryBudgetHeldRow() throws Exception {
+        final AnonymousOdsFileWriter spillingWriter = OdsFactory.create(this.logger, Locale.US)
+                .memoryBudget(10000).createWriter();
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        final Table table = spillingWriter.document().addTable("spill");
+        final TableRowImpl firstRow = table.getRow(0);
+        final TableCell firstCell = firstRow.getOrCreateCell(0);
+        for (int r = 1; r < 2000; r++) {
+            table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+        }
+        try {
+            firstCell.setStringValue("total");
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("spilled"));
+        }
+        try {
+            firstRow.getOrCreateCell(1);
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("spilled"));
+        }
+
+        PowerMock.verifyAll();
+        table.deleteSpilledRows();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMemoryBudget() {
+        OdsFactory.create(this.logger, Locale.US).memoryBudget(-1);
+    }
+
     @Test
     public void createWriter1() throws Exception {
         PowerMock.resetAll();
@@ -0,0 +1,317 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.reader.OdsStreamReader;
+import com.github.jferard.fastods.reader.ReadCell;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class OdsFileAppenderTest {
+    private OdsFactory odsFactory;
+    private File source;
+    private File destination;
+
+    @Before
+    public void setUp() throws IOException {
+        this.odsFactory = OdsFactory.create(Logger.getLogger("appender"), Locale.US);
+        this.source = File.createTempFile("fastods-source", ".ods");
+        this.destination = File.createTempFile("fastods-dest", ".ods");
+        final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
+        final OdsDocument document = writer.document();
+        final Table table = document.addTable("log");
+        for (int r = 0; r < 3; r++) {
+            table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+        }
+        document.addTable("other").getRow(0).getOrCreateCell(0).setStringValue("x");
+        writer.saveAs(this.source);
+    }
+
+    @After
+    public void tearDown() {
+        this.source.delete();
+        this.destination.delete();
+    }
+
+    @Test
+    public final void testAppend() throws IOException {
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        final Table table = appender.getOrAddTable("log");
+        table.getRow(0).getOrCreateCell(0).setFloatValue(3);
+        table.getRow(1).getOrCreateCell(0).setFloatValue(4);
+        appender.saveAs(this.destination);
+
+        Assert.assertEquals(this.getEntry(this.source, "styles.xml"),
+                this.getEntry(this.destination, "styles.xml"));
+        Assert.assertEquals(this.getEntry(this.source, "mimetype"),
+                this.getEntry(this.destination, "mimetype"));
+        Assert.assertEquals(this.getEntryNames(this.source), this.getEntryNames(this.destination));
+
+        final OdsStreamReader reader = OdsStreamReader.open(this.destination);
+        try {
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("log", reader.getTableName());
+            final List<String> values = new ArrayList<String>();
+            while (reader.nextRow()) {
+                Assert.assertTrue(reader.nextCell());
+                final ReadCell cell = reader.getCell();
+                values.add(cell.getValue());
+                Assert.assertEquals("float-data", cell.getDataStyleName());
+            }
+            Assert.assertEquals(5, values.size());
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals(String.valueOf(i), values.get(i));
+            }
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals("x", reader.getCell().getValue());
+            Assert.assertFalse(reader.nextRow());
+            Assert.assertFalse(reader.nextTable());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public final void testAppendWithNewStyles() throws IOException {
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        final TableCell cell = appender.getOrAddTable("other").getRow(0).getOrCreateCell(0);
+        cell.setPercentageValue(0.5);
+        cell.setStyle(TableCellStyle.builder("bold").fontWeightBold().build());
+        appender.save();
+
+        Assert.assertTrue(this.getEntry(this.source, "styles.xml")
+                .contains("<style:style style:name=\"bold\""));
+        Assert.assertTrue(this.getEntry(this.source, "content.xml")
+                .contains("<number:percentage-style style:name=\"percentage-data\""));
+        final OdsStreamReader reader = OdsStreamReader.open(this.source);
+        try {
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals("0.5", reader.getCell().getValue());
+            Assert.assertEquals("bold-_-percentage-data", reader.getCell().getStyleName());
+            Assert.assertEquals("percentage-style", reader.getCell().getDataStyleKind());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public final void testAppendBeforeTrailingElements() throws IOException {
+        final String content = this.getEntry(this.source, "content.xml");
+        final int end = content.indexOf("</table:table>");
+        this.rewriteContent(content.substring(0, end) +
+                "<table:table-row table:number-rows-repeated=\"1048573\">" +
+                "<table:table-cell table:number-columns-repeated=\"1024\"/></table:table-row>" +
+                "<table:named-expressions/>" + content.substring(end));
+
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("log").getRow(0).getOrCreateCell(0).setFloatValue(3);
+        appender.saveAs(this.destination);
+
+        final String newContent = this.getEntry(this.destination, "content.xml");
+        Assert.assertEquals(-1, newContent.indexOf("1048573"));
+        final int newRow = newContent.indexOf("office:value=\"3\"");
+        Assert.assertTrue(newRow > newContent.indexOf("office:value=\"2\""));
+        Assert.assertTrue(newRow < newContent.indexOf("<table:named-expressions/>"));
+    }
+
+    @Test
+    public final void testKeepEmptyRowsBeforeData() throws IOException {
+        final String content = this.getEntry(this.source, "content.xml");
+        final int end = content.indexOf("</table:table>");
+        final String emptyRows = "<table:table-row table:number-rows-repeated=\"2\">" +
+                "<table:table-cell/></table:table-row>";
+        final String lastRow = "<table:table-row><table:table-cell office:value-type=\"float\" " +
+                "office:value=\"9\"/></table:table-row>";
+        this.rewriteContent(content.substring(0, end) + emptyRows + lastRow +
+                content.substring(end));
+
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("log").getRow(0).getOrCreateCell(0).setFloatValue(3);
+        appender.saveAs(this.destination);
+
+        final String newContent = this.getEntry(this.destination, "content.xml");
+        Assert.assertTrue(newContent.contains(emptyRows + lastRow));
+        Assert.assertTrue(newContent.indexOf("office:value=\"3\"") >
+                newContent.indexOf("office:value=\"9\""));
+    }
+
+    @Test
+    public final void testKeepFormattedEmptyRows() throws IOException {
+        final String content = this.getEntry(this.source, "content.xml");
+        final int end = content.indexOf("</table:table>");
+        final String formattedRow = "<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell/></table:table-row>";
+        this.rewriteContent(content.substring(0, end) + formattedRow + content.substring(end));
+
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("log").getRow(0).getOrCreateCell(0).setFloatValue(3);
+        appender.saveAs(this.destination);
+
+        final String newContent = this.getEntry(this.destination, "content.xml");
+        Assert.assertTrue(newContent.indexOf("office:value=\"3\"") >
+                newContent.indexOf(formattedRow));
+    }
+
+    @Test
+    public final void testRenameConflictingStyle() throws IOException {
+        final String content = this.getEntry(this.source, "content.xml");
+        final String rowStyle = "<style:style style:name=\"ro1\" style:family=\"table-row\">";
+        final int start = content.indexOf(rowStyle);
+        final int end = content.indexOf("</style:style>", start) + "</style:style>".length();
+        final String sourceRowStyle = rowStyle + "<style:table-row-properties " +
+                "style:row-height=\"2cm\"/></style:style>";
+        this.rewriteContent(content.substring(0, start) + sourceRowStyle +
+                content.substring(end));
+
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("log").getRow(0).getOrCreateCell(0).setFloatValue(3);
+        appender.saveAs(this.destination);
+
+        final String newContent = this.getEntry(this.destination, "content.xml");
+        Assert.assertTrue(newContent.contains(sourceRowStyle));
+        Assert.assertTrue(newContent.contains("<style:style style:name=\"ro1-1\""));
+        final int newRow = newContent.indexOf("office:value=\"3\"");
+        Assert.assertEquals(newContent.lastIndexOf("<table:table-row ", newRow),
+                newContent.indexOf("<table:table-row table:style-name=\"ro1-1\""));
+    }
+
+    @Test
+    public final void testSaveKeepsNoBackup() throws IOException {
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("log").getRow(0).getOrCreateCell(0).setFloatValue(3);
+        final List<String> backups = this.getBackupNames();
+        appender.save();
+
+        Assert.assertEquals(backups, this.getBackupNames());
+        Assert.assertTrue(this.getEntry(this.source, "content.xml")
+                .contains("office:value=\"3\""));
+    }
+
+    @Test(expected = IOException.class)
+    public final void testMissingTable() throws IOException {
+        final OdsFileAppender appender = this.odsFactory.createAppender(this.source);
+        appender.getOrAddTable("missing").getRow(0).getOrCreateCell(0).setFloatValue(1);
+        appender.saveAs(this.destination);
+    }
+
+    private List<String> getBackupNames() {
+        final List<String> names = new ArrayList<String>();
+        for (final String name : this.source.getAbsoluteFile().getParentFile().list()) {
+            if (name.startsWith("fastods") && name.endsWith(".bak")) {
+                names.add(name);
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private void rewriteContent(final String content) throws IOException {
+        final File temp = File.createTempFile("fastods-rewrite", ".ods");
+        final ZipFile zipFile = new ZipFile(this.source);
+        try {
+            final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(temp));
+            try {
+                for (final ZipEntry entry : Collections.list(zipFile.entries())) {
+                    final byte[] bytes;
+                    if (entry.getName().equals("content.xml")) {
+                        bytes = content.getBytes("UTF-8");
+                    } else {
+                        bytes = this.getEntry(this.source, entry.getName()).getBytes("UTF-8");
+                    }
+                    final ZipEntry newEntry = new ZipEntry(entry.getName());
+                    if (entry.getMethod() == ZipEntry.STORED) {
+                        final CRC32 crc = new CRC32();
+                        crc.update(bytes);
+                        newEntry.setMethod(ZipEntry.STORED);
+                        newEntry.setSize(bytes.length);
+                        newEntry.setCompressedSize(bytes.length);
+                        newEntry.setCrc(crc.getValue());
+                    }
+                    out.putNextEntry(newEntry);
+                    out.write(bytes);
+                    out.closeEntry();
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            zipFile.close();
+        }
+        Assert.assertTrue(this.source.delete() && temp.renameTo(this.source));
+    }
+
+    private List<String> getEntryNames(final File file) throws IOException {
+        final List<String> names = new ArrayList<String>();
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            for (final ZipEntry entry : Collections.list(zipFile.entries())) {
+                names.add(entry.getName());
+            }
+        } finally {
+            zipFile.close();
+        }
+        return names;
+    }
+
+    private String getEntry(final File file, final String name) throws IOException {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            final InputStream in = zipFile.getInputStream(zipFile.getEntry(name));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int count = in.read(buffer);
+            while (count != -1) {
+                out.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            zipFile.close();
+        }
+    }
+}
@@ -111,6 +111,7 @@ public class PreprocessedRowsFlusherTest {
         flusher.flushInto(this.util, this.w);
 
         PowerMock.verifyAll();
-        Assert.assertEquals("<row />", capturedArgument.getValue().toString());
+        Assert.assertEquals("<table:table-row table:style-name=\"ro1\"><table:table-cell/>" +
+                "</table:table-row>", capturedArgument.getValue().toString());
     }
 }
\ No newline at end of file
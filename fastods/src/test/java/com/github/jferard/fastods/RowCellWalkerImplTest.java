@@ -550,7 +550,8 @@ public class RowCellWalkerImplTest {
         final XMLUtil xmlUtil = XMLUtil.create();
         final DataStyles ds = DataStylesBuilder.create(Locale.US).build();
         final WriteUtil writeUtil = WriteUtil.create();
-        return new TableRowImpl(writeUtil, xmlUtil, stc, ds, false, null, 10, 100);
+        return new TableRowImpl(writeUtil, xmlUtil, stc, ds, false, null, 10, 100,
+                TableRowContext.create(100));
     }
 
     /*
@@ -0,0 +1,104 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+public class RowSpillTest {
+    @Test
+    public final void testSegments() throws IOException {
+        final RowSpill spill = new RowSpill();
+        this.writeSegment(spill, "<table:table-row/>");
+        this.writeSegment(spill, "<table:table-row>é</table:table-row>");
+        Assert.assertEquals(2, spill.getSegmentCount());
+
+        final StringBuilder sb = new StringBuilder();
+        spill.appendTo(sb);
+        Assert.assertEquals("<table:table-row/><table:table-row>é</table:table-row>",
+                sb.toString());
+        Assert.assertEquals(0, spill.getSegmentCount());
+    }
+
+    @Test(expected = IOException.class)
+    public final void testWrittenTwice() throws IOException {
+        final RowSpill spill = new RowSpill();
+        this.writeSegment(spill, "<table:table-row/>");
+        spill.appendTo(new StringBuilder());
+        spill.appendTo(new StringBuilder());
+    }
+
+    @Test
+    public final void testDelete() throws IOException {
+        final File directory = File.createTempFile("fastods-spill", "");
+        Assert.assertTrue(directory.delete());
+        Assert.assertTrue(directory.mkdir());
+        try {
+            final RowSpill spill = new RowSpill(directory);
+            this.writeSegment(spill, "<table:table-row/>");
+            this.writeSegment(spill, "<table:table-row/>");
+            Assert.assertEquals(2, directory.list().length);
+
+            spill.delete();
+            Assert.assertEquals(0, directory.list().length);
+            Assert.assertEquals(0, spill.getSegmentCount());
+            try {
+                spill.appendTo(new StringBuilder());
+                Assert.fail();
+            } catch (final IOException e) {
+                // expected
+            }
+        } finally {
+            Assert.assertTrue(directory.delete());
+        }
+    }
+
+    @Test
+    public final void testAppendToDeletes() throws IOException {
+        final File directory = File.createTempFile("fastods-spill", "");
+        Assert.assertTrue(directory.delete());
+        Assert.assertTrue(directory.mkdir());
+        try {
+            final RowSpill spill = new RowSpill(directory);
+            this.writeSegment(spill, "<table:table-row/>");
+            spill.appendTo(new StringBuilder());
+            Assert.assertEquals(0, directory.list().length);
+        } finally {
+            Assert.assertTrue(directory.delete());
+        }
+    }
+
+    private void writeSegment(final RowSpill spill, final String xml) throws IOException {
+        final Writer writer = spill.openSegment();
+        try {
+            writer.write(xml);
+        } finally {
+            writer.close();
+        }
+    }
+}
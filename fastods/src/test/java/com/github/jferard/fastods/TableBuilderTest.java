@@ -208,6 +208,7 @@ public class TableBuilderTest {
         PowerMock.resetAll();
         this.builder.addObserver(writer);
         writer.update(EasyMock.isA(BeginTableFlusher.class));
+        writer.update(EasyMock.isA(PreprocessedRowsFlusher.class)); // rows 0..2 for row 3
 
         PowerMock.replayAll();
         this.builder.setCellMerge(this.table, this.appender, 2, 1, 2, 2);
@@ -360,6 +361,51 @@ public class TableBuilderTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public void testNotifyAfterWidthSample() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final NamedOdsDocument document = PowerMock.createMock(NamedOdsDocument.class);
+
+        PowerMock.resetAll();
+        EasyMock.expect(o.document()).andReturn(document);
+        EasyMock.expect(document.hasAutoColumnWidthStyles()).andReturn(true);
+        final TableColumnStyle columnStyle = ColumnWidthEstimator.getColumnStyle(2);
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(columnStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addContentStyle(columnStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addContentStyle(TableCellStyle.DEFAULT_CELL_STYLE))
+                .andReturn(true);
+        EasyMock.expect(this.table.findDefaultCellStyle(0))
+                .andReturn(TableCellStyle.DEFAULT_CELL_STYLE);
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.setAutoColumnWidths(2);
+        this.builder.getRow(this.table, this.appender, 0).getOrCreateCell(0)
+                .setStringValue("a");
+        this.builder.getRow(this.table, this.appender, 1); // sample: no flush
+        Assert.assertEquals(TableColumnStyle.DEFAULT_TABLE_COLUMN_STYLE,
+                this.builder.getColumnStyles().get(0));
+        this.builder.getRow(this.table, this.appender, 2);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("co-auto-2", this.builder.getColumnStyles().get(0).getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAutoColumnWidthsWithoutStyles() {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final NamedOdsDocument document = PowerMock.createMock(NamedOdsDocument.class);
+
+        PowerMock.resetAll();
+        EasyMock.expect(o.document()).andReturn(document);
+        EasyMock.expect(document.hasAutoColumnWidthStyles()).andReturn(false);
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.setAutoColumnWidths(2);
+    }
+
     @Test
     public final void testFindDefaultCellStyle() {
         PowerMock.resetAll();
@@ -31,6 +31,7 @@ import com.github.jferard.fastods.datastyle.FloatStyleBuilder;
 import com.github.jferard.fastods.datastyle.TimeStyle;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.odselement.StylesContainerImpl;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TextStyle;
 import com.github.jferard.fastods.testlib.DomTester;
@@ -47,6 +48,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Locale;
 
@@ -79,7 +81,7 @@ public class TableCellTest {
         this.tcc = TableColdCell.create(this.xmlUtil);
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table,
-                ROW_INDEX, 100);
+                ROW_INDEX, 100, TableRowContext.create(100));
         this.cell = new TableCellImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.row,
                 COLUMN_INDEX);
         this.tcs = TableCellStyle.builder("name").build();
@@ -229,6 +231,33 @@ public class TableCellTest {
                         "office:value=\"9.999\"/>");
     }
 
+    @Test
+    public final void testFloatSameColumn() throws IOException {
+        final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
+        final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
+        final TableRowContext context = TableRowContext.create(100);
+        final WriteUtil writeUtil = WriteUtil.create();
+        final TableRowImpl row1 = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds,
+                false, this.table, ROW_INDEX, 100, context);
+        final TableRowImpl row2 = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds,
+                false, this.table, ROW_INDEX + 1, 100, context);
+
+        PowerMock.resetAll();
+        this.playAddStyle(cs, floatDataStyle);
+        EasyMock.expect(this.table.findDefaultCellStyle(COLUMN_INDEX)).andReturn(cs);
+
+        PowerMock.replayAll();
+        row1.getOrCreateCell(COLUMN_INDEX).setFloatValue(1);
+        row2.getOrCreateCell(COLUMN_INDEX).setFloatValue(2);
+
+        PowerMock.verifyAll();
+        final StringBuilder sb = new StringBuilder();
+        ((TableCellImpl) row2.getOrCreateCell(COLUMN_INDEX))
+                .appendXMLToTableRow(this.xmlUtil, sb);
+        DomTester.assertEquals("<table:table-cell table:style-name=\"name\" " +
+                "office:value-type=\"float\" office:value=\"2\"/>", sb.toString());
+    }
+
     private void playAndReplayFloat() {
         final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
         final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
@@ -470,10 +499,29 @@ public class TableCellTest {
     }
 
     @Test
-    public final void testTextCovered() throws IOException {
+    public final void testInternedText() throws IOException {
+        final Text text = TextInterner.create()
+                .intern(Text.styledContent("text", TextStyle.DEFAULT_TEXT_STYLE));
+
         PowerMock.resetAll();
-        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(TextStyle.DEFAULT_TEXT_STYLE))
+                .andReturn(true);
 
+        PowerMock.replayAll();
+        this.cell.setText(text);
+        this.cell.setText(text);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"\">" +
+                        "<text:p><text:span " +
+                        "text:style-name=\"Default\">text</text:span></text:p>" +
+                        "</table:table-cell>");
+    }
+
+    @Test
+    public final void testTextCovered() throws IOException {
+        PowerMock.resetAll();
         PowerMock.replayAll();
         this.cell.setCovered();
         this.cell.setText(Text.content("text"));
@@ -484,6 +532,20 @@ public class TableCellTest {
                         "<text:p>text</text:p>" + "</table:covered-table-cell>");
     }
 
+    @Test
+    public final void testSharedColdCellCopiedOnWrite() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.cell.setCovered();
+        this.cell.markColumnsSpanned(2);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals("<table:table-cell table:number-columns-spanned=\"2\"/>");
+        Assert.assertTrue(SharedColdCells.covered().isShared());
+        Assert.assertTrue(SharedColdCells.covered().isCovered());
+        Assert.assertSame(SharedColdCells.columnsSpanned(3), SharedColdCells.columnsSpanned(3));
+    }
+
     @Test
     public final void testVoid() throws IOException {
         PowerMock.resetAll();
@@ -507,11 +569,47 @@ public class TableCellTest {
     }
 
     @Test
-    public final void testColumnsSpanned() throws IOException {
+    public final void testFormulaTemplate() throws IOException, ParseException {
         PowerMock.resetAll();
-        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc)
-                .times(9);
+        PowerMock.replayAll();
+        this.cell.setFormula(FormulaTemplate.create("[.A1]*2", 0, COLUMN_INDEX));
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.cell.hasValue());
+        this.assertCellXMLEquals(
+                "<table:table-cell table:formula=\"of:=[.A" + (ROW_INDEX + 1) + "]*2\"/>");
+    }
+
+    @Test
+    public final void testFormulaAfterTemplate() throws IOException, ParseException {
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
+
+        PowerMock.replayAll();
+        this.cell.setFormula(FormulaTemplate.create("[.A1]*2", 0, COLUMN_INDEX));
+        this.cell.setFormula("1");
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals("<table:table-cell table:formula=\"of:=1\"/>");
+    }
+
+    @Test
+    public final void testTemplateAfterFormula() throws IOException, ParseException {
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
 
+        PowerMock.replayAll();
+        this.cell.setFormula("1");
+        this.cell.setFormula(FormulaTemplate.create("[.A1]*2", 0, COLUMN_INDEX));
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:formula=\"of:=[.A" + (ROW_INDEX + 1) + "]*2\"/>");
+    }
+
+    @Test
+    public final void testColumnsSpanned() throws IOException {
+        PowerMock.resetAll();
         PowerMock.replayAll();
         this.cell.setColumnsSpanned(8);
         this.cell.markColumnsSpanned(8);
@@ -552,7 +650,6 @@ public class TableCellTest {
     @Test
     public final void testRowsSpanned() throws IOException {
         PowerMock.resetAll();
-        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
         this.table.setRowsSpanned(ROW_INDEX, COLUMN_INDEX, 2);
 
         PowerMock.replayAll();
@@ -567,7 +664,6 @@ public class TableCellTest {
     @Test
     public final void testRowsSpannedTwice() throws IOException {
         PowerMock.resetAll();
-        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
         this.table.setRowsSpanned(ROW_INDEX, COLUMN_INDEX, 2);
         this.table.setRowsSpanned(ROW_INDEX, COLUMN_INDEX, 4);
 
@@ -822,7 +918,8 @@ public class TableCellTest {
         cold.setMatrixRowsSpanned(1);
         cold.setMatrixColumnsSpanned(1);
         EasyMock.expect(cold.isCovered()).andReturn(false);
-        cold.appendXMLToTable(EasyMock.eq(this.xmlUtil), EasyMock.isA(Appendable.class));
+        cold.appendXMLToTable(EasyMock.eq(this.xmlUtil), EasyMock.isA(Appendable.class),
+                EasyMock.eq(false));
 
         PowerMock.replayAll();
         this.cell.setMatrixFormula("f");
@@ -844,7 +941,8 @@ public class TableCellTest {
         cold.setMatrixRowsSpanned(2);
         cold.setMatrixColumnsSpanned(3);
         EasyMock.expect(cold.isCovered()).andReturn(true);
-        cold.appendXMLToTable(EasyMock.eq(this.xmlUtil), EasyMock.isA(Appendable.class));
+        cold.appendXMLToTable(EasyMock.eq(this.xmlUtil), EasyMock.isA(Appendable.class),
+                EasyMock.eq(true));
 
         PowerMock.replayAll();
         this.cell.setMatrixFormula("f", 2, 3);
@@ -892,8 +990,6 @@ public class TableCellTest {
 
         PowerMock.resetAll();
         this.playAddStyle(cs, currencyDataStyle);
-
-        EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc);
         PowerMock.replayAll();
     }
 
@@ -75,6 +75,24 @@ public class TableColdCellTest {
         this.assertXMLEquals("<table:table-cell table:formula=\"of:=1\"/>");
     }
 
+    @Test
+    public final void testCopy() throws IOException {
+        final TableColdCell shared = new TableColdCell(null, true);
+        shared.setCurrency("€");
+        shared.setRowsSpanned(3);
+        this.coldCell = shared.copy(this.xmlUtil);
+        Assert.assertTrue(shared.isShared());
+        Assert.assertFalse(this.coldCell.isShared());
+
+        this.coldCell.setTooltip("tooltip");
+        Assert.assertEquals("€", this.coldCell.getCurrency());
+        this.assertXMLEquals("<table:table-cell table:number-rows-spanned=\"3\">" +
+                "<office:annotation><text:p>tooltip</text:p></office:annotation>" +
+                "</table:table-cell>");
+        this.coldCell = shared;
+        this.assertXMLEquals("<table:table-cell table:number-rows-spanned=\"3\"/>");
+    }
+
     @Test
     public final void testColSpan() throws IOException {
         this.coldCell.setColumnsSpanned(2);
@@ -0,0 +1,113 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.odselement.ContentElement;
+import com.github.jferard.fastods.odselement.StylesContainerImpl;
+import com.github.jferard.fastods.ref.PositionUtil;
+import com.github.jferard.fastods.ref.TableNameUtil;
+import com.github.jferard.fastods.util.WriteUtil;
+import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.IOException;
+import java.util.Locale;
+
+public class TableCursorTest {
+    private Table table;
+
+    @Before
+    public void setUp() {
+        final ContentElement ce = PowerMock.createMock(ContentElement.class);
+        final StylesContainerImpl stc = PowerMock.createMock(StylesContainerImpl.class);
+        final PositionUtil positionUtil = new PositionUtil(new TableNameUtil());
+        this.table = Table.create(ce, positionUtil, WriteUtil.create(), XMLUtil.create(),
+                "my_table", 10, 100, stc, DataStylesBuilder.create(Locale.US).build(), false);
+    }
+
+    @Test
+    public final void testEmpty() {
+        final TableCursor cursor = this.table.getCursor();
+        Assert.assertFalse(cursor.nextCell());
+        Assert.assertFalse(cursor.nextRow());
+        Assert.assertFalse(cursor.nextRow());
+    }
+
+    @Test
+    public final void testSparseTable() throws IOException {
+        this.table.getRow(1).getOrCreateCell(2).setStringValue("a");
+        this.table.getRow(1).getOrCreateCell(500).setStringValue("b");
+        this.table.getRow(100000).getOrCreateCell(0).setStringValue("c");
+        this.table.getRow(100000).setColumnsSpanned(0, 2);
+
+        final TableCursor cursor = this.table.getCursor();
+        Assert.assertTrue(cursor.nextRow());
+        Assert.assertEquals(1, cursor.rowIndex());
+        Assert.assertTrue(cursor.nextCell());
+        Assert.assertEquals(2, cursor.colIndex());
+        Assert.assertEquals(CellType.STRING, cursor.getType());
+        Assert.assertEquals("a", cursor.getValue());
+        Assert.assertEquals("Default", cursor.getStyle().getName());
+        Assert.assertTrue(cursor.nextCell());
+        Assert.assertEquals(500, cursor.colIndex());
+        Assert.assertEquals("b", cursor.getValue());
+        Assert.assertFalse(cursor.nextCell());
+
+        Assert.assertTrue(cursor.nextRow());
+        Assert.assertEquals(100000, cursor.rowIndex());
+        Assert.assertTrue(cursor.nextCell());
+        Assert.assertTrue(cursor.hasValue());
+        Assert.assertFalse(cursor.isCovered());
+        Assert.assertFalse(cursor.nextCell()); // the covered cell was not created
+        Assert.assertFalse(cursor.nextRow());
+
+        Assert.assertEquals(100001, this.table.getRowCount()); // no row was created
+    }
+
+    @Test
+    public final void testNoValue() throws IOException {
+        this.table.getRow(0).getOrCreateCell(0);
+
+        final TableCursor cursor = this.table.getCursor();
+        Assert.assertTrue(cursor.nextRow());
+        Assert.assertTrue(cursor.nextCell());
+        Assert.assertFalse(cursor.hasValue());
+        Assert.assertNull(cursor.getType());
+        Assert.assertNull(cursor.getValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testNoCurrentCell() throws IOException {
+        this.table.getRow(0).getOrCreateCell(0);
+
+        final TableCursor cursor = this.table.getCursor();
+        Assert.assertTrue(cursor.nextRow());
+        cursor.getValue();
+    }
+}
@@ -27,6 +27,7 @@ import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.datastyle.DataStylesBuilder;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.odselement.StylesContainerImpl;
+import com.github.jferard.fastods.ref.FormulaTemplate;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableRowStyle;
 import com.github.jferard.fastods.testlib.DomTester;
@@ -42,6 +43,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.Locale;
 
 @RunWith(PowerMockRunner.class)
@@ -63,7 +65,7 @@ public class TableRowTest {
         this.xmlUtil = XMLUtil.create();
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table, 10,
-                100);
+                100, TableRowContext.create(100));
         this.tcs = TableCellStyle.builder("---").build();
         PowerMock.mockStatic(TableColdCell.class);
         PowerMock.resetAll();
@@ -109,11 +111,6 @@ public class TableRowTest {
     @Test
     public void testIsCoveredTrue() {
         PowerMock.resetAll();
-        EasyMock.expect(TableColdCell.create(this.xmlUtil))
-                .andReturn(new TableColdCell(this.xmlUtil));
-        EasyMock.expect(TableColdCell.create(this.xmlUtil))
-                .andReturn(new TableColdCell(this.xmlUtil));
-
         PowerMock.replayAll();
         this.row.setColumnsSpanned(0, 2);
         final boolean covered0 = this.row.isCovered(0);
@@ -220,6 +217,142 @@ public class TableRowTest {
                         "office:string-value=\"a\"/>" + "</table:table-row>");
     }
 
+    @Test
+    public final void testSparseRow() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.row.getOrCreateCell(0).setStringValue("a");
+        this.row.getOrCreateCell(300).setStringValue("b");
+
+        PowerMock.verifyAll();
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"a\"/>" + "<table:table-cell " +
+                        "table:number-columns-repeated=\"299\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"b\"/>" + "</table:table-row>");
+    }
+
+    @Test
+    public final void testCoveredRun() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.row.setColumnsSpanned(1, 6);
+        this.row.getOrCreateCell(4).setStringValue("x");
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(7, this.row.getColumnCount());
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" + "<table:table-cell/>" +
+                        "<table:table-cell table:number-columns-spanned=\"6\"/>" +
+                        "<table:covered-table-cell table:number-columns-repeated=\"2\"/>" +
+                        "<table:covered-table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"x\"/>" +
+                        "<table:covered-table-cell table:number-columns-repeated=\"2\"/>" +
+                        "</table:table-row>");
+    }
+
+    @Test
+    public final void testWriteCoveredColdCell() throws IOException {
+        final TableRowContext context = TableRowContext.create(100);
+        final TableRowImpl row = new TableRowImpl(WriteUtil.create(), this.xmlUtil, this.stc,
+                this.ds, false, this.table, 10, 100, context);
+
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(this.xmlUtil))
+                .andReturn(new TableColdCell(this.xmlUtil));
+
+        PowerMock.replayAll();
+        row.coverRightCells(0, 2);
+        final TableCell cell = row.getOrCreateCell(1);
+        cell.setTooltip("t");
+        final StringBuilder sb = new StringBuilder();
+        row.appendXMLToTable(this.xmlUtil, sb);
+        context.getCoveredRegions().removeBefore(11);
+
+        PowerMock.verifyAll();
+        DomTester.assertEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell/>" +
+                "<table:covered-table-cell><office:annotation><text:p>t</text:p>" +
+                "</office:annotation></table:covered-table-cell>" +
+                "</table:table-row>", sb.toString());
+        // the write did not mark the cell as covered
+        Assert.assertFalse(cell.isCovered());
+    }
+
+    @Test
+    public final void testColdCellCovered() throws IOException {
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(this.xmlUtil))
+                .andReturn(new TableColdCell(this.xmlUtil));
+
+        PowerMock.replayAll();
+        final TableCell cell = this.row.getOrCreateCell(1);
+        cell.setTooltip("t");
+        cell.setCovered();
+        final StringBuilder sb = new StringBuilder();
+        this.row.appendXMLToTable(this.xmlUtil, sb);
+
+        PowerMock.verifyAll();
+        DomTester.assertEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell/>" +
+                "<table:covered-table-cell><office:annotation><text:p>t</text:p>" +
+                "</office:annotation></table:covered-table-cell>" +
+                "</table:table-row>", sb.toString());
+    }
+
+    @Test
+    public final void testColumnDictionary() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.row.getColumnDictionaries().setDictionary(1, 10);
+        this.row.getOrCreateCell(0).setStringValue("R&D");
+        this.row.getOrCreateCell(1).setStringValue("R&D");
+
+        PowerMock.verifyAll();
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"R&amp;D\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"R&amp;D\"/>" + "</table:table-row>");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testSpilled() {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.row.markSpilled();
+        this.row.setRowFormat(this.ds);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testSpilledCell() {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        final TableCell cell = this.row.getOrCreateCell(0);
+        this.row.markSpilled();
+        cell.setFloatValue(1);
+    }
+
+    @Test
+    public final void testFormulaTemplate() throws IOException, ParseException {
+        final FormulaTemplate template = FormulaTemplate.create("[.A1]*2", 0, 1);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.row.setFormula(1, template);
+        this.row.setFormula(2, template);
+
+        PowerMock.verifyAll();
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\"><table:table-cell/>" +
+                        "<table:table-cell table:formula=\"of:=[.A11]*2\"/>" +
+                        "<table:table-cell table:formula=\"of:=[.B11]*2\"/>" +
+                        "</table:table-row>");
+    }
+
     @Test
     public final void testAppendRowOpenTag() throws IOException {
         PowerMock.resetAll();
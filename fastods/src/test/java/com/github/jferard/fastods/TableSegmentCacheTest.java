@@ -0,0 +1,63 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TableSegmentCacheTest {
+    private static final List<TableStylesRecorder.Registration> NO_STYLE =
+            Collections.emptyList();
+
+    @Test
+    public void testGetPut() {
+        final TableSegmentCache cache = TableSegmentCache.create();
+        Assert.assertNull(cache.getSegment("t", 1));
+        cache.putSegment("t", 1, "<xml1/>", NO_STYLE);
+        Assert.assertEquals("<xml1/>", cache.getSegment("t", 1).getXML());
+        Assert.assertNull(cache.getSegment("t", 2));
+        Assert.assertNull(cache.getSegment("u", 1));
+
+        cache.putSegment("t", 2, "<xml2/>", NO_STYLE);
+        Assert.assertNull(cache.getSegment("t", 1));
+        Assert.assertEquals("<xml2/>", cache.getSegment("t", 2).getXML());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(7, cache.getLength());
+    }
+
+    @Test
+    public void testInvalidate() {
+        final TableSegmentCache cache = TableSegmentCache.create();
+        cache.putSegment("t", 1, "<xml1/>", NO_STYLE);
+        cache.putSegment("u", 1, "<xml2/>", NO_STYLE);
+        cache.invalidate("t");
+        Assert.assertNull(cache.getSegment("t", 1));
+        Assert.assertEquals(1, cache.size());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+}
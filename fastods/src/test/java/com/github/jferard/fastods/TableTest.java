@@ -31,6 +31,7 @@ import com.github.jferard.fastods.odselement.StylesContainerImpl;
 import com.github.jferard.fastods.odselement.config.ConfigItemMapEntry;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.ref.TableNameUtil;
+import com.github.jferard.fastods.style.ObjectStyle;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
@@ -52,6 +53,8 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.github.jferard.fastods.odselement.config.ConfigElement.ZOOM_VALUE;
 
@@ -432,6 +435,181 @@ public class TableTest {
                 app.toString() + "</table:table>");
     }
 
+    @Test
+    public final void testParallelRendering() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        for (int r = 0; r < 8000; r++) {
+            if (r < 4000 || r > 4200) { // a gap across the first chunk boundary
+                this.table.getRow(r).getOrCreateCell(r % 7).setStringValue("v" + r);
+            }
+        }
+        this.table.getRow(20000).getOrCreateCell(0).setStringValue("last"); // empty chunks
+        final StringBuilder expected = new StringBuilder();
+        this.table.appendRowsToContentEntry(this.xmlUtil, expected);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            this.table.setRenderingExecutor(executor);
+            this.table.appendRowsToContentEntry(this.xmlUtil, this.sb);
+        } finally {
+            executor.shutdown();
+        }
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(expected.toString(), this.sb.toString());
+        Assert.assertTrue(this.sb.indexOf("table:number-rows-repeated=\"201\"") >= 0);
+        Assert.assertTrue(this.sb.indexOf("table:number-rows-repeated=\"12000\"") >= 0);
+    }
+
+    @Test
+    public final void testSegmentCache() throws IOException {
+        final TableSegmentCache cache = TableSegmentCache.create();
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.table.getRow(0).getOrCreateCell(0).setStringValue("v1");
+        this.table.setSegmentCache(cache, 1);
+        final StringBuilder sb1 = new StringBuilder();
+        this.table.appendXMLToContentEntry(this.xmlUtil, sb1);
+
+        this.table.getRow(0).getOrCreateCell(0).setStringValue("v2");
+        final StringBuilder sb2 = new StringBuilder();
+        this.table.appendXMLToContentEntry(this.xmlUtil, sb2); // same version: cached
+        this.table.setSegmentCache(cache, 2);
+        final StringBuilder sb3 = new StringBuilder();
+        this.table.appendXMLToContentEntry(this.xmlUtil, sb3);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(sb1.indexOf("v1") >= 0);
+        Assert.assertEquals(sb1.toString(), sb2.toString());
+        Assert.assertTrue(sb3.indexOf("v2") >= 0);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(sb3.length(), cache.getLength());
+    }
+
+    @Test
+    public final void testSegmentCacheStyles() throws IOException {
+        final TableSegmentCache cache = TableSegmentCache.create();
+        final TableCellStyle cellStyle = TableCellStyle.builder("my-cell").build();
+        final StylesContainerImpl stc2 = PowerMock.createMock(StylesContainerImpl.class);
+        final Table table2 = Table.create(this.ce, new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, "my_table", 10, 100, stc2, this.ds, false);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(cellStyle)).andReturn(true);
+        EasyMock.expect(stc2.addContentFontFaceContainerStyle(cellStyle)).andReturn(true);
+
+        PowerMock.replayAll();
+        this.table.setSegmentCache(cache, 1);
+        final TableCell cell = this.table.getRow(0).getOrCreateCell(0);
+        cell.setStyle(cellStyle);
+        cell.setStringValue("v");
+        final StringBuilder sb1 = new StringBuilder();
+        this.table.appendXMLToContentEntry(this.xmlUtil, sb1);
+
+        // another document: the table is not filled, the style is registered again
+        table2.setSegmentCache(cache, 1);
+        final StringBuilder sb2 = new StringBuilder();
+        table2.appendXMLToContentEntry(this.xmlUtil, sb2);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(sb2.indexOf("my-cell") >= 0);
+        Assert.assertEquals(sb1.toString(), sb2.toString());
+    }
+
+    @Test
+    public final void testSegmentCacheClearedBeforeSave() throws IOException {
+        final TableSegmentCache cache = TableSegmentCache.create();
+        final Table table2 = Table.create(this.ce, new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, "my_table", 10, 100, this.stc, this.ds, false);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.table.setSegmentCache(cache, 1);
+        this.table.getRow(0).getOrCreateCell(0).setStringValue("v");
+        final StringBuilder sb1 = new StringBuilder();
+        this.table.appendXMLToContentEntry(this.xmlUtil, sb1);
+
+        // the table is not filled: the segment found now is written, not an empty table
+        table2.setSegmentCache(cache, 1);
+        cache.clear();
+        final StringBuilder sb2 = new StringBuilder();
+        table2.appendXMLToContentEntry(this.xmlUtil, sb2);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(sb2.indexOf("v") >= 0);
+        Assert.assertEquals(sb1.toString(), sb2.toString());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testSegmentCacheAfterStyles() throws IOException {
+        final TableCellStyle cellStyle = TableCellStyle.builder("my-cell").build();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(cellStyle)).andReturn(true);
+
+        PowerMock.replayAll();
+        this.table.getRow(0).getOrCreateCell(0).setStyle(cellStyle);
+        this.table.setSegmentCache(TableSegmentCache.create(), 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testSegmentCacheNamedWriter() {
+        final NamedOdsFileWriter writer = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.table.addObserver(writer);
+        this.table.setSegmentCache(TableSegmentCache.create(), 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testNamedWriterAfterSegmentCache() {
+        final NamedOdsFileWriter writer = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        this.table.setSegmentCache(TableSegmentCache.create(), 1);
+        this.table.addObserver(writer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testSegmentCacheWithoutVersion() {
+        this.table.setSegmentCache(TableSegmentCache.create(), null);
+    }
+
+    @Test
+    public final void testAutoColumnWidths() throws IOException {
+        final TableColumnStyle columnStyle = TableColumnStyle.builder("my-col").build();
+        final String longValue = "a long value, a long value, a long value";
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(
+                EasyMock.isA(TableColumnStyle.class))).andReturn(true).anyTimes();
+        EasyMock.expect(this.stc.addContentStyle(EasyMock.isA(ObjectStyle.class)))
+                .andReturn(true).anyTimes();
+
+        PowerMock.replayAll();
+        this.table.setColumnStyle(2, columnStyle);
+        this.table.setAutoColumnWidths(2);
+        final TableRowImpl row = this.table.getRow(0);
+        row.getOrCreateCell(0).setStringValue("ab");
+        row.getOrCreateCell(1).setStringValue(longValue);
+        row.getOrCreateCell(2).setStringValue(longValue);
+        row.getOrCreateCell(3).setText(Text.content(longValue)); // no value: the text is counted
+        this.table.getRow(5).getOrCreateCell(0).setStringValue(longValue); // not sampled
+        this.table.appendXMLToContentEntry(this.xmlUtil, this.sb);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.sb.indexOf("<table:table-column table:style-name=\"co-auto-2\"") >= 0);
+        Assert.assertTrue(this.sb.indexOf("<table:table-column table:style-name=\"co-auto-16\"") >= 0);
+        Assert.assertTrue(this.sb.indexOf("<table:table-column table:style-name=\"my-col\"") >= 0);
+        Assert.assertTrue(this.sb.lastIndexOf("<table:table-column table:style-name=\"co-auto-16\"") >
+                this.sb.indexOf("<table:table-column table:style-name=\"co-auto-16\""));
+    }
+
     private void assertTableXMLEquals(final String xml) throws IOException {
         final StringBuilder sb = new StringBuilder();
         this.table.appendXMLToContentEntry(this.xmlUtil, sb);
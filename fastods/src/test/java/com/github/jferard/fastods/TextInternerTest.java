@@ -0,0 +1,84 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.style.TextProperties;
+import com.github.jferard.fastods.style.TextStyle;
+import com.github.jferard.fastods.util.ColorHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class TextInternerTest {
+    private TextInterner interner;
+    private TextStyle ts;
+
+    @Before
+    public void setUp() {
+        this.interner = TextInterner.create();
+        this.ts = TextProperties.builder().fontColor(ColorHelper.fromString("red"))
+                .buildStyle("ts");
+    }
+
+    @Test
+    public final void testSameContent() throws IOException {
+        final Text text1 = this.interner.intern(Text.content("ok"));
+        final Text text2 = this.interner.intern("ok");
+
+        Assert.assertSame(text1, text2);
+        Assert.assertTrue(text1.isPrerendered());
+        Assert.assertEquals(1, this.interner.size());
+        TestHelper.assertXMLEquals("<text:p>ok</text:p>", text1);
+    }
+
+    @Test
+    public final void testStyles() throws IOException {
+        final Text text1 = this.interner.intern(Text.content("ok"));
+        final Text text2 = this.interner.intern(Text.styledContent("ok", this.ts));
+
+        Assert.assertNotSame(text1, text2);
+        Assert.assertEquals(2, this.interner.size());
+        TestHelper.assertXMLEquals(
+                "<text:p><text:span text:style-name=\"ts\">ok</text:span></text:p>", text2);
+    }
+
+    @Test
+    public final void testLink() throws IOException {
+        final Text text1 = this.interner.intern(Link.builder("details").to("#Sheet2").build());
+        final Text text2 = this.interner.intern(Link.builder("details").to("#Sheet2").build());
+
+        Assert.assertSame(text1, text2);
+        Assert.assertSame(text1.getSharedColdCell(), text2.getSharedColdCell());
+        TestHelper.assertXMLEquals("<text:p><text:a xlink:href=\"#Sheet2\" " +
+                "xlink:type=\"simple\">details</text:a></text:p>", text1);
+    }
+
+    @Test
+    public final void testInternPrerendered() throws IOException {
+        final Text text = this.interner.intern("ok");
+        Assert.assertSame(text, TextInterner.create().intern(text));
+    }
+}
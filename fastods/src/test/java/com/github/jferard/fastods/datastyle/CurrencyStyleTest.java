@@ -25,8 +25,10 @@ package com.github.jferard.fastods.datastyle;
 import com.github.jferard.fastods.attribute.SimpleColor;
 import com.github.jferard.fastods.TestHelper;
 import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
 
 import java.io.IOException;
 import java.util.Currency;
@@ -201,4 +203,20 @@ public class CurrencyStyleTest {
         DataStyleTestHelper.testAddToElements(cs);
     }
 
+    @Test
+    public final void testCachedXML() throws IOException {
+        final CurrencyStyle cs = new CurrencyStyleBuilder("test", this.locale)
+                .negativeValueColor(SimpleColor.GREEN).build();
+        final String xml = TestHelper.toXML(cs);
+
+        final XMLUtil mockUtil = PowerMock.createMock(XMLUtil.class);
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        final StringBuilder sb = new StringBuilder();
+        cs.appendXMLContent(mockUtil, sb);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(xml, sb.toString());
+    }
 }
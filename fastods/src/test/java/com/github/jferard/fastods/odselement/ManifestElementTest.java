@@ -0,0 +1,90 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.odselement;
+
+import com.github.jferard.fastods.odselement.config.ManifestEntry;
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.ZipInputStream;
+
+public class ManifestElementTest {
+    private XMLUtil util;
+
+    @Before
+    public void setUp() {
+        this.util = XMLUtil.create();
+    }
+
+    @Test
+    public void testCreate() throws IOException {
+        final ManifestElement element = ManifestElement.create();
+        element.add(new ManifestEntry("Pictures/a.png", "image/png"));
+        final String xml = this.write(element);
+        Assert.assertTrue(xml.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" +
+                "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
+                ":manifest:1.0\"><manifest:file-entry manifest:full-path=\"/\" " +
+                "manifest:media-type=\"application/vnd.oasis.opendocument.spreadsheet\"/>"));
+        Assert.assertTrue(xml.endsWith("<manifest:file-entry manifest:full-path=\"Thumbnails/" +
+                "thumbnail.png\" manifest:media-type=\"\"/><manifest:file-entry " +
+                "manifest:full-path=\"Pictures/a.png\" manifest:media-type=\"image/png\"/>" +
+                "</manifest:manifest>"));
+    }
+
+    @Test
+    public void testInitialEntries() throws IOException {
+        final ManifestElement element = new ManifestElement(
+                Arrays.asList(new ManifestEntry("content.xml", "text/xml")));
+        Assert.assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" +
+                "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
+                ":manifest:1.0\"><manifest:file-entry manifest:full-path=\"content.xml\" " +
+                "manifest:media-type=\"text/xml\"/></manifest:manifest>", this.write(element));
+    }
+
+    private String write(final ManifestElement element) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ZipUTF8Writer writer = ZipUTF8WriterImpl.builder().build(out);
+        element.write(this.util, writer);
+        writer.close();
+
+        final ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals("META-INF/manifest.xml", zis.getNextEntry().getName());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count = zis.read(buffer);
+        while (count != -1) {
+            bytes.write(buffer, 0, count);
+            count = zis.read(buffer);
+        }
+        return new String(bytes.toByteArray(), ZipUTF8Writer.UTF_8);
+    }
+}
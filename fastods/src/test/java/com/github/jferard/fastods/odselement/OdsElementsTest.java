@@ -34,7 +34,10 @@ import com.github.jferard.fastods.style.PageStyle;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
+import com.github.jferard.fastods.util.StoredEntry;
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -44,6 +47,7 @@ import org.powermock.api.easymock.PowerMock;
 
 import java.io.IOException;
 import java.util.Locale;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class OdsElementsTest {
@@ -285,6 +289,42 @@ public class OdsElementsTest {
                 "manifest:media-type=\"mt\"/>", capture.getValue());
     }
 
+    @Test
+    public final void testAddStoredEntry() throws IOException {
+        final Capture<ManifestEntry> capture = EasyMock.newCapture();
+        final StoredEntry entry = StoredEntry.create("Pictures/a.png", new byte[]{1, 2});
+        final ZipUTF8WriterImpl writer = PowerMock.createMock(ZipUTF8WriterImpl.class);
+
+        PowerMock.resetAll();
+        this.manifestElement.add(EasyMock.capture(capture));
+        this.logger.log(Level.FINER, "Writing extra elements to zip file");
+        this.logger.log(Level.FINEST, "Writing stored entry: {0} to zip file",
+                "Pictures/a.png");
+        writer.writeStoredEntry(entry);
+
+        PowerMock.replayAll();
+        this.odsElements.addStoredEntry("image/png", entry);
+        this.odsElements.writeExtras(writer);
+
+        PowerMock.verifyAll();
+        TestHelper.assertXMLEquals("<manifest:file-entry manifest:full-path=\"Pictures/a.png\" " +
+                "manifest:media-type=\"image/png\"/>", capture.getValue());
+    }
+
+    @Test(expected = IOException.class)
+    public final void testAddStoredEntryPlainWriter() throws IOException {
+        final StoredEntry entry = StoredEntry.create("Pictures/a.png", new byte[]{1, 2});
+        final ZipUTF8Writer writer = PowerMock.createMock(ZipUTF8Writer.class);
+
+        PowerMock.resetAll();
+        this.manifestElement.add(EasyMock.<ManifestEntry>anyObject());
+        this.logger.log(Level.FINER, "Writing extra elements to zip file");
+
+        PowerMock.replayAll();
+        this.odsElements.addStoredEntry("image/png", entry);
+        this.odsElements.writeExtras(writer);
+    }
+
     @Test
     public final void testSetModes() {
         final Container.Mode mode = Container.Mode.UPDATE;
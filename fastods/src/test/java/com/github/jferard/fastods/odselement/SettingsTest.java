@@ -210,6 +210,13 @@ public class SettingsTest {
     }
 
 
+    @Test
+    public void testConfigurationSettingsShared() {
+        PowerMock.replayAll();
+        Assert.assertSame(this.blocks.get(1), Settings.create().getRootBlocks().get(1));
+        Assert.assertNotSame(this.blocks.get(0), Settings.create().getRootBlocks().get(0));
+    }
+
     @Test
     public void testAddTable() throws IOException {
         final Table table = PowerMock.createMock(Table.class);
@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.reader;
+
+import com.github.jferard.fastods.AnonymousOdsFileWriter;
+import com.github.jferard.fastods.OdsDocument;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableRowImpl;
+import com.github.jferard.fastods.attribute.CellType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class OdsStreamReaderTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("fastods-reader", ".ods");
+        final OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("reader"), Locale.US);
+        final AnonymousOdsFileWriter writer = odsFactory.createWriter();
+        final OdsDocument document = writer.document();
+        final Table table = document.addTable("first");
+        TableRowImpl row = table.getRow(0);
+        row.getOrCreateCell(0).setStringValue("a & b");
+        row.getOrCreateCell(1).setFloatValue(12.5);
+        row.getOrCreateCell(3).setCurrencyValue(10, "EUR");
+        row = table.getRow(3);
+        row.getOrCreateCell(1).setStringValue("last");
+        document.addTable("second").getRow(0).getOrCreateCell(0).setBooleanValue(true);
+        writer.saveAs(this.file);
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final OdsStreamReader reader = OdsStreamReader.open(this.file);
+        try {
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("first", reader.getTableName());
+
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertEquals(0, reader.getRowIndex());
+            final ReadCell cell = reader.getCell();
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals(CellType.STRING, cell.getType());
+            Assert.assertEquals("a & b", cell.getValue());
+            Assert.assertEquals("a & b", cell.getText());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals(1, cell.getColumnIndex());
+            Assert.assertEquals(CellType.FLOAT, cell.getType());
+            Assert.assertEquals("12.5", cell.getValue());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertTrue(cell.isEmpty());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals(3, cell.getColumnIndex());
+            Assert.assertEquals(CellType.CURRENCY, cell.getType());
+            Assert.assertEquals("10", cell.getValue());
+            Assert.assertEquals("EUR", cell.getCurrency());
+            Assert.assertEquals("currency-style", cell.getDataStyleKind());
+
+            int rowCount = 1;
+            String last = null;
+            while (reader.nextRow()) {
+                rowCount++;
+                while (reader.nextCell()) {
+                    if (!cell.isEmpty()) {
+                        Assert.assertEquals(3, cell.getRowIndex());
+                        Assert.assertEquals(1, cell.getColumnIndex());
+                        last = cell.getValue();
+                    }
+                }
+            }
+            Assert.assertEquals(4, rowCount);
+            Assert.assertEquals("last", last);
+
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("second", reader.getTableName());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertTrue(reader.nextCell());
+            Assert.assertEquals(CellType.BOOLEAN, cell.getType());
+            Assert.assertEquals("true", cell.getValue());
+            Assert.assertFalse(reader.nextTable());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testSkipTable() throws IOException {
+        final OdsStreamReader reader = OdsStreamReader.open(this.file);
+        try {
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("second", reader.getTableName());
+            Assert.assertFalse(reader.nextTable());
+            Assert.assertFalse(reader.nextRow());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoContent() throws IOException {
+        final File empty = File.createTempFile("fastods-reader", ".zip");
+        try {
+            final ZipOutputStream out =
+                    new ZipOutputStream(new FileOutputStream(empty));
+            out.putNextEntry(new ZipEntry("mimetype"));
+            out.closeEntry();
+            out.close();
+            OdsStreamReader.open(empty);
+        } finally {
+            empty.delete();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.ref;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.text.ParseException;
+
+public class FormulaTemplateTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testNoRef() throws ParseException {
+        final FormulaTemplate template = FormulaTemplate.create("1+1", 0, 0);
+        Assert.assertEquals("of:=1+1", template.render(100, 5));
+    }
+
+    @Test
+    public void testRelative() throws ParseException {
+        final FormulaTemplate template = FormulaTemplate.create("[.B1]*[.C1]", 0, 3);
+        Assert.assertEquals("of:=[.B1]*[.C1]", template.render(0, 3));
+        Assert.assertEquals("of:=[.B12]*[.C12]", template.render(11, 3));
+        Assert.assertEquals("of:=[.AA1000000]*[.AB1000000]", template.render(999999, 28));
+    }
+
+    @Test
+    public void testAbsolute() throws ParseException {
+        final FormulaTemplate template = FormulaTemplate.create("[.$B1]*[.C$1]+[.$D$2]", 1, 0);
+        Assert.assertEquals("of:=[.$B10]*[.E$1]+[.$D$2]", template.render(10, 2));
+    }
+
+    @Test
+    public void testRangeAndTable() throws ParseException {
+        final FormulaTemplate template =
+                FormulaTemplate.create("SUM(['my.table'.A1:.B2])+[$Sheet1.A1]", 0, 0);
+        Assert.assertEquals("of:=SUM([&apos;my.table&apos;.B3:.C4])+[$Sheet1.B3]",
+                template.render(2, 1));
+    }
+
+    @Test
+    public void testStringAndEscape() throws ParseException {
+        final FormulaTemplate template =
+                FormulaTemplate.create("IF([.A1]<0;\"[.A1]\";\"a\"\"b\")", 0, 1);
+        Assert.assertEquals("of:=IF([.A2]&lt;0;&quot;[.A1]&quot;;&quot;a&quot;&quot;b&quot;)",
+                template.render(1, 1));
+    }
+
+    @Test
+    public void testCheckPosition() throws ParseException {
+        final FormulaTemplate template = FormulaTemplate.create("[.A1]", 1, 1);
+        template.checkPosition(1, 1);
+        this.thrown.expect(IllegalArgumentException.class);
+        template.checkPosition(0, 1);
+    }
+
+    @Test
+    public void testBadRef() throws ParseException {
+        this.thrown.expect(ParseException.class);
+        FormulaTemplate.create("[.A]", 0, 0);
+    }
+
+    @Test
+    public void testMissingBracket() throws ParseException {
+        this.thrown.expect(ParseException.class);
+        FormulaTemplate.create("[.A1", 0, 0);
+    }
+}
@@ -27,8 +27,10 @@ import com.github.jferard.fastods.TestHelper;
 import com.github.jferard.fastods.attribute.BorderStyle;
 import com.github.jferard.fastods.attribute.SimpleLength;
 import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
 
 import java.io.IOException;
 
@@ -167,4 +169,21 @@ public class TableCellStyleTest {
                 "fo:font-size=\"12.5pt\" style:font-size-asian=\"12.5pt\" " +
                 "style:font-size-complex=\"12.5pt\"/></style:style>", s);
     }
+
+    @Test
+    public final void testCachedXML() throws IOException {
+        final TableCellStyle s = TableCellStyle.builder("test").fontColor(SimpleColor.GRAY)
+                .borderAll(SimpleLength.pt(1.0), SimpleColor.AQUA, BorderStyle.DOUBLE).build();
+        final String xml = TestHelper.toXML(s);
+
+        final XMLUtil mockUtil = PowerMock.createMock(XMLUtil.class);
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        final StringBuilder sb = new StringBuilder();
+        s.appendXMLContent(mockUtil, sb);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(xml, sb.toString());
+    }
 }
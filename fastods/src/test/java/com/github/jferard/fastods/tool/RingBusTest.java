@@ -0,0 +1,258 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class RingBusTest {
+    @Test
+    public void testBus() {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        b.put(10);
+        b.put(2);
+        Assert.assertFalse(b.isClosed());
+        Assert.assertEquals(Integer.valueOf(10), b.get());
+        Assert.assertEquals(Integer.valueOf(2), b.get());
+        b.close();
+        Assert.assertTrue(b.isClosed());
+    }
+
+    @Test
+    public void testCapacity() {
+        Assert.assertEquals(1, new RingBus<Integer>(1).capacity());
+        Assert.assertEquals(8, new RingBus<Integer>(5).capacity());
+        Assert.assertEquals(8, new RingBus<Integer>(8).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new RingBus<Integer>(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNull() {
+        new RingBus<Integer>(4).put(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPutAfterClose() {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        b.close();
+        b.put(10);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testGetAfterClose() {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        b.put(10);
+        b.close();
+        b.get();
+        b.get();
+    }
+
+    @Test
+    public void testDrainTo() {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        final List<Integer> l = new ArrayList<Integer>();
+        b.put(1);
+        b.put(2);
+        b.put(3);
+        Assert.assertEquals(2, b.drainTo(l, 2));
+        b.put(4);
+        b.put(5);
+        Assert.assertEquals(3, b.drainTo(l, 10));
+        b.close();
+        Assert.assertEquals(0, b.drainTo(l, 10));
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), l);
+        Assert.assertTrue(b.isClosed());
+    }
+
+    @Test
+    public void testWait() throws InterruptedException {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        final Thread t1 = new Thread() {
+            @Override
+            public void run() {
+                b.get();
+            }
+        };
+        t1.start();
+        Thread.sleep(100);
+        b.put(100);
+        t1.join();
+    }
+
+    @Test
+    public void testCloseWakesUpConsumer() throws InterruptedException {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        final List<Integer> counts = Collections.synchronizedList(new ArrayList<Integer>());
+        final Thread t1 = new Thread() {
+            @Override
+            public void run() {
+                counts.add(b.drainTo(new ArrayList<Integer>(), 10));
+            }
+        };
+        t1.start();
+        Thread.sleep(100);
+        b.close();
+        t1.join();
+        Assert.assertEquals(Collections.singletonList(0), counts);
+    }
+
+    @Test
+    public void testWaitInterrupt() throws InterruptedException {
+        final RingBus<Integer> b = new RingBus<Integer>(4);
+        final Appendable sb = new StringBuilder();
+        final boolean[] interrupted = {false};
+        final Thread t1 = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    b.get();
+                    Assert.fail();
+                } catch (final RuntimeException e) {
+                    interrupted[0] = Thread.currentThread().isInterrupted();
+                    try {
+                        sb.append(e.getMessage());
+                    } catch (final IOException e1) {
+                        Assert.fail();
+                    }
+                }
+            }
+        };
+        t1.start();
+        Thread.sleep(100);
+        t1.interrupt();
+        t1.join();
+
+        Assert.assertEquals("java.lang.InterruptedException", sb.toString());
+        Assert.assertTrue(interrupted[0]);
+    }
+
+    @Test
+    public void testCloseWhilePutting() throws InterruptedException {
+        for (int n = 0; n < 50; n++) {
+            final RingBus<Integer> b = new RingBus<Integer>(4);
+            final int producerCount = 4;
+            final long[] putSums = new long[producerCount];
+            final List<Thread> producers = new ArrayList<Thread>();
+            for (int p = 0; p < producerCount; p++) {
+                final int producerIndex = p;
+                final Thread producer = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 1; i <= 100000; i++) {
+                                b.put(i);
+                                putSums[producerIndex] += i;
+                            }
+                        } catch (final IllegalStateException e) {
+                            // closed
+                        }
+                    }
+                };
+                producers.add(producer);
+                producer.start();
+            }
+            final long[] sum = {0};
+            final Thread consumer = new Thread() {
+                @Override
+                public void run() {
+                    final List<Integer> l = new ArrayList<Integer>();
+                    while (b.drainTo(l, 16) > 0) {
+                        for (final Integer i : l) {
+                            sum[0] += i;
+                        }
+                        l.clear();
+                    }
+                }
+            };
+            consumer.start();
+            Thread.sleep(1);
+            b.close();
+            for (final Thread producer : producers) {
+                producer.join(10000);
+                Assert.assertFalse(producer.isAlive());
+            }
+            consumer.join(10000);
+            Assert.assertFalse(consumer.isAlive());
+
+            long putSum = 0;
+            for (final long s : putSums) {
+                putSum += s;
+            }
+            Assert.assertEquals(putSum, sum[0]);
+            Assert.assertTrue(b.isClosed());
+        }
+    }
+
+    @Test
+    public void testProducers() throws InterruptedException {
+        final RingBus<Integer> b = new RingBus<Integer>(8);
+        final int producerCount = 4;
+        final int count = 10000;
+        final List<Thread> producers = new ArrayList<Thread>();
+        for (int p = 0; p < producerCount; p++) {
+            final Thread producer = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= count; i++) {
+                        b.put(i);
+                    }
+                }
+            };
+            producers.add(producer);
+            producer.start();
+        }
+        final long[] sum = {0};
+        final Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                final List<Integer> l = new ArrayList<Integer>();
+                while (b.drainTo(l, 16) > 0) {
+                    Assert.assertTrue(l.size() <= 16);
+                    for (final Integer i : l) {
+                        sum[0] += i;
+                    }
+                    l.clear();
+                }
+            }
+        };
+        consumer.start();
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        b.close();
+        consumer.join();
+        Assert.assertEquals(producerCount * (long) count * (count + 1) / 2, sum[0]);
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.NamedOdsFileWriter;
+import com.github.jferard.fastods.ObjectToCellValueConverter;
+import com.github.jferard.fastods.StringValue;
+import com.github.jferard.fastods.TableCellWalker;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TableSubscriberTest {
+    private Logger logger;
+    private NamedOdsFileWriter writer;
+    private TableCellWalker walker;
+    private RowSubscription subscription;
+    private TableSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        this.logger = PowerMock.createMock(Logger.class);
+        this.writer = PowerMock.createMock(NamedOdsFileWriter.class);
+        this.walker = PowerMock.createMock(TableCellWalker.class);
+        this.subscription = PowerMock.createMock(RowSubscription.class);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.walker.colIndex()).andReturn(1);
+
+        PowerMock.replayAll();
+        this.subscriber = TableSubscriber.create(this.logger, this.writer, this.walker,
+                new ObjectToCellValueConverter("USD"), 2);
+        PowerMock.verifyAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testNoDemand() {
+        TableSubscriber.create(this.logger, this.writer, this.walker,
+                new ObjectToCellValueConverter("USD"), 0);
+    }
+
+    @Test
+    public final void testBatches() throws IOException {
+        final List<List<String>> batch1 = Arrays.asList(Arrays.asList("a", "b"));
+        final List<List<String>> batch2 = Arrays.asList(Collections.singletonList("c"));
+
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        this.walker.to(1);
+        this.walker.setCellValue(EasyMock.isA(StringValue.class));
+        this.walker.to(2);
+        this.walker.setCellValue(EasyMock.isA(StringValue.class));
+        this.walker.nextRow();
+        this.walker.to(1);
+        this.walker.setCellValue(EasyMock.isA(StringValue.class));
+        // no request: the publisher has completed
+        this.writer.save();
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.onNext(batch1);
+        this.subscriber.onNext(batch2);
+        this.subscriber.onComplete();
+        Assert.assertFalse(this.subscriber.isDone());
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.isDone());
+        Assert.assertNull(this.subscriber.getError());
+    }
+
+    @Test
+    public final void testWriterThread() throws IOException, InterruptedException {
+        final List<List<String>> batch = Arrays.asList(Collections.singletonList("a"));
+        final Semaphore demand = new Semaphore(0);
+        final RowSubscription subscription = new RowSubscription() {
+            @Override
+            public void request(final long n) {
+                demand.release((int) n);
+            }
+
+            @Override
+            public void cancel() {
+                Assert.fail();
+            }
+        };
+
+        PowerMock.resetAll();
+        this.walker.to(1);
+        EasyMock.expectLastCall().times(3);
+        this.walker.setCellValue(EasyMock.isA(StringValue.class));
+        EasyMock.expectLastCall().times(3);
+        this.walker.nextRow();
+        EasyMock.expectLastCall().times(2);
+        this.writer.save();
+        this.writer.close();
+
+        PowerMock.replayAll();
+        final Thread writerThread = new Thread(this.subscriber);
+        writerThread.start();
+        this.subscriber.onSubscribe(subscription);
+        for (int i = 0; i < 3; i++) {
+            demand.acquire();
+            this.subscriber.onNext(batch);
+        }
+        this.subscriber.onComplete();
+        writerThread.join(10000);
+
+        PowerMock.verifyAll();
+        Assert.assertNull(this.subscriber.getError());
+        Assert.assertTrue(this.subscriber.isDone());
+    }
+
+    @Test
+    public final void testTooManyBatches() throws IOException {
+        final List<List<String>> batch = Arrays.asList(Collections.singletonList("a"));
+
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        this.subscription.cancel();
+        this.logger.log(EasyMock.eq(Level.SEVERE), EasyMock.eq("Can't write the rows"),
+                EasyMock.isA(IllegalStateException.class));
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.onNext(batch);
+        this.subscriber.onNext(batch);
+        this.subscriber.onNext(batch);
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.getError() instanceof IllegalStateException);
+    }
+
+    @Test
+    public final void testTooManyBatchesBeforeSubscription() throws IOException {
+        final List<List<String>> batch = Arrays.asList(Collections.singletonList("a"));
+
+        PowerMock.resetAll();
+        this.logger.log(EasyMock.eq(Level.SEVERE), EasyMock.eq("Can't write the rows"),
+                EasyMock.isA(IllegalStateException.class));
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onNext(batch);
+        this.subscriber.onNext(batch);
+        this.subscriber.onNext(batch);
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.getError() instanceof IllegalStateException);
+    }
+
+    @Test
+    public final void testInterruptedBeforeSubscription() throws IOException {
+        PowerMock.resetAll();
+        this.logger.log(EasyMock.eq(Level.SEVERE), EasyMock.eq("Can't write the rows"),
+                EasyMock.isA(InterruptedException.class));
+        this.writer.close();
+
+        PowerMock.replayAll();
+        Thread.currentThread().interrupt();
+        this.subscriber.run();
+        Assert.assertTrue(Thread.interrupted());
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.getError() instanceof InterruptedException);
+    }
+
+    @Test
+    public final void testError() throws IOException {
+        final Throwable t = new RuntimeException("error");
+
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        this.logger.log(Level.SEVERE, "Can't write the rows", t);
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.onError(t);
+        this.subscriber.onNext(Arrays.asList(Arrays.asList("a"))); // ignored
+        this.subscriber.onComplete(); // ignored
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.isDone());
+        Assert.assertSame(t, this.subscriber.getError());
+    }
+
+    @Test
+    public final void testWriteFailure() throws IOException {
+        final IOException e = new IOException("flushed");
+
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        this.walker.to(1);
+        this.walker.setCellValue(EasyMock.isA(StringValue.class));
+        this.walker.nextRow();
+        EasyMock.expectLastCall().andThrow(e);
+        this.subscription.cancel();
+        this.logger.log(Level.SEVERE, "Can't write the rows", e);
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.onNext(Arrays.asList(Arrays.asList("a"), Arrays.asList("b")));
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertSame(e, this.subscriber.getError());
+    }
+
+    @Test
+    public final void testCancel() throws IOException {
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        this.subscription.cancel();
+        this.logger.log(EasyMock.eq(Level.SEVERE), EasyMock.eq("Can't write the rows"),
+                EasyMock.isA(IOException.class));
+        this.writer.close();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.cancel();
+        this.subscriber.cancel();
+        this.subscriber.run();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.subscriber.isDone());
+    }
+
+    @Test
+    public final void testSecondSubscription() {
+        final RowSubscription subscription2 = PowerMock.createMock(RowSubscription.class);
+
+        PowerMock.resetAll();
+        this.subscription.request(2);
+        subscription2.cancel();
+
+        PowerMock.replayAll();
+        this.subscriber.onSubscribe(this.subscription);
+        this.subscriber.onSubscribe(subscription2);
+
+        PowerMock.verifyAll();
+    }
+}
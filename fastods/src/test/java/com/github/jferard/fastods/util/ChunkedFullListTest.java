@@ -0,0 +1,171 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class ChunkedFullListTest {
+    @Test
+    public final void testSetAndAdd() {
+        final String be = "blank";
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().blankElement(be)
+                .capacity(10).segmentSize(16).build();
+
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertEquals(be, fl.get(100));
+
+        fl.set(100, "non blank");
+        Assert.assertEquals(101, fl.usedSize());
+        Assert.assertEquals("non blank", fl.get(100));
+        Assert.assertEquals(be, fl.get(99));
+        Assert.assertEquals(be, fl.get(5));
+
+        fl.set(1000, be);
+        Assert.assertEquals(101, fl.usedSize());
+        Assert.assertEquals(be, fl.get(1000));
+    }
+
+    @Test
+    public final void testSet() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().capacity(10)
+                .segmentSize(8).build();
+
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertNull(fl.get(100));
+
+        for (int i = 0; i < 100; i++) {
+            fl.set(i, "non blank");
+            Assert.assertEquals(i + 1, fl.usedSize());
+        }
+        fl.set(100, null);
+        Assert.assertEquals(100, fl.usedSize());
+    }
+
+    @Test
+    public final void testGet() {
+        final ChunkedFullList<String> fl = ChunkedFullList.newListWithCapacity(0);
+        Assert.assertNull(fl.get(10));
+        Assert.assertEquals(0, fl.usedSize());
+    }
+
+    @Test
+    public final void testRemoveTrail() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().build();
+        fl.set(10, "10");
+        fl.set(10, "20");
+        fl.set(5, "5");
+        fl.set(10, null);
+        Assert.assertEquals(6, fl.usedSize());
+    }
+
+    @Test
+    public final void testRemoveTrailSparse() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().segmentSize(4)
+                .build();
+        fl.set(1, "1");
+        fl.set(1000, "1000");
+        fl.set(1000, null);
+        Assert.assertEquals(2, fl.usedSize());
+        fl.set(1, null);
+        Assert.assertEquals(0, fl.usedSize());
+    }
+
+    @Test
+    public final void testNextNonBlankIndex() {
+        final String be = "blank";
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().blankElement(be)
+                .segmentSize(4).build();
+        fl.set(1, "1");
+        fl.set(2, be);
+        fl.set(500, "500");
+        fl.set(501, "501");
+        Assert.assertEquals(1, fl.nextNonBlankIndex(0));
+        Assert.assertEquals(1, fl.nextNonBlankIndex(1));
+        Assert.assertEquals(500, fl.nextNonBlankIndex(2));
+        Assert.assertEquals(501, fl.nextNonBlankIndex(501));
+        Assert.assertEquals(502, fl.nextNonBlankIndex(502));
+        Assert.assertEquals(502, fl.nextNonBlankIndex(10000));
+    }
+
+    @Test
+    public final void testClearBefore() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().segmentSize(4)
+                .build();
+        for (int i = 0; i < 20; i++) {
+            fl.set(i, String.valueOf(i));
+        }
+        fl.clearBefore(10);
+        Assert.assertEquals(20, fl.usedSize());
+        Assert.assertNull(fl.get(0));
+        Assert.assertNull(fl.get(9));
+        Assert.assertEquals("10", fl.get(10));
+        Assert.assertEquals(10, fl.nextNonBlankIndex(0));
+
+        fl.clearBefore(100);
+        Assert.assertEquals(0, fl.usedSize());
+    }
+
+    @Test
+    public final void testSubListAndIterator() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().segmentSize(2)
+                .build();
+        fl.set(0, "a");
+        fl.set(2, "c");
+        fl.set(3, "d");
+        final List<String> subList = fl.subList(1, 4);
+        Assert.assertEquals(Arrays.asList(null, "c", "d"), subList);
+
+        final Iterator<String> it = fl.iterator();
+        Assert.assertEquals("a", it.next());
+        Assert.assertNull(it.next());
+        Assert.assertEquals("c", it.next());
+        Assert.assertEquals("d", it.next());
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public final void testSubListFill() {
+        final ChunkedFullList<String> fl = ChunkedFullList.<String>builder().segmentSize(2)
+                .build();
+        fl.set(0, "a");
+        fl.set(2, "c");
+        fl.set(3, "d");
+        final List<String> subList = fl.subList(0, 3);
+        Collections.fill(subList, null);
+        Assert.assertEquals(Arrays.asList(null, null, null), subList);
+        Assert.assertEquals("d", fl.get(3));
+        Assert.assertEquals(4, fl.usedSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testBadSegmentSize() {
+        ChunkedFullList.<String>builder().segmentSize(10);
+    }
+}
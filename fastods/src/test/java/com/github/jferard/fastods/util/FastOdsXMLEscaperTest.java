@@ -60,6 +60,18 @@ public class FastOdsXMLEscaperTest {
         Assert.assertEquals(sb2.toString(), escaper.escapeXMLAttribute(sb1.toString()));
     }
 
+    @Test
+    public final void testReset() {
+        final FastOdsXMLEscaper escaper = new FastOdsXMLEscaper(8);
+        final String s = "<a>";
+        final String escaped = escaper.escapeXMLContent(s);
+        Assert.assertSame(escaped, escaper.escapeXMLContent(s));
+        escaper.reset();
+        final String escapedAfterReset = escaper.escapeXMLContent(s);
+        Assert.assertEquals(escaped, escapedAfterReset);
+        Assert.assertNotSame(escaped, escapedAfterReset);
+    }
+
     @Test
     public final void testAttrExpression() {
         this.assertEqualsToAttrEscaped("w&lt;&amp; &apos; d&quot;gfgh &gt;", "w<& ' d\"gfgh >");
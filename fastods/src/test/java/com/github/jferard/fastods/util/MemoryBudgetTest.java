@@ -0,0 +1,115 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MemoryBudgetTest {
+    @Test
+    public final void testReserveAndRelease() {
+        final MemoryBudget budget = MemoryBudget.create(100);
+        budget.reserve(60);
+        Assert.assertFalse(budget.isExceeded());
+        budget.reserve(60);
+        Assert.assertTrue(budget.isExceeded());
+        Assert.assertEquals(120, budget.getUsedBytes());
+        budget.release(200);
+        Assert.assertEquals(0, budget.getUsedBytes());
+        Assert.assertFalse(budget.isExceeded());
+    }
+
+    @Test
+    public final void testEnforce() throws IOException {
+        final MemoryBudget budget = MemoryBudget.create(100);
+        final List<String> spills = new ArrayList<String>();
+        final MemoryBudget.Holder small = this.createHolder(budget, spills, "small", 30);
+        final MemoryBudget.Holder big = this.createHolder(budget, spills, "big", 80);
+        final MemoryBudget.Holder last = this.createHolder(budget, spills, "last", 20);
+        budget.register(small);
+        budget.register(big);
+        budget.register(last);
+
+        budget.enforce(last);
+        Assert.assertEquals(50, budget.getUsedBytes());
+        Assert.assertEquals(Arrays.asList("big:false"), spills);
+    }
+
+    @Test
+    public final void testEnforceRequester() throws IOException {
+        final MemoryBudget budget = MemoryBudget.create(100);
+        final List<String> spills = new ArrayList<String>();
+        final MemoryBudget.Holder small = this.createHolder(budget, spills, "small", 50);
+        final MemoryBudget.Holder big = this.createHolder(budget, spills, "big", 70);
+        budget.register(small);
+        budget.register(big);
+
+        budget.enforce(big);
+        Assert.assertEquals(50, budget.getUsedBytes());
+        Assert.assertEquals(Arrays.asList("big:true"), spills);
+    }
+
+    @Test
+    public final void testNotExceeded() throws IOException {
+        final MemoryBudget budget = MemoryBudget.create(100);
+        final List<String> spills = new ArrayList<String>();
+        final MemoryBudget.Holder holder = this.createHolder(budget, spills, "holder", 100);
+        budget.register(holder);
+
+        budget.enforce(holder);
+        Assert.assertEquals(100, budget.getUsedBytes());
+        Assert.assertTrue(spills.isEmpty());
+    }
+
+    private MemoryBudget.Holder createHolder(final MemoryBudget budget,
+                                             final List<String> spills, final String name,
+                                             final long bytes) {
+        budget.reserve(bytes);
+        return new MemoryBudget.Holder() {
+            private long heldBytes = bytes;
+
+            @Override
+            public long getHeldBytes() {
+                return this.heldBytes;
+            }
+
+            @Override
+            public void spill(final boolean keepLastRows) {
+                spills.add(name + ":" + keepLastRows);
+                budget.release(this.heldBytes);
+                this.heldBytes = 0;
+            }
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testZeroBudget() {
+        MemoryBudget.create(0);
+    }
+}
@@ -88,6 +88,15 @@ public class MultiContainerTest {
                 this.container.getValues(Dest.STYLES_COMMON_STYLES).iterator().hasNext());
     }
 
+    @Test
+    public final void testRemove() {
+        Assert.assertTrue(this.container.add("a", Dest.CONTENT_AUTOMATIC_STYLES, 1));
+        Assert.assertTrue(this.container.remove("a"));
+        Assert.assertFalse(this.container.remove("a"));
+        Assert.assertFalse(
+                this.container.getValues(Dest.CONTENT_AUTOMATIC_STYLES).iterator().hasNext());
+    }
+
     @Test
     public final void testEmpty() {
         for (final Dest s : Dest.values()) {
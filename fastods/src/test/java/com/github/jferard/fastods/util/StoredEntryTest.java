@@ -0,0 +1,130 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+public class StoredEntryTest {
+    @Test
+    public final void testWriteEntries() throws IOException {
+        final StoredEntry picture = StoredEntry.create("Pictures/a.png", new byte[]{1, 2, 3});
+        final StoredEntry text = StoredEntry.create("Basic/m.xml", "<é/>");
+        Assert.assertEquals(3, picture.getSize());
+        Assert.assertEquals(5, text.getSize());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ZipUTF8Writer writer = ZipUTF8WriterImpl.builder().build(out);
+        writer.putNextEntry(new ZipEntry("content.xml"));
+        writer.write("<a/>");
+        ((StoredEntryWriter) writer).writeStoredEntry(picture);
+        ((StoredEntryWriter) writer).writeStoredEntry(text);
+        writer.finish();
+        writer.close();
+
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals("content.xml", in.getNextEntry().getName());
+        Assert.assertEquals("<a/>", new String(this.readAll(in), ZipUTF8Writer.UTF_8));
+        final ZipEntry pictureEntry = in.getNextEntry();
+        Assert.assertEquals(ZipEntry.STORED, pictureEntry.getMethod());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, this.readAll(in));
+        final ZipEntry textEntry = in.getNextEntry();
+        Assert.assertEquals(ZipEntry.STORED, textEntry.getMethod());
+        Assert.assertEquals("<é/>", new String(this.readAll(in), ZipUTF8Writer.UTF_8));
+        Assert.assertNull(in.getNextEntry());
+    }
+
+    @Test
+    public final void testCopyOf() throws IOException {
+        final File file = this.createArchive();
+        try {
+            final ZipFile zipFile = new ZipFile(file);
+            try {
+                final StoredEntry mimetype =
+                        StoredEntry.copyOf(zipFile, zipFile.getEntry("mimetype"));
+                Assert.assertEquals("mimetype", mimetype.getName());
+                Assert.assertEquals(46, mimetype.getSize());
+            } finally {
+                zipFile.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testCopyOfDeflated() throws IOException {
+        final File file = this.createArchive();
+        try {
+            final ZipFile zipFile = new ZipFile(file);
+            try {
+                StoredEntry.copyOf(zipFile, zipFile.getEntry("styles.xml"));
+            } finally {
+                zipFile.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private File createArchive() throws IOException {
+        final File file = File.createTempFile("stored", ".zip");
+        try {
+            final FileOutputStream out = new FileOutputStream(file);
+            final ZipUTF8Writer writer = ZipUTF8WriterImpl.builder()
+                    .entryCompression("mimetype", EntryCompression.stored()).build(out);
+            writer.putNextEntry(new ZipEntry("mimetype"));
+            writer.write("application/vnd.oasis.opendocument.spreadsheet");
+            writer.putNextEntry(new ZipEntry("styles.xml"));
+            writer.write("<styles/>");
+            writer.finish();
+            writer.close();
+        } catch (final IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+
+    private byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count = in.read(buffer);
+        while (count != -1) {
+            out.write(buffer, 0, count);
+            count = in.read(buffer);
+        }
+        return out.toByteArray();
+    }
+}
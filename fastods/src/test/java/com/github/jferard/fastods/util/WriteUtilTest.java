@@ -46,5 +46,25 @@ public class WriteUtilTest {
         Assert.assertEquals("-1001", this.util.toString(-1001));
     }
 
+    @Test
+    public final void testLongAndDouble() {
+        Assert.assertEquals("12", this.util.toString(12L));
+        Assert.assertEquals("12345678901", this.util.toString(12345678901L));
+        Assert.assertEquals("2.0", this.util.toString(2.0));
+        Assert.assertSame(this.util.toString(2.0), this.util.toString(2.0));
+        Assert.assertEquals("-0.0", this.util.toString(-0.0));
+        Assert.assertEquals("0.5", this.util.toString(0.5));
+        Assert.assertEquals("1.0E10", this.util.toString(1e10));
+    }
+
+    @Test
+    public final void testNumber() {
+        Assert.assertSame(this.util.toString(7), this.util.toString(Integer.valueOf(7)));
+        Assert.assertEquals("7", this.util.toString(Short.valueOf((short) 7)));
+        Assert.assertEquals("7", this.util.toString(Long.valueOf(7)));
+        Assert.assertEquals("7.0", this.util.toString(Double.valueOf(7)));
+        Assert.assertEquals("7.5", this.util.toString(Float.valueOf(7.5f)));
+    }
+
 
 }
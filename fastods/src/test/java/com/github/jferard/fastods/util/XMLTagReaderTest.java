@@ -0,0 +1,71 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class XMLTagReaderTest {
+    @Test
+    public final void testCopy() throws IOException {
+        final String xml = "<?xml version=\"1.0\"?><a x=\"1>2\">t<!-- <b> --><b/>u</a>";
+        final XMLTagReader reader = new XMLTagReader(new StringReader(xml));
+        final StringWriter writer = new StringWriter();
+        int count = 0;
+        while (reader.copyToNextTag(writer)) {
+            writer.append(reader.getTag());
+            count++;
+        }
+        Assert.assertEquals(xml, writer.toString());
+        Assert.assertEquals(5, count);
+    }
+
+    @Test
+    public final void testTags() throws IOException {
+        final XMLTagReader reader = new XMLTagReader(
+                new StringReader("<table:table table:name=\"t\"><table:table-row/></table:table>"));
+        Assert.assertTrue(reader.copyToNextTag(null));
+        Assert.assertTrue(reader.isStartTag("table:table"));
+        Assert.assertFalse(reader.isEmptyElementTag());
+        Assert.assertEquals("t", XMLTagReader.getRawAttribute(reader.getTag(), "table:name"));
+        Assert.assertNull(XMLTagReader.getRawAttribute(reader.getTag(), "name"));
+        Assert.assertTrue(reader.copyToNextTag(null));
+        Assert.assertFalse(reader.isStartTag("table:table"));
+        Assert.assertTrue(reader.isStartTag("table:table-row"));
+        Assert.assertTrue(reader.isEmptyElementTag());
+        Assert.assertTrue(reader.copyToNextTag(null));
+        Assert.assertTrue(reader.isEndTag("table:table"));
+        Assert.assertFalse(reader.copyToNextTag(null));
+    }
+
+    @Test(expected = IOException.class)
+    public final void testUnclosedTag() throws IOException {
+        final XMLTagReader reader = new XMLTagReader(new StringReader("text<a "));
+        reader.copyToNextTag(null);
+    }
+}
@@ -39,6 +39,25 @@ public class XMLUtilTest {
         this.sb = new StringBuilder();
     }
 
+    @Test
+    public void testResetOtherEscaper() throws IOException {
+        final XMLEscaper escaper = new XMLEscaper() {
+            @Override
+            public String escapeXMLAttribute(final String s) {
+                return s;
+            }
+
+            @Override
+            public String escapeXMLContent(final String s) {
+                return s;
+            }
+        };
+        final XMLUtil util = new XMLUtil(escaper);
+        util.reset();
+        util.appendAttribute(this.sb, "attr", "<");
+        Assert.assertEquals(" attr=\"<\"", this.sb.toString());
+    }
+
     @Test
     public void testBooleanAttr() throws IOException {
         this.xu.appendAttribute(this.sb, "attr", true);
@@ -51,6 +70,23 @@ public class XMLUtilTest {
         Assert.assertEquals(" attr=\"7\"", this.sb.toString());
     }
 
+    @Test
+    public void testLongs() throws IOException {
+        final long[] values = {0, 9, 10, 99, 100, 101, -1, -10, -12345, 1234567890123L,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        for (final long value : values) {
+            final StringBuilder sb = new StringBuilder();
+            this.xu.appendLong(sb, value);
+            Assert.assertEquals(Long.toString(value), sb.toString());
+        }
+    }
+
+    @Test
+    public void testLongAttr() throws IOException {
+        this.xu.appendAttribute(this.sb, "attr", 12345678901L);
+        Assert.assertEquals(" attr=\"12345678901\"", this.sb.toString());
+    }
+
     @Test
     public void testStringAttr() throws IOException {
         this.xu.appendAttribute(this.sb, "attr", "value&");
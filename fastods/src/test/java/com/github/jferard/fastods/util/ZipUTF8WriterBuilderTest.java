@@ -29,9 +29,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class ZipUTF8WriterBuilderTest {
     public static final int C_SIZE = 118;
@@ -143,4 +146,117 @@ public class ZipUTF8WriterBuilderTest {
         this.thrown.expectMessage("invalid compression level");
         this.builder.level(99).build(this.out);
     }
+
+    @Test
+    public final void testBadStrategy() {
+        this.thrown.expect(IllegalArgumentException.class);
+        this.thrown.expectMessage("invalid compression strategy");
+        this.builder.strategy(99);
+    }
+
+    @Test
+    public final void testStoredEntry() throws IOException {
+        final ZipUTF8Writer writer = this.builder
+                .entryCompression("mimetype", EntryCompression.stored()).build(this.out);
+        writer.putNextEntry(new ZipEntry("mimetype"));
+        writer.write("application/vnd.oasis.opendocument.spreadsheet");
+        writer.closeEntry();
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("é");
+        writer.closeEntry();
+        writer.close();
+
+        final ZipInputStream zis =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        final ZipEntry mimetype = zis.getNextEntry();
+        Assert.assertEquals("mimetype", mimetype.getName());
+        Assert.assertEquals(ZipEntry.STORED, mimetype.getMethod());
+        Assert.assertEquals("application/vnd.oasis.opendocument.spreadsheet",
+                this.readEntry(zis));
+        final ZipEntry a = zis.getNextEntry();
+        Assert.assertEquals(ZipEntry.DEFLATED, a.getMethod());
+        Assert.assertEquals("é", this.readEntry(zis));
+        Assert.assertNull(zis.getNextEntry());
+    }
+
+    @Test
+    public final void testStoredEntryNotClosed() throws IOException {
+        final ZipUTF8Writer writer = this.builder
+                .entryCompression("a", EntryCompression.stored()).build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("text", 1, 3);
+        writer.append('!');
+        writer.close();
+
+        final ZipInputStream zis =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        Assert.assertEquals(ZipEntry.STORED, zis.getNextEntry().getMethod());
+        Assert.assertEquals("ex!", this.readEntry(zis));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testStoredContent() {
+        this.builder.entryCompression("content.xml", EntryCompression.stored());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testStoredContentFromStrategy() throws IOException {
+        final ZipUTF8Writer writer = this.builder.compressionStrategy(new CompressionStrategy() {
+            @Override
+            public EntryCompression getCompression(final String entryName) {
+                return EntryCompression.stored();
+            }
+        }).build(this.out);
+        writer.putNextEntry(new ZipEntry("content.xml"));
+    }
+
+    @Test
+    public final void testEntryLevel() throws IOException {
+        final ZipUTF8Writer writer = this.builder.level(9)
+                .entryCompression("a", EntryCompression.deflated(Deflater.NO_COMPRESSION))
+                .build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append(
+                "some long text that can be zipped some long text that can be zipped some long " +
+                        "text that can be " + "zipped some long text that can be zipped ");
+        writer.close();
+        Assert.assertEquals(121, this.out.size());
+    }
+
+    @Test
+    public final void testCompressionStrategy() throws IOException {
+        final ZipUTF8Writer writer = this.builder.compressionStrategy(new CompressionStrategy() {
+            @Override
+            public EntryCompression getCompression(final String entryName) {
+                return EntryCompression.deflated(Deflater.BEST_COMPRESSION, Deflater.HUFFMAN_ONLY);
+            }
+        }).build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("some text some text some text");
+        writer.closeEntry();
+        writer.close();
+
+        final ZipInputStream zis =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        Assert.assertEquals(ZipEntry.DEFLATED, zis.getNextEntry().getMethod());
+        Assert.assertEquals("some text some text some text", this.readEntry(zis));
+    }
+
+    @Test
+    public final void testBadEntryLevel() {
+        this.thrown.expect(IllegalArgumentException.class);
+        this.thrown.expectMessage("invalid compression level");
+        EntryCompression.deflated(10);
+    }
+
+    private String readEntry(final ZipInputStream zis) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count = zis.read(buffer);
+        while (count != -1) {
+            bytes.write(buffer, 0, count);
+            count = zis.read(buffer);
+        }
+        return new String(bytes.toByteArray(), ZipUTF8Writer.UTF_8);
+    }
 }